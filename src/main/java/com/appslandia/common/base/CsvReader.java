@@ -0,0 +1,183 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.base;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.appslandia.common.utils.AssertUtils;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class CsvReader implements Closeable {
+
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	final Reader reader;
+	final char delimiter;
+	final char[] buf;
+
+	private int pos;
+	private int limit;
+	private long rowNumber;
+	private boolean eof;
+
+	// Reused across rows
+	final StringBuilder field = new StringBuilder(64);
+	final List<String> fields = new ArrayList<>();
+
+	public CsvReader(Reader reader, char delimiter) {
+		this(reader, delimiter, DEFAULT_BUFFER_SIZE);
+	}
+
+	public CsvReader(Reader reader, char delimiter, int bufferSize) {
+		AssertUtils.assertTrue(delimiter != '"', "delimiter is invalid.");
+		AssertUtils.assertTrue(bufferSize > 0, "bufferSize is required.");
+
+		this.reader = AssertUtils.assertNotNull(reader);
+		this.delimiter = delimiter;
+		this.buf = new char[bufferSize];
+	}
+
+	public static CsvReader open(Path file, Charset charset, char delimiter) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			Reader reader = Channels.newReader(channel,
+					charset.newDecoder().onMalformedInput(CodingErrorAction.REPORT).onUnmappableCharacter(CodingErrorAction.REPORT), DEFAULT_BUFFER_SIZE);
+			return new CsvReader(reader, delimiter);
+
+		} catch (RuntimeException ex) {
+			channel.close();
+			throw ex;
+		}
+	}
+
+	// Returns null at the end of input
+	public String[] readRow() throws IOException {
+		if (!fill()) {
+			return null;
+		}
+		this.fields.clear();
+		this.field.setLength(0);
+
+		boolean quoted = false;
+		boolean afterQuote = false;
+
+		while (fill()) {
+			char c = this.buf[this.pos++];
+
+			if (quoted) {
+				if (c == '"') {
+					// "" is an escaped quote
+					if (fill() && (this.buf[this.pos] == '"')) {
+						this.field.append('"');
+						this.pos++;
+					} else {
+						quoted = false;
+						afterQuote = true;
+					}
+				} else {
+					this.field.append(c);
+				}
+				continue;
+			}
+
+			if (c == this.delimiter) {
+				endField();
+				afterQuote = false;
+
+			} else if (c == '\n') {
+				return endRow();
+
+			} else if (c == '\r') {
+				if (fill() && (this.buf[this.pos] == '\n')) {
+					this.pos++;
+				}
+				return endRow();
+
+			} else if ((c == '"') && (this.field.length() == 0) && !afterQuote) {
+				quoted = true;
+
+			} else {
+				this.field.append(c);
+			}
+		}
+
+		if (quoted) {
+			throw new IOException("Unterminated quoted field (row=" + (this.rowNumber + 1) + ")");
+		}
+		return endRow();
+	}
+
+	private void endField() {
+		this.fields.add(this.field.toString());
+		this.field.setLength(0);
+	}
+
+	private String[] endRow() {
+		endField();
+		this.rowNumber++;
+		return this.fields.toArray(new String[this.fields.size()]);
+	}
+
+	private boolean fill() throws IOException {
+		if (this.pos < this.limit) {
+			return true;
+		}
+		if (this.eof) {
+			return false;
+		}
+		int n;
+		do {
+			n = this.reader.read(this.buf, 0, this.buf.length);
+		} while (n == 0);
+
+		if (n < 0) {
+			this.eof = true;
+			return false;
+		}
+		this.pos = 0;
+		this.limit = n;
+		return true;
+	}
+
+	public long getRowNumber() {
+		return this.rowNumber;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.reader.close();
+	}
+}
@@ -0,0 +1,224 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.base;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import com.appslandia.common.utils.AssertUtils;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class LongObjectMap<V> implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	// Marks an occupied slot holding a null value
+	private static final Object NULL_VALUE = NullValue.INSTANCE;
+
+	private long[] keys;
+	private Object[] values;
+	private int size;
+	private int threshold;
+
+	public LongObjectMap() {
+		this(16);
+	}
+
+	public LongObjectMap(int expectedSize) {
+		AssertUtils.assertTrue(expectedSize >= 0, "expectedSize must be greater than or equal to 0.");
+		allocate(tableSizeFor(expectedSize));
+	}
+
+	static int tableSizeFor(int expectedSize) {
+		// Load factor 0.75
+		long minCapacity = Math.max(4, (long) Math.ceil(expectedSize / 0.75d));
+		int capacity = Integer.highestOneBit((int) Math.min(minCapacity, 1 << 30));
+		return (capacity < minCapacity) ? capacity << 1 : capacity;
+	}
+
+	private void allocate(int capacity) {
+		this.keys = new long[capacity];
+		this.values = new Object[capacity];
+		this.threshold = (int) (capacity * 0.75d);
+	}
+
+	static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	private int indexOf(long key) {
+		int mask = this.keys.length - 1;
+		int i = hash(key) & mask;
+		while (this.values[i] != null) {
+			if (this.keys[i] == key) {
+				return i;
+			}
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	public boolean containsKey(long key) {
+		return indexOf(key) >= 0;
+	}
+
+	public V get(long key) {
+		int i = indexOf(key);
+		return (i >= 0) ? unmask(this.values[i]) : null;
+	}
+
+	public V getOrDefault(long key, V defaultValue) {
+		int i = indexOf(key);
+		return (i >= 0) ? unmask(this.values[i]) : defaultValue;
+	}
+
+	public V put(long key, V value) {
+		int mask = this.keys.length - 1;
+		int i = hash(key) & mask;
+		while (this.values[i] != null) {
+			if (this.keys[i] == key) {
+				V old = unmask(this.values[i]);
+				this.values[i] = mask(value);
+				return old;
+			}
+			i = (i + 1) & mask;
+		}
+		this.keys[i] = key;
+		this.values[i] = mask(value);
+
+		if (++this.size > this.threshold) {
+			rehash(this.keys.length << 1);
+		}
+		return null;
+	}
+
+	public V remove(long key) {
+		int i = indexOf(key);
+		if (i < 0) {
+			return null;
+		}
+		V old = unmask(this.values[i]);
+		this.values[i] = null;
+		this.size--;
+
+		// Backward shift: close the gap left in the probe chain
+		int mask = this.keys.length - 1;
+		int gap = i;
+		int j = (i + 1) & mask;
+		while (this.values[j] != null) {
+			int home = hash(this.keys[j]) & mask;
+			if (((j - home) & mask) >= ((j - gap) & mask)) {
+				this.keys[gap] = this.keys[j];
+				this.values[gap] = this.values[j];
+				this.values[j] = null;
+				gap = j;
+			}
+			j = (j + 1) & mask;
+		}
+		return old;
+	}
+
+	public void clear() {
+		Arrays.fill(this.values, null);
+		this.size = 0;
+	}
+
+	public long[] keys() {
+		long[] result = new long[this.size];
+		int count = 0;
+		for (int i = 0; i < this.values.length; i++) {
+			if (this.values[i] != null) {
+				result[count++] = this.keys[i];
+			}
+		}
+		return result;
+	}
+
+	public void forEach(EntryConsumer<? super V> action) {
+		for (int i = 0; i < this.values.length; i++) {
+			if (this.values[i] != null) {
+				action.accept(this.keys[i], unmask(this.values[i]));
+			}
+		}
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = this.keys;
+		Object[] oldValues = this.values;
+		allocate(capacity);
+
+		int mask = capacity - 1;
+		for (int i = 0; i < oldValues.length; i++) {
+			if (oldValues[i] != null) {
+				int j = hash(oldKeys[i]) & mask;
+				while (this.values[j] != null) {
+					j = (j + 1) & mask;
+				}
+				this.keys[j] = oldKeys[i];
+				this.values[j] = oldValues[i];
+			}
+		}
+	}
+
+	private static Object mask(Object value) {
+		return (value != null) ? value : NULL_VALUE;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <V> V unmask(Object value) {
+		return (value != NULL_VALUE) ? (V) value : null;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		forEach((k, v) -> {
+			if (sb.length() > 1) {
+				sb.append(", ");
+			}
+			sb.append(k).append('=').append(v);
+		});
+		return sb.append('}').toString();
+	}
+
+	@FunctionalInterface
+	public interface EntryConsumer<V> {
+
+		void accept(long key, V value);
+	}
+
+	enum NullValue {
+		INSTANCE
+	}
+}
@@ -0,0 +1,149 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.sql.DataSource;
+
+import com.appslandia.common.threading.DaemonThreadFactory;
+import com.appslandia.common.utils.AssertUtils;
+import com.appslandia.common.utils.ThreadUtils;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class AsyncQueryExecutor implements AutoCloseable {
+
+	final DataSource dataSource;
+	final String dsName;
+	final Executor executor;
+	final boolean ownsExecutor;
+
+	public AsyncQueryExecutor(DataSource dataSource, String dsName) {
+		this(dataSource, dsName, newDefaultExecutor(dataSource), true);
+	}
+
+	public AsyncQueryExecutor(DataSource dataSource, String dsName, Executor executor) {
+		this(dataSource, dsName, executor, false);
+	}
+
+	protected AsyncQueryExecutor(DataSource dataSource, String dsName, Executor executor, boolean ownsExecutor) {
+		this.dataSource = AssertUtils.assertNotNull(dataSource);
+		this.dsName = AssertUtils.assertNotNull(dsName);
+		this.executor = AssertUtils.assertNotNull(executor);
+		this.ownsExecutor = ownsExecutor;
+	}
+
+	// Virtual threads if supported, otherwise one platform thread per pooled connection
+	public static ExecutorService newDefaultExecutor(DataSource dataSource) {
+		ExecutorService executor = ThreadUtils.newVirtualThreadExecutor();
+		if (executor != null) {
+			return executor;
+		}
+		int threads = Runtime.getRuntime().availableProcessors() * 2;
+		if (dataSource instanceof DataSourceImpl && ((DataSourceImpl) dataSource).isPooled()) {
+			threads = ((DataSourceImpl) dataSource).getMaxPoolSize();
+		}
+		return Executors.newFixedThreadPool(threads, new DaemonThreadFactory());
+	}
+
+	public <R> CompletableFuture<R> executeAsync(ConnectionCallable<R> task) {
+		CompletableFuture<R> future = new CompletableFuture<>();
+		try {
+			this.executor.execute(() -> {
+				if (future.isDone()) {
+					return;
+				}
+
+				// The connection is passed to the task, not bound to the worker thread
+				R result = null;
+				try (ConnectionImpl conn = new ConnectionImpl(this.dataSource, this.dsName, ConnectionImpl.DEFAULT_STATEMENT_CACHE_SIZE, false)) {
+					result = task.call(conn);
+
+				} catch (Throwable ex) {
+					future.completeExceptionally(ex);
+					return;
+				}
+
+				// Completed after close: dependent stages can reuse the pooled connection
+				future.complete(result);
+			});
+		} catch (RejectedExecutionException ex) {
+			future.completeExceptionally(ex);
+		}
+		return future;
+	}
+
+	public <T> CompletableFuture<List<T>> executeListAsync(String sql, Map<String, Object> params, ResultSetMapper<T> mapper) {
+		return executeListAsync(Sql.of(sql), params, mapper);
+	}
+
+	public <T> CompletableFuture<List<T>> executeListAsync(Sql sql, Map<String, Object> params, ResultSetMapper<T> mapper) {
+		return executeAsync(conn -> conn.executeList(sql, params, mapper));
+	}
+
+	public <T> CompletableFuture<T> executeSingleAsync(String sql, Map<String, Object> params, ResultSetMapper<T> mapper) {
+		Sql pSql = Sql.of(sql);
+		return executeAsync(conn -> {
+			try (StatementImpl stat = conn.prepareCached(pSql)) {
+				ConnectionImpl.setParameters(stat, params);
+				return stat.executeSingle(mapper);
+			}
+		});
+	}
+
+	public <R> CompletableFuture<List<R>> executeAllAsync(List<ConnectionCallable<R>> tasks) {
+		List<CompletableFuture<R>> futures = new ArrayList<>(tasks.size());
+		for (ConnectionCallable<R> task : tasks) {
+			futures.add(executeAsync(task));
+		}
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).thenApply(v -> {
+			List<R> results = new ArrayList<>(futures.size());
+			for (CompletableFuture<R> future : futures) {
+				results.add(future.join());
+			}
+			return Collections.unmodifiableList(results);
+		});
+	}
+
+	public Executor getExecutor() {
+		return this.executor;
+	}
+
+	@Override
+	public void close() {
+		if (this.ownsExecutor) {
+			((ExecutorService) this.executor).shutdown();
+		}
+	}
+}
@@ -0,0 +1,265 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.appslandia.common.utils.AssertUtils;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class BatchWriter implements AutoCloseable {
+
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+	public static final long DEFAULT_BATCH_BYTES = 4L * 1024 * 1024;
+
+	private static final int[] EMPTY_COUNTS = {};
+
+	final StatementImpl stat;
+	final Connection conn;
+	final boolean closeStatement;
+
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private long batchBytes = DEFAULT_BATCH_BYTES;
+	private int commitEvery;
+	private boolean returnGeneratedKeys;
+	private BatchHandler batchHandler;
+
+	private int pendingRows;
+	private long pendingBytes;
+	private int uncommittedBatches;
+
+	private long totalRows;
+	private long totalUpdateCount;
+	private long batchCount;
+	private boolean closed;
+
+	public BatchWriter(StatementImpl stat) throws java.sql.SQLException {
+		this(stat, stat.getConnection(), false);
+	}
+
+	public BatchWriter(StatementImpl stat, Connection conn, boolean closeStatement) {
+		this.stat = AssertUtils.assertNotNull(stat);
+		this.conn = AssertUtils.assertNotNull(conn);
+		this.closeStatement = closeStatement;
+	}
+
+	public void add() throws java.sql.SQLException {
+		add(0);
+	}
+
+	public void add(Map<String, Object> params) throws java.sql.SQLException {
+		long boundBytes = 0;
+		for (Map.Entry<String, Object> param : params.entrySet()) {
+
+			this.stat.setObject(param.getKey(), param.getValue());
+			boundBytes += estimateSize(param.getValue());
+		}
+		add(boundBytes);
+	}
+
+	public void add(long boundBytes) throws java.sql.SQLException {
+		assertNotClosed();
+
+		this.stat.addBatch();
+		this.pendingRows++;
+		this.pendingBytes += boundBytes;
+
+		if ((this.batchSize > 0 && this.pendingRows >= this.batchSize) || (this.batchBytes > 0 && this.pendingBytes >= this.batchBytes)) {
+			flush();
+		}
+	}
+
+	public int[] flush() throws java.sql.SQLException {
+		assertNotClosed();
+
+		if (this.pendingRows == 0) {
+			return EMPTY_COUNTS;
+		}
+		int[] updateCounts;
+		try {
+			updateCounts = this.stat.executeBatch();
+		} finally {
+			this.pendingRows = 0;
+			this.pendingBytes = 0;
+		}
+
+		this.batchCount++;
+		this.totalRows += updateCounts.length;
+		for (int count : updateCounts) {
+			if (count > 0) {
+				this.totalUpdateCount += count;
+			}
+		}
+
+		if (this.batchHandler != null) {
+			List<Object> generatedKeys = this.returnGeneratedKeys ? getGeneratedKeys() : Collections.emptyList();
+			this.batchHandler.handle(updateCounts, generatedKeys);
+		}
+
+		if (this.commitEvery > 0 && ++this.uncommittedBatches >= this.commitEvery) {
+			commit();
+		}
+		return updateCounts;
+	}
+
+	protected List<Object> getGeneratedKeys() {
+		List<Object> keys = new ArrayList<>();
+		try (ResultSet rs = this.stat.getGeneratedKeys()) {
+			while (rs.next()) {
+				keys.add(rs.getObject(1));
+			}
+		} catch (java.sql.SQLException | UnsupportedOperationException ex) {
+
+			// No batch keys from this driver: the batch itself succeeded
+			this.returnGeneratedKeys = false;
+			return Collections.emptyList();
+		}
+		return keys;
+	}
+
+	protected void commit() throws java.sql.SQLException {
+		if (!this.conn.getAutoCommit()) {
+			this.conn.commit();
+		}
+		this.uncommittedBatches = 0;
+	}
+
+	@Override
+	public void close() throws java.sql.SQLException {
+		if (this.closed) {
+			return;
+		}
+		try {
+			flush();
+
+			if (this.commitEvery > 0 && this.uncommittedBatches > 0) {
+				commit();
+			}
+		} finally {
+			this.closed = true;
+
+			if (this.closeStatement) {
+				this.stat.close();
+			}
+		}
+	}
+
+	protected void assertNotClosed() throws java.sql.SQLException {
+		if (this.closed) {
+			throw new java.sql.SQLException("BatchWriter is closed.");
+		}
+	}
+
+	public static long estimateSize(Object value) {
+		if (value == null) {
+			return 0;
+		}
+		if (value instanceof CharSequence) {
+			return 2L * ((CharSequence) value).length();
+		}
+		if (value instanceof byte[]) {
+			return ((byte[]) value).length;
+		}
+		if (value instanceof Number || value instanceof Boolean) {
+			return 8;
+		}
+		return 16;
+	}
+
+	public StatementImpl getStatement() {
+		return this.stat;
+	}
+
+	public int getPendingRows() {
+		return this.pendingRows;
+	}
+
+	public long getPendingBytes() {
+		return this.pendingBytes;
+	}
+
+	public long getTotalRows() {
+		return this.totalRows;
+	}
+
+	public long getTotalUpdateCount() {
+		return this.totalUpdateCount;
+	}
+
+	public long getBatchCount() {
+		return this.batchCount;
+	}
+
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	public BatchWriter setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+		return this;
+	}
+
+	public long getBatchBytes() {
+		return this.batchBytes;
+	}
+
+	public BatchWriter setBatchBytes(long batchBytes) {
+		this.batchBytes = batchBytes;
+		return this;
+	}
+
+	public int getCommitEvery() {
+		return this.commitEvery;
+	}
+
+	public BatchWriter setCommitEvery(int commitEvery) {
+		this.commitEvery = commitEvery;
+		return this;
+	}
+
+	public boolean isReturnGeneratedKeys() {
+		return this.returnGeneratedKeys;
+	}
+
+	public BatchWriter setReturnGeneratedKeys(boolean returnGeneratedKeys) {
+		this.returnGeneratedKeys = returnGeneratedKeys;
+		return this;
+	}
+
+	public BatchHandler getBatchHandler() {
+		return this.batchHandler;
+	}
+
+	public BatchWriter setBatchHandler(BatchHandler batchHandler) {
+		this.batchHandler = batchHandler;
+		return this;
+	}
+}
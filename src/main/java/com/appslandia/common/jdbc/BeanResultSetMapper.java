@@ -0,0 +1,292 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.appslandia.common.utils.AssertUtils;
+import com.appslandia.common.utils.ReflectionException;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class BeanResultSetMapper<T> implements ResultSetMapper<T> {
+
+	private static final ConcurrentMap<Class<?>, BeanResultSetMapper<?>> MAPPERS = new ConcurrentHashMap<>();
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+	final Class<T> beanClass;
+	final MethodHandle constructor;
+	final Map<String, Property> properties;
+
+	final ConcurrentMap<List<String>, Binding[]> bindings = new ConcurrentHashMap<>();
+	private volatile Shape lastShape;
+
+	protected BeanResultSetMapper(Class<T> beanClass) throws ReflectionException {
+		this.beanClass = AssertUtils.assertNotNull(beanClass);
+		try {
+			Constructor<T> ctor = beanClass.getDeclaredConstructor();
+			ctor.setAccessible(true);
+
+			this.constructor = MethodHandles.lookup().unreflectConstructor(ctor).asType(CONSTRUCTOR_TYPE);
+			this.properties = findProperties(beanClass);
+
+		} catch (ReflectiveOperationException ex) {
+			throw new ReflectionException(ex);
+		}
+	}
+
+	public static <T> BeanResultSetMapper<T> of(Class<T> beanClass) throws ReflectionException {
+		BeanResultSetMapper<?> mapper = MAPPERS.get(beanClass);
+		if (mapper == null) {
+			mapper = MAPPERS.computeIfAbsent(beanClass, BeanResultSetMapper::new);
+		}
+		@SuppressWarnings("unchecked")
+		BeanResultSetMapper<T> result = (BeanResultSetMapper<T>) mapper;
+		return result;
+	}
+
+	public Class<T> getBeanClass() {
+		return this.beanClass;
+	}
+
+	@Override
+	public T map(ResultSetImpl rs) throws java.sql.SQLException {
+		Binding[] bindings = getBindings(rs.getColumnLabels());
+		try {
+			Object bean = this.constructor.invokeExact();
+
+			for (Binding binding : bindings) {
+				Object value = binding.reader.read(rs, binding.columnIndex);
+
+				// Primitive properties keep their default on NULL
+				if (value == null && binding.primitive) {
+					continue;
+				}
+				binding.setter.invokeExact(bean, value);
+			}
+			return this.beanClass.cast(bean);
+
+		} catch (java.sql.SQLException | RuntimeException | Error ex) {
+			throw ex;
+		} catch (Throwable ex) {
+			throw new java.sql.SQLException(ex);
+		}
+	}
+
+	protected Binding[] getBindings(String[] columnLabels) {
+		// ResultSetImpl returns the same labels array for every row
+		Shape shape = this.lastShape;
+		if (shape != null && shape.columnLabels == columnLabels) {
+			return shape.bindings;
+		}
+		Binding[] bindings = this.bindings.get(Arrays.asList(columnLabels));
+		if (bindings == null) {
+			bindings = this.bindings.computeIfAbsent(Arrays.asList(columnLabels.clone()), this::createBindings);
+		}
+		this.lastShape = new Shape(columnLabels, bindings);
+		return bindings;
+	}
+
+	protected Binding[] createBindings(List<String> columnLabels) {
+		Binding[] bindings = new Binding[columnLabels.size()];
+		int count = 0;
+
+		for (int col = 1; col <= columnLabels.size(); col++) {
+			Property property = this.properties.get(toPropertyKey(columnLabels.get(col - 1)));
+			if (property == null) {
+				continue;
+			}
+			bindings[count++] = new Binding(col, property.type.isPrimitive(), toColumnReader(property.type), property.setter);
+		}
+		return Arrays.copyOf(bindings, count);
+	}
+
+	static Map<String, Property> findProperties(Class<?> beanClass) throws IllegalAccessException {
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		Map<String, Property> properties = new HashMap<>();
+
+		// Public setters
+		for (Method m : beanClass.getMethods()) {
+			if (Modifier.isStatic(m.getModifiers()) || m.getParameterCount() != 1) {
+				continue;
+			}
+			if (m.getName().length() <= 3 || !m.getName().startsWith("set")) {
+				continue;
+			}
+			String key = toPropertyKey(m.getName().substring(3));
+			if (properties.containsKey(key)) {
+				continue;
+			}
+
+			// Public setters of a non-public bean class
+			m.setAccessible(true);
+			properties.put(key, new Property(m.getParameterTypes()[0], lookup.unreflect(m).asType(SETTER_TYPE)));
+		}
+
+		// Fields without setters
+		Class<?> clazz = beanClass;
+		while (clazz != null && clazz != Object.class) {
+			for (Field field : clazz.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+					continue;
+				}
+				String key = toPropertyKey(field.getName());
+				if (properties.containsKey(key)) {
+					continue;
+				}
+				field.setAccessible(true);
+				properties.put(key, new Property(field.getType(), lookup.unreflectSetter(field).asType(SETTER_TYPE)));
+			}
+			clazz = clazz.getSuperclass();
+		}
+		return properties;
+	}
+
+	// FIRST_NAME, first_name and firstName map to the same property
+	static String toPropertyKey(String name) {
+		return name.replace("_", "").toLowerCase(Locale.ENGLISH);
+	}
+
+	static ColumnReader toColumnReader(Class<?> type) {
+		if (type == int.class || type == Integer.class) {
+			return ResultSetImpl::getInt2;
+		}
+		if (type == long.class || type == Long.class) {
+			return ResultSetImpl::getLong2;
+		}
+		if (type == boolean.class || type == Boolean.class) {
+			return ResultSetImpl::getBoolean2;
+		}
+		if (type == double.class || type == Double.class) {
+			return ResultSetImpl::getDouble2;
+		}
+		if (type == float.class || type == Float.class) {
+			return ResultSetImpl::getFloat2;
+		}
+		if (type == short.class || type == Short.class) {
+			return ResultSetImpl::getShort2;
+		}
+		if (type == byte.class || type == Byte.class) {
+			return ResultSetImpl::getByte2;
+		}
+		if (type == String.class) {
+			return ResultSetImpl::getString;
+		}
+		if (type == BigDecimal.class) {
+			return ResultSetImpl::getBigDecimal;
+		}
+		if (type == byte[].class) {
+			return ResultSetImpl::getBytes;
+		}
+		if (type == LocalDate.class) {
+			return ResultSetImpl::getLocalDate;
+		}
+		if (type == LocalTime.class) {
+			return ResultSetImpl::getLocalTime;
+		}
+		if (type == LocalDateTime.class) {
+			return ResultSetImpl::getLocalDateTime;
+		}
+		if (type == OffsetTime.class) {
+			return ResultSetImpl::getOffsetTime;
+		}
+		if (type == OffsetDateTime.class) {
+			return ResultSetImpl::getOffsetDateTime;
+		}
+		if (type == java.sql.Timestamp.class || type == java.util.Date.class) {
+			return ResultSetImpl::getTimestamp;
+		}
+		if (type == java.sql.Date.class) {
+			return ResultSetImpl::getDate;
+		}
+		if (type == java.sql.Time.class) {
+			return ResultSetImpl::getTime;
+		}
+		if (type == Object.class) {
+			return ResultSetImpl::getObject;
+		}
+		return (rs, col) -> rs.getObject(col, type);
+	}
+
+	@FunctionalInterface
+	protected interface ColumnReader {
+
+		Object read(ResultSetImpl rs, int columnIndex) throws java.sql.SQLException;
+	}
+
+	static class Property {
+		final Class<?> type;
+		final MethodHandle setter;
+
+		Property(Class<?> type, MethodHandle setter) {
+			this.type = type;
+			this.setter = setter;
+		}
+	}
+
+	protected static class Binding {
+		final int columnIndex;
+		final boolean primitive;
+		final ColumnReader reader;
+		final MethodHandle setter;
+
+		Binding(int columnIndex, boolean primitive, ColumnReader reader, MethodHandle setter) {
+			this.columnIndex = columnIndex;
+			this.primitive = primitive;
+			this.reader = reader;
+			this.setter = setter;
+		}
+	}
+
+	static class Shape {
+		final String[] columnLabels;
+		final Binding[] bindings;
+
+		Shape(String[] columnLabels, Binding[] bindings) {
+			this.columnLabels = columnLabels;
+			this.bindings = bindings;
+		}
+	}
+}
@@ -51,5 +51,7 @@ public @interface ConnScoped {
 		REQUIRED,
 
 		REQUIRES_NEW,
+
+		READ_ONLY
 	}
 }
@@ -44,31 +44,50 @@ public abstract class ConnScopedInterceptor implements Serializable {
 		// REQUIRES_NEW
 		if (type == ConnType.REQUIRES_NEW) {
 
-			try (ConnectionImpl newConn = new ConnectionImpl(getDataSource(connScoped.ds()))) {
+			try (ConnectionImpl newConn = new ConnectionImpl(getDataSource(connScoped.ds()), connScoped.ds())) {
+				return context.proceed();
+			}
+		}
+
+		// READ_ONLY
+		if (type == ConnType.READ_ONLY) {
+
+			// Reads inside an active scope on the same DS see its writes
+			if (ConnectionImpl.hasCurrent() && connScoped.ds().equals(ConnectionImpl.getCurrent().getDsName())) {
+				return context.proceed();
+			}
+			try (ConnectionImpl newConn = new ConnectionImpl(getReadDataSource(connScoped.ds()), connScoped.ds())) {
+				newConn.setReadOnly(true);
 				return context.proceed();
 			}
 		}
 
 		// REQUIRED
 		if (ConnectionImpl.hasCurrent()) {
+			ConnectionImpl current = ConnectionImpl.getCurrent();
 
-			// Same DS
-			if (connScoped.ds().equals(ConnectionImpl.getCurrent().getDsName())) {
+			// Same DS and writable
+			if (connScoped.ds().equals(current.getDsName()) && !current.isReadOnly()) {
 				return context.proceed();
 
 			} else {
-				// Different DS
-				try (ConnectionImpl newConn = new ConnectionImpl(getDataSource(connScoped.ds()))) {
+				// Different DS or read-only
+				try (ConnectionImpl newConn = new ConnectionImpl(getDataSource(connScoped.ds()), connScoped.ds())) {
 					return context.proceed();
 				}
 			}
 		} else {
 
-			try (ConnectionImpl newConn = new ConnectionImpl(getDataSource(connScoped.ds()))) {
+			try (ConnectionImpl newConn = new ConnectionImpl(getDataSource(connScoped.ds()), connScoped.ds())) {
 				return context.proceed();
 			}
 		}
 	}
 
+	protected DataSource getReadDataSource(String name) {
+		DataSource ds = getDataSource(name);
+		return (ds instanceof RoutingDataSource) ? ((RoutingDataSource) ds).getReadDataSource() : ds;
+	}
+
 	protected abstract DataSource getDataSource(String name);
 }
@@ -21,15 +21,22 @@
 package com.appslandia.common.jdbc;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
+import com.appslandia.common.base.LongObjectMap;
 import com.appslandia.common.threading.ThreadLocalStorage;
+import com.appslandia.common.utils.ArrayUtils;
 import com.appslandia.common.utils.AssertUtils;
 import com.appslandia.common.utils.ObjectUtils;
 
@@ -40,34 +47,79 @@ import com.appslandia.common.utils.ObjectUtils;
  */
 public class ConnectionImpl implements Connection {
 
+	public static final int DEFAULT_STATEMENT_CACHE_SIZE = 32;
+	public static final int DEFAULT_STREAM_FETCH_SIZE = 1000;
+
 	protected final Connection conn;
 	protected final String dsName;
+	protected final StatementCache statCache;
+	protected final boolean threadBound;
 	protected ConnectionImpl outer;
+	protected boolean readOnly;
+	protected final Set<String> writtenTables = new HashSet<>();
 
-	public ConnectionImpl(DataSource dataSource, String dsName) throws java.sql.SQLException {
-		ConnectionImpl outer = CONNECTION_HOLDER.get();
-		if (outer != null) {
-			this.outer = outer;
+	public ConnectionImpl(DataSource dataSource, String dsName, int statementCacheSize) throws java.sql.SQLException {
+		this(dataSource, dsName, statementCacheSize, true);
+	}
+
+	public ConnectionImpl(DataSource dataSource, String dsName, int statementCacheSize, boolean threadBound) throws java.sql.SQLException {
+		if (threadBound) {
+			ConnectionImpl outer = CONNECTION_HOLDER.get();
+			if (outer != null) {
+				this.outer = outer;
+			}
 		}
 		this.conn = dataSource.getConnection();
-		CONNECTION_HOLDER.set(this);
+		this.threadBound = threadBound;
+
+		if (threadBound) {
+			CONNECTION_HOLDER.set(this);
+		}
 
 		this.dsName = AssertUtils.assertNotNull(dsName, "dsName must be not null.");
+		this.statCache = (statementCacheSize > 0) ? new StatementCache(statementCacheSize) : null;
+	}
+
+	public ConnectionImpl(DataSource dataSource, String dsName) throws java.sql.SQLException {
+		this(dataSource, dsName, DEFAULT_STATEMENT_CACHE_SIZE);
 	}
 
 	public ConnectionImpl(DataSource dataSource) throws java.sql.SQLException {
 		this(dataSource, "");
 	}
 
+	public boolean isThreadBound() {
+		return this.threadBound;
+	}
+
 	public String getDsName() {
 		return this.dsName;
 	}
 
+	public StatementCache getStatementCache() {
+		return this.statCache;
+	}
+
+	public StatementImpl prepareCached(String sql) throws java.sql.SQLException {
+		return prepareCached(Sql.of(sql));
+	}
+
+	public StatementImpl prepareCached(Sql sql) throws java.sql.SQLException {
+		return prepareCached(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+	}
+
+	public StatementImpl prepareCached(Sql sql, int resultSetType, int resultSetConcurrency) throws java.sql.SQLException {
+		if (this.statCache == null) {
+			return new StatementImpl(this.conn, sql, resultSetType, resultSetConcurrency);
+		}
+		return this.statCache.get(this.conn, sql, resultSetType, resultSetConcurrency);
+	}
+
 	// Utility methods
 
 	public int executeUpdate(String sql) throws java.sql.SQLException {
 		try (Statement stat = this.conn.createStatement()) {
-			return stat.executeUpdate(sql);
+			return StatementImpl.executeUpdate(stat, sql);
 		}
 	}
 
@@ -77,7 +129,7 @@ public class ConnectionImpl implements Connection {
 
 	public <K, V> Map<K, V> executeMap(String sql, ResultSetMapper<K> keyMapper, ResultSetMapper<V> valueMapper, Map<K, V> map) throws java.sql.SQLException {
 		try (Statement stat = this.conn.createStatement()) {
-			try (ResultSetImpl rs = new ResultSetImpl(stat.executeQuery(sql))) {
+			try (ResultSetImpl rs = StatementImpl.executeQuery(stat, sql)) {
 
 				return JdbcUtils.executeMap(rs, keyMapper, valueMapper, map);
 			}
@@ -91,9 +143,7 @@ public class ConnectionImpl implements Connection {
 
 	public <K, V> Map<K, V> executeMap(String sql, Map<String, Object> params, ResultSetMapper<K> keyMapper, ResultSetMapper<V> valueMapper, Map<K, V> map)
 			throws java.sql.SQLException {
-		final Sql pSql = new Sql(sql);
-
-		try (StatementImpl stat = new StatementImpl(this.conn, pSql)) {
+		try (StatementImpl stat = prepareCached(sql)) {
 			setParameters(stat, params);
 
 			try (ResultSetImpl rs = stat.executeQuery()) {
@@ -108,7 +158,7 @@ public class ConnectionImpl implements Connection {
 
 	public <K, V> Map<K, V> executeMap(String sql, String keyColumn, String valueColumn, Map<K, V> map) throws java.sql.SQLException {
 		try (Statement stat = this.conn.createStatement()) {
-			try (ResultSetImpl rs = new ResultSetImpl(stat.executeQuery(sql))) {
+			try (ResultSetImpl rs = StatementImpl.executeQuery(stat, sql)) {
 
 				return JdbcUtils.executeMap(rs, keyColumn, valueColumn, map);
 			}
@@ -121,9 +171,7 @@ public class ConnectionImpl implements Connection {
 
 	public <K, V> Map<K, V> executeMap(String sql, Map<String, Object> params, String keyColumn, String valueColumn, Map<K, V> map)
 			throws java.sql.SQLException {
-		final Sql pSql = new Sql(sql);
-
-		try (StatementImpl stat = new StatementImpl(this.conn, pSql)) {
+		try (StatementImpl stat = prepareCached(sql)) {
 			setParameters(stat, params);
 
 			try (ResultSetImpl rs = stat.executeQuery()) {
@@ -138,7 +186,7 @@ public class ConnectionImpl implements Connection {
 
 	public <T> List<T> executeList(String sql, ResultSetMapper<T> mapper, List<T> list) throws java.sql.SQLException {
 		try (Statement stat = this.conn.createStatement()) {
-			try (ResultSetImpl rs = new ResultSetImpl(stat.executeQuery(sql))) {
+			try (ResultSetImpl rs = StatementImpl.executeQuery(stat, sql)) {
 
 				return JdbcUtils.executeList(rs, mapper, list);
 			}
@@ -150,9 +198,7 @@ public class ConnectionImpl implements Connection {
 	}
 
 	public <T> List<T> executeList(String sql, Map<String, Object> params, ResultSetMapper<T> mapper, List<T> list) throws java.sql.SQLException {
-		final Sql pSql = new Sql(sql);
-
-		try (StatementImpl stat = new StatementImpl(this.conn, pSql)) {
+		try (StatementImpl stat = prepareCached(sql)) {
 			setParameters(stat, params);
 
 			try (ResultSetImpl rs = stat.executeQuery()) {
@@ -161,9 +207,213 @@ public class ConnectionImpl implements Connection {
 		}
 	}
 
+	public <T> Stream<T> stream(String sql, Map<String, Object> params, ResultSetMapper<T> mapper) throws java.sql.SQLException {
+		return stream(Sql.of(sql), params, mapper, DEFAULT_STREAM_FETCH_SIZE);
+	}
+
+	public <T> Stream<T> stream(Sql sql, Map<String, Object> params, ResultSetMapper<T> mapper, int fetchSize) throws java.sql.SQLException {
+		StatementImpl stat = prepareCached(toBucketSql(sql, params), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+		try {
+			setParameters(stat, params);
+			stat.setFetchSize(fetchSize);
+
+			return JdbcUtils.executeStream(stat.executeQuery(), mapper, stat);
+
+		} catch (java.sql.SQLException | RuntimeException ex) {
+			JdbcUtils.closeQuietly(stat);
+			throw ex;
+		}
+	}
+
+	public BatchWriter newBatchWriter(String sql) throws java.sql.SQLException {
+		return newBatchWriter(Sql.of(sql), false);
+	}
+
+	public BatchWriter newBatchWriter(Sql sql, boolean returnGeneratedKeys) throws java.sql.SQLException {
+		StatementImpl stat = returnGeneratedKeys ? new StatementImpl(this.conn, sql, true) : prepareCached(sql);
+		return new BatchWriter(stat, this, true).setReturnGeneratedKeys(returnGeneratedKeys);
+	}
+
+	// Bucketed IN/LIKE_ANY parameters
+
+	public int executeUpdate(Sql sql, Map<String, Object> params) throws java.sql.SQLException {
+		int rowAffected = 0;
+		for (Map<String, Object> chunk : JdbcUtils.splitArrayParams(sql, params)) {
+
+			try (StatementImpl stat = prepareCached(toBucketSql(sql, chunk))) {
+				setParameters(stat, chunk);
+				rowAffected += stat.executeUpdate();
+			}
+		}
+
+		// Tables written by this statement: invalidated once the write is visible
+		if (sql.isCacheable()) {
+			if (this.conn.getAutoCommit()) {
+				invalidateCache(sql.getTables());
+			} else {
+				Collections.addAll(this.writtenTables, sql.getTables());
+			}
+		}
+		return rowAffected;
+	}
+
+	public <T> List<T> executeList(Sql sql, Map<String, Object> params, ResultSetMapper<T> mapper) throws java.sql.SQLException {
+		return executeList(sql, params, mapper, new ArrayList<>());
+	}
+
+	// Cached results are keyed on the mapper instance: only a mapper created once and reused can hit the cache
+	public <T> List<T> executeList(Sql sql, Map<String, Object> params, ResultSetMapper<T> mapper, List<T> list) throws java.sql.SQLException {
+		return executeList(sql, params, QueryCache.toResultKey("list", mapper), mapper, list);
+	}
+
+	// resultKey names what the mapper produces, e.g. for a capturing lambda that is a new instance per call
+	public <T> List<T> executeList(Sql sql, Map<String, Object> params, String resultKey, ResultSetMapper<T> mapper) throws java.sql.SQLException {
+		return executeList(sql, params, QueryCache.toResultKey("list", resultKey), mapper, new ArrayList<>());
+	}
+
+	protected <T> List<T> executeList(Sql sql, Map<String, Object> params, Object resultKey, ResultSetMapper<T> mapper, List<T> list)
+			throws java.sql.SQLException {
+		QueryCache cache = getQueryCache(sql);
+		if (cache != null) {
+
+			// Cached lists are shared: copy into the caller's list
+			List<T> cached = cache.getOrLoad(this.dsName, sql, params, resultKey, () -> executeList0(sql, params, mapper, new ArrayList<>()));
+			list.addAll(cached);
+			return list;
+		}
+		return executeList0(sql, params, mapper, list);
+	}
+
+	protected <T> List<T> executeList0(Sql sql, Map<String, Object> params, ResultSetMapper<T> mapper, List<T> list) throws java.sql.SQLException {
+		for (Map<String, Object> chunk : JdbcUtils.splitArrayParams(sql, params)) {
+
+			try (StatementImpl stat = prepareCached(toBucketSql(sql, chunk))) {
+				setParameters(stat, chunk);
+
+				try (ResultSetImpl rs = stat.executeQuery()) {
+					JdbcUtils.executeList(rs, mapper, list);
+				}
+			}
+		}
+		return list;
+	}
+
+	public <K, V> Map<K, V> executeMap(Sql sql, Map<String, Object> params, ResultSetMapper<K> keyMapper, ResultSetMapper<V> valueMapper)
+			throws java.sql.SQLException {
+		return executeMap(sql, params, keyMapper, valueMapper, new LinkedHashMap<>());
+	}
+
+	public <K, V> Map<K, V> executeMap(Sql sql, Map<String, Object> params, ResultSetMapper<K> keyMapper, ResultSetMapper<V> valueMapper, Map<K, V> map)
+			throws java.sql.SQLException {
+		for (Map<String, Object> chunk : JdbcUtils.splitArrayParams(sql, params)) {
+
+			try (StatementImpl stat = prepareCached(toBucketSql(sql, chunk))) {
+				setParameters(stat, chunk);
+
+				try (ResultSetImpl rs = stat.executeQuery()) {
+					JdbcUtils.executeMap(rs, keyMapper, valueMapper, map);
+				}
+			}
+		}
+		return map;
+	}
+
+	// Primitive collectors
+
+	public long[] executeLongArray(String sql, Map<String, Object> params, String column) throws java.sql.SQLException {
+		try (StatementImpl stat = prepareCached(sql)) {
+			setParameters(stat, params);
+			return stat.executeLongArray(column);
+		}
+	}
+
+	public long[] executeLongArray(Sql sql, Map<String, Object> params, String column) throws java.sql.SQLException {
+		long[] result = null;
+		for (Map<String, Object> chunk : JdbcUtils.splitArrayParams(sql, params)) {
+
+			try (StatementImpl stat = prepareCached(toBucketSql(sql, chunk))) {
+				setParameters(stat, chunk);
+
+				long[] arr = stat.executeLongArray(column);
+				result = (result == null) ? arr : ArrayUtils.append(result, arr);
+			}
+		}
+		return (result != null) ? result : new long[0];
+	}
+
+	public int[] executeIntArray(String sql, Map<String, Object> params, String column) throws java.sql.SQLException {
+		try (StatementImpl stat = prepareCached(sql)) {
+			setParameters(stat, params);
+			return stat.executeIntArray(column);
+		}
+	}
+
+	public int[] executeIntArray(Sql sql, Map<String, Object> params, String column) throws java.sql.SQLException {
+		int[] result = null;
+		for (Map<String, Object> chunk : JdbcUtils.splitArrayParams(sql, params)) {
+
+			try (StatementImpl stat = prepareCached(toBucketSql(sql, chunk))) {
+				setParameters(stat, chunk);
+
+				int[] arr = stat.executeIntArray(column);
+				result = (result == null) ? arr : ArrayUtils.append(result, arr);
+			}
+		}
+		return (result != null) ? result : new int[0];
+	}
+
+	public double[] executeDoubleArray(String sql, Map<String, Object> params, String column) throws java.sql.SQLException {
+		try (StatementImpl stat = prepareCached(sql)) {
+			setParameters(stat, params);
+			return stat.executeDoubleArray(column);
+		}
+	}
+
+	public double[] executeDoubleArray(Sql sql, Map<String, Object> params, String column) throws java.sql.SQLException {
+		double[] result = null;
+		for (Map<String, Object> chunk : JdbcUtils.splitArrayParams(sql, params)) {
+
+			try (StatementImpl stat = prepareCached(toBucketSql(sql, chunk))) {
+				setParameters(stat, chunk);
+
+				double[] arr = stat.executeDoubleArray(column);
+				result = (result == null) ? arr : ArrayUtils.append(result, arr);
+			}
+		}
+		return (result != null) ? result : new double[0];
+	}
+
+	public <V> LongObjectMap<V> executeLongObjectMap(String sql, Map<String, Object> params, String keyColumn, ResultSetMapper<V> valueMapper)
+			throws java.sql.SQLException {
+		try (StatementImpl stat = prepareCached(sql)) {
+			setParameters(stat, params);
+			return stat.executeLongObjectMap(keyColumn, valueMapper);
+		}
+	}
+
+	public <V> LongObjectMap<V> executeLongObjectMap(Sql sql, Map<String, Object> params, String keyColumn, ResultSetMapper<V> valueMapper)
+			throws java.sql.SQLException {
+		LongObjectMap<V> map = new LongObjectMap<>();
+		for (Map<String, Object> chunk : JdbcUtils.splitArrayParams(sql, params)) {
+
+			try (StatementImpl stat = prepareCached(toBucketSql(sql, chunk))) {
+				setParameters(stat, chunk);
+				stat.executeLongObjectMap(keyColumn, valueMapper, map);
+			}
+		}
+		return map;
+	}
+
+	static Sql toBucketSql(Sql sql, Map<String, Object> params) {
+		if (!sql.isBucketed()) {
+			return sql;
+		}
+		return sql.getBucketSql(JdbcUtils.getArrayLengths(sql, params));
+	}
+
 	public <T> T executeSingle(String sql, ResultSetMapper<T> mapper) throws java.sql.SQLException {
 		try (Statement stat = this.conn.createStatement()) {
-			try (ResultSetImpl rs = new ResultSetImpl(stat.executeQuery(sql))) {
+			try (ResultSetImpl rs = StatementImpl.executeQuery(stat, sql)) {
 
 				return JdbcUtils.executeSingle(rs, mapper);
 			}
@@ -174,9 +424,57 @@ public class ConnectionImpl implements Connection {
 		return executeSingle(sql, rs -> ObjectUtils.cast(rs.getObject(1)));
 	}
 
+	// Cached results are keyed on the mapper instance: only a mapper created once and reused can hit the cache
+	public <T> T executeSingle(Sql sql, Map<String, Object> params, ResultSetMapper<T> mapper) throws java.sql.SQLException {
+		return executeSingle(sql, params, QueryCache.toResultKey("single", mapper), mapper);
+	}
+
+	public <T> T executeSingle(Sql sql, Map<String, Object> params, String resultKey, ResultSetMapper<T> mapper) throws java.sql.SQLException {
+		return executeSingle(sql, params, QueryCache.toResultKey("single", resultKey), mapper);
+	}
+
+	protected <T> T executeSingle(Sql sql, Map<String, Object> params, Object resultKey, ResultSetMapper<T> mapper) throws java.sql.SQLException {
+		QueryCache cache = getQueryCache(sql);
+		if (cache != null) {
+			return cache.getOrLoad(this.dsName, sql, params, resultKey, () -> executeSingle0(sql, params, mapper));
+		}
+		return executeSingle0(sql, params, mapper);
+	}
+
+	protected <T> T executeSingle0(Sql sql, Map<String, Object> params, ResultSetMapper<T> mapper) throws java.sql.SQLException {
+		try (StatementImpl stat = prepareCached(toBucketSql(sql, params))) {
+			setParameters(stat, params);
+
+			try (ResultSetImpl rs = stat.executeQuery()) {
+				return JdbcUtils.executeSingle(rs, mapper);
+			}
+		}
+	}
+
+	public <T> T executeScalar(Sql sql, Map<String, Object> params) throws java.sql.SQLException {
+		return executeSingle(sql, params, ObjectUtils.cast(SCALAR_MAPPER));
+	}
+
+	protected QueryCache getQueryCache(Sql sql) throws java.sql.SQLException {
+		QueryCache cache = __queryCache;
+
+		// Reads inside a transaction may see uncommitted rows
+		if ((cache == null) || !sql.isCacheable() || !this.conn.getAutoCommit()) {
+			return null;
+		}
+		return cache;
+	}
+
+	protected void invalidateWrittenTables() {
+		if (!this.writtenTables.isEmpty()) {
+			invalidateCache(this.writtenTables.toArray(new String[this.writtenTables.size()]));
+			this.writtenTables.clear();
+		}
+	}
+
 	public void executeQuery(String sql, ResultSetHandler handler) throws Exception {
 		try (Statement stat = this.conn.createStatement()) {
-			try (ResultSetImpl rs = new ResultSetImpl(stat.executeQuery(sql))) {
+			try (ResultSetImpl rs = StatementImpl.executeQuery(stat, sql)) {
 
 				while (rs.next()) {
 					handler.handle(rs);
@@ -296,7 +594,14 @@ public class ConnectionImpl implements Connection {
 
 	@Override
 	public void setAutoCommit(boolean autoCommit) throws java.sql.SQLException {
-		this.conn.setAutoCommit(autoCommit);
+		try {
+			this.conn.setAutoCommit(autoCommit);
+		} finally {
+			// Enabling auto commit commits the transaction
+			if (autoCommit) {
+				invalidateWrittenTables();
+			}
+		}
 	}
 
 	@Override
@@ -322,6 +627,7 @@ public class ConnectionImpl implements Connection {
 	@Override
 	public void setReadOnly(boolean readOnly) throws java.sql.SQLException {
 		this.conn.setReadOnly(readOnly);
+		this.readOnly = readOnly;
 	}
 
 	@Override
@@ -401,7 +707,8 @@ public class ConnectionImpl implements Connection {
 
 	@Override
 	public boolean isReadOnly() throws java.sql.SQLException {
-		return this.conn.isReadOnly();
+		// Some drivers ignore setReadOnly
+		return this.readOnly || this.conn.isReadOnly();
 	}
 
 	@Override
@@ -426,7 +733,11 @@ public class ConnectionImpl implements Connection {
 
 	@Override
 	public void commit() throws java.sql.SQLException {
-		this.conn.commit();
+		try {
+			this.conn.commit();
+		} finally {
+			invalidateWrittenTables();
+		}
 	}
 
 	@Override
@@ -436,11 +747,16 @@ public class ConnectionImpl implements Connection {
 
 	@Override
 	public void rollback() throws java.sql.SQLException {
-		this.conn.rollback();
+		try {
+			this.conn.rollback();
+		} finally {
+			invalidateWrittenTables();
+		}
 	}
 
 	@Override
 	public void rollback(java.sql.Savepoint savepoint) throws java.sql.SQLException {
+		// Writes before the savepoint are still pending: their tables are invalidated at commit or rollback
 		this.conn.rollback(savepoint);
 	}
 
@@ -462,16 +778,29 @@ public class ConnectionImpl implements Connection {
 	public void close() throws java.sql.SQLException {
 		if (!this.conn.isClosed()) {
 			ConnectionImpl outer = this.outer;
-			this.conn.close();
+			if (this.statCache != null) {
+				JdbcUtils.closeQuietly(this.statCache);
+			}
+			try {
+				this.conn.close();
+			} finally {
+				invalidateWrittenTables();
+			}
 
-			this.outer = null;
-			CONNECTION_HOLDER.set(outer);
+			if (this.threadBound) {
+				this.outer = null;
+				CONNECTION_HOLDER.set(outer);
+			}
 		}
 	}
 
 	static void setParameters(StatementImpl stat, Map<String, Object> params) throws java.sql.SQLException {
 		for (Map.Entry<String, Object> param : params.entrySet()) {
-			stat.setObject(param.getKey(), param.getValue());
+			if (stat.getSql().isArrayParam(param.getKey())) {
+				stat.setObjectArray(param.getKey(), JdbcUtils.toObjectArray(param.getValue()));
+			} else {
+				stat.setObject(param.getKey(), param.getValue());
+			}
 		}
 	}
 
@@ -488,4 +817,26 @@ public class ConnectionImpl implements Connection {
 	public static boolean hasCurrent() {
 		return CONNECTION_HOLDER.hasValue();
 	}
+
+	// Shared instance: scalar results of one Sql share a cache entry
+	static final ResultSetMapper<Object> SCALAR_MAPPER = rs -> rs.getObject(1);
+
+	private static volatile QueryCache __queryCache;
+
+	public static QueryCache getQueryCache() {
+		return __queryCache;
+	}
+
+	public static void setQueryCache(QueryCache queryCache) {
+		__queryCache = queryCache;
+	}
+
+	public static void invalidateCache(String... tables) {
+		QueryCache cache = __queryCache;
+		if (cache != null) {
+			for (String table : tables) {
+				cache.invalidate(table);
+			}
+		}
+	}
 }
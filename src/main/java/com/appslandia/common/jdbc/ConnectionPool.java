@@ -0,0 +1,360 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.common.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.appslandia.common.threading.DaemonThreadFactory;
+import com.appslandia.common.threading.TaskScheduler;
+import com.appslandia.common.utils.AssertUtils;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class ConnectionPool implements AutoCloseable {
+
+	final DataSourceImpl dataSource;
+
+	final int minPoolSize;
+	final int maxPoolSize;
+	final long idleTimeout;
+	final long maxLifetime;
+	final long borrowTimeout;
+	final boolean validateOnBorrow;
+	final int validationTimeout;
+
+	final Object mutex = new Object();
+	final LinkedList<PoolEntry> idles = new LinkedList<>();
+
+	private int totalCount;
+	private boolean closed;
+
+	final TaskScheduler<ConnectionPool> evictor;
+
+	public ConnectionPool(DataSourceImpl dataSource) {
+		this.dataSource = AssertUtils.assertNotNull(dataSource);
+
+		this.minPoolSize = dataSource.getMinPoolSize();
+		this.maxPoolSize = dataSource.getMaxPoolSize();
+		this.idleTimeout = dataSource.getIdleTimeout();
+		this.maxLifetime = dataSource.getMaxLifetime();
+		this.borrowTimeout = dataSource.getBorrowTimeout();
+		this.validateOnBorrow = dataSource.isValidateOnBorrow();
+		this.validationTimeout = dataSource.getValidationTimeout();
+
+		AssertUtils.assertTrue(this.maxPoolSize > 0, "maxPoolSize must be greater than 0.");
+		AssertUtils.assertTrue(this.minPoolSize >= 0 && this.minPoolSize <= this.maxPoolSize, "minPoolSize is invalid.");
+
+		this.evictor = new TaskScheduler<>(false, new DaemonThreadFactory());
+		long period = getEvictionPeriod();
+
+		this.evictor.scheduleWithFixedDelay(new TaskScheduler.Task<ConnectionPool>(this) {
+
+			@Override
+			public void run() {
+				this.data.evict();
+			}
+		}, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	protected long getEvictionPeriod() {
+		long period = 30_000;
+		if (this.idleTimeout > 0) {
+			period = Math.min(period, this.idleTimeout / 2);
+		}
+		if (this.maxLifetime > 0) {
+			period = Math.min(period, this.maxLifetime / 2);
+		}
+		return Math.max(period, 1_000);
+	}
+
+	public Connection borrow() throws SQLException {
+		final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.borrowTimeout);
+
+		while (true) {
+			PoolEntry entry = null;
+			synchronized (this.mutex) {
+				while (true) {
+					if (this.closed) {
+						throw new SQLException("Connection pool closed.");
+					}
+					if (!this.idles.isEmpty()) {
+						entry = this.idles.pollFirst();
+						break;
+					}
+					if (this.totalCount < this.maxPoolSize) {
+						this.totalCount++;
+						break;
+					}
+					long remaining = deadline - System.nanoTime();
+					if (remaining <= 0) {
+						throw new SQLTimeoutException("Timeout waiting for connection (borrowTimeout=" + this.borrowTimeout + ")");
+					}
+					try {
+						TimeUnit.NANOSECONDS.timedWait(this.mutex, remaining);
+
+					} catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+						throw new SQLException("Interrupted while waiting for connection.", ex);
+					}
+				}
+			}
+
+			// New connection
+			if (entry == null) {
+				try {
+					entry = newEntry();
+
+				} catch (SQLException | RuntimeException ex) {
+					synchronized (this.mutex) {
+						this.totalCount--;
+						this.mutex.notify();
+					}
+					throw ex;
+				}
+				return new PoolConnection(this, entry);
+			}
+
+			// Idle connection
+			long now = System.currentTimeMillis();
+			if (isExpired(entry, now) || isIdleExpired(entry, now) || (this.validateOnBorrow && !isValid(entry))) {
+				discard(entry);
+				continue;
+			}
+			return new PoolConnection(this, entry);
+		}
+	}
+
+	protected PoolEntry newEntry() throws SQLException {
+		Connection conn = this.dataSource.newConnection();
+		try {
+			return new PoolEntry(conn);
+
+		} catch (SQLException ex) {
+			JdbcUtils.closeQuietly(conn);
+			throw ex;
+		}
+	}
+
+	protected boolean isValid(PoolEntry entry) {
+		try {
+			return entry.conn.isValid(this.validationTimeout);
+		} catch (SQLException ex) {
+			return false;
+		}
+	}
+
+	protected boolean isExpired(PoolEntry entry, long now) {
+		return (this.maxLifetime > 0) && (now - entry.createdAt >= this.maxLifetime);
+	}
+
+	protected boolean isIdleExpired(PoolEntry entry, long now) {
+		return (this.idleTimeout > 0) && (now - entry.lastUsedAt >= this.idleTimeout);
+	}
+
+	void release(PoolEntry entry, boolean dirty) {
+		boolean reusable = !isExpired(entry, System.currentTimeMillis());
+		if (reusable) {
+			try {
+				resetState(entry, dirty);
+			} catch (SQLException ex) {
+				reusable = false;
+			}
+		}
+
+		synchronized (this.mutex) {
+			if (reusable && !this.closed) {
+				entry.lastUsedAt = System.currentTimeMillis();
+				this.idles.addFirst(entry);
+
+				this.mutex.notify();
+				return;
+			}
+		}
+		discard(entry);
+	}
+
+	protected void resetState(PoolEntry entry, boolean dirty) throws SQLException {
+		Connection conn = entry.conn;
+		if (!conn.getAutoCommit()) {
+			conn.rollback();
+			conn.setAutoCommit(true);
+		}
+		if (dirty) {
+			if (conn.isReadOnly() != entry.readOnly) {
+				conn.setReadOnly(entry.readOnly);
+			}
+			if (conn.getTransactionIsolation() != entry.transactionIsolation) {
+				conn.setTransactionIsolation(entry.transactionIsolation);
+			}
+		}
+		conn.clearWarnings();
+	}
+
+	void discard(PoolEntry entry) {
+		synchronized (this.mutex) {
+			this.totalCount--;
+			this.mutex.notify();
+		}
+		JdbcUtils.closeQuietly(entry.conn);
+	}
+
+	protected void evict() {
+		List<PoolEntry> evicted = new ArrayList<>();
+		int missing = 0;
+
+		synchronized (this.mutex) {
+			if (this.closed) {
+				return;
+			}
+			long now = System.currentTimeMillis();
+
+			// Oldest idle connections are at the tail
+			Iterator<PoolEntry> iter = this.idles.descendingIterator();
+			while (iter.hasNext()) {
+				PoolEntry entry = iter.next();
+
+				if (isExpired(entry, now) || ((this.totalCount - evicted.size() > this.minPoolSize) && isIdleExpired(entry, now))) {
+					iter.remove();
+					evicted.add(entry);
+				}
+			}
+			this.totalCount -= evicted.size();
+			missing = Math.max(0, this.minPoolSize - this.totalCount);
+			this.totalCount += missing;
+		}
+
+		for (PoolEntry entry : evicted) {
+			JdbcUtils.closeQuietly(entry.conn);
+		}
+		addIdles(missing);
+	}
+
+	// Opens minPoolSize connections up front instead of on the first eviction run
+	protected void fill() {
+		int missing = 0;
+		synchronized (this.mutex) {
+			if (this.closed) {
+				return;
+			}
+			missing = Math.max(0, this.minPoolSize - this.totalCount);
+			this.totalCount += missing;
+		}
+		addIdles(missing);
+	}
+
+	// The missing slots are already counted in totalCount
+	protected void addIdles(int missing) {
+		for (int i = 0; i < missing; i++) {
+			PoolEntry entry = null;
+			try {
+				entry = newEntry();
+			} catch (Exception ex) {
+			}
+			synchronized (this.mutex) {
+				if ((entry == null) || this.closed) {
+					this.totalCount--;
+				} else {
+					this.idles.addLast(entry);
+				}
+				this.mutex.notify();
+			}
+			if ((entry != null) && this.closed) {
+				JdbcUtils.closeQuietly(entry.conn);
+			}
+		}
+	}
+
+	public int getTotalCount() {
+		synchronized (this.mutex) {
+			return this.totalCount;
+		}
+	}
+
+	public int getIdleCount() {
+		synchronized (this.mutex) {
+			return this.idles.size();
+		}
+	}
+
+	public int getActiveCount() {
+		synchronized (this.mutex) {
+			return this.totalCount - this.idles.size();
+		}
+	}
+
+	public boolean isClosed() {
+		synchronized (this.mutex) {
+			return this.closed;
+		}
+	}
+
+	@Override
+	public void close() {
+		List<PoolEntry> idles = null;
+		synchronized (this.mutex) {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+
+			idles = new ArrayList<>(this.idles);
+			this.totalCount -= idles.size();
+			this.idles.clear();
+
+			this.mutex.notifyAll();
+		}
+		this.evictor.cancel();
+		this.evictor.shutdownNow();
+
+		for (PoolEntry entry : idles) {
+			JdbcUtils.closeQuietly(entry.conn);
+		}
+	}
+
+	static class PoolEntry {
+
+		final Connection conn;
+		final long createdAt;
+		volatile long lastUsedAt;
+
+		final boolean readOnly;
+		final int transactionIsolation;
+
+		PoolEntry(Connection conn) throws SQLException {
+			this.conn = conn;
+			this.createdAt = System.currentTimeMillis();
+			this.lastUsedAt = this.createdAt;
+
+			this.readOnly = conn.isReadOnly();
+			this.transactionIsolation = conn.getTransactionIsolation();
+		}
+	}
+}
@@ -38,10 +38,12 @@ import java.util.logging.Logger;
 
 import javax.sql.DataSource;
 
+import com.appslandia.common.base.DestroyException;
 import com.appslandia.common.base.InitializeException;
 import com.appslandia.common.base.InitializeObject;
 import com.appslandia.common.utils.AssertUtils;
 import com.appslandia.common.utils.ObjectUtils;
+import com.appslandia.common.utils.ParseUtils;
 import com.appslandia.common.utils.StringUtils;
 
 /**
@@ -55,15 +57,45 @@ public class DataSourceImpl extends InitializeObject implements DataSource {
 	private String userName;
 	private String password;
 
+	private boolean pooled;
+	private int minPoolSize = 0;
+	private int maxPoolSize = 10;
+	private long idleTimeout = 600_000;
+	private long maxLifetime = 1_800_000;
+	private long borrowTimeout = 30_000;
+	private boolean validateOnBorrow = true;
+	private int validationTimeout = 5;
+
+	private ConnectionPool pool;
+
 	@Override
 	protected void init() throws Exception {
 		AssertUtils.assertNotNull(this.url, "url is required.");
+
+		if (this.pooled) {
+			this.pool = new ConnectionPool(this);
+			this.pool.fill();
+		}
+	}
+
+	@Override
+	public void destroy() throws DestroyException {
+		if (this.pool != null) {
+			this.pool.close();
+		}
 	}
 
 	@Override
 	public Connection getConnection() throws SQLException {
 		initialize();
 
+		if (this.pool != null) {
+			return this.pool.borrow();
+		}
+		return newConnection();
+	}
+
+	protected Connection newConnection() throws SQLException {
 		Connection conn = null;
 		if (this.userName != null) {
 			conn = DriverManager.getConnection(this.url, this.userName, this.password);
@@ -157,6 +189,15 @@ public class DataSourceImpl extends InitializeObject implements DataSource {
 		setUrl(props.get("url"));
 		setUserName(props.get("userName"));
 		setPassword(props.get("password"));
+
+		setPooled(ParseUtils.parseBool(props.get("pooled"), this.pooled));
+		setMinPoolSize(ParseUtils.parseInt(props.get("minPoolSize"), this.minPoolSize));
+		setMaxPoolSize(ParseUtils.parseInt(props.get("maxPoolSize"), this.maxPoolSize));
+		setIdleTimeout(ParseUtils.parseLong(props.get("idleTimeout"), this.idleTimeout));
+		setMaxLifetime(ParseUtils.parseLong(props.get("maxLifetime"), this.maxLifetime));
+		setBorrowTimeout(ParseUtils.parseLong(props.get("borrowTimeout"), this.borrowTimeout));
+		setValidateOnBorrow(ParseUtils.parseBool(props.get("validateOnBorrow"), this.validateOnBorrow));
+		setValidationTimeout(ParseUtils.parseInt(props.get("validationTimeout"), this.validationTimeout));
 		return this;
 	}
 
@@ -189,4 +230,89 @@ public class DataSourceImpl extends InitializeObject implements DataSource {
 		this.password = StringUtils.trimToNull(password);
 		return this;
 	}
+
+	public boolean isPooled() {
+		return this.pooled;
+	}
+
+	public DataSourceImpl setPooled(boolean pooled) {
+		assertNotInitialized();
+		this.pooled = pooled;
+		return this;
+	}
+
+	public int getMinPoolSize() {
+		return this.minPoolSize;
+	}
+
+	public DataSourceImpl setMinPoolSize(int minPoolSize) {
+		assertNotInitialized();
+		this.minPoolSize = minPoolSize;
+		return this;
+	}
+
+	public int getMaxPoolSize() {
+		return this.maxPoolSize;
+	}
+
+	public DataSourceImpl setMaxPoolSize(int maxPoolSize) {
+		assertNotInitialized();
+		this.maxPoolSize = maxPoolSize;
+		return this;
+	}
+
+	public long getIdleTimeout() {
+		return this.idleTimeout;
+	}
+
+	public DataSourceImpl setIdleTimeout(long idleTimeout) {
+		assertNotInitialized();
+		this.idleTimeout = idleTimeout;
+		return this;
+	}
+
+	public long getMaxLifetime() {
+		return this.maxLifetime;
+	}
+
+	public DataSourceImpl setMaxLifetime(long maxLifetime) {
+		assertNotInitialized();
+		this.maxLifetime = maxLifetime;
+		return this;
+	}
+
+	public long getBorrowTimeout() {
+		return this.borrowTimeout;
+	}
+
+	public DataSourceImpl setBorrowTimeout(long borrowTimeout) {
+		assertNotInitialized();
+		this.borrowTimeout = borrowTimeout;
+		return this;
+	}
+
+	public boolean isValidateOnBorrow() {
+		return this.validateOnBorrow;
+	}
+
+	public DataSourceImpl setValidateOnBorrow(boolean validateOnBorrow) {
+		assertNotInitialized();
+		this.validateOnBorrow = validateOnBorrow;
+		return this;
+	}
+
+	public int getValidationTimeout() {
+		return this.validationTimeout;
+	}
+
+	public DataSourceImpl setValidationTimeout(int validationTimeout) {
+		assertNotInitialized();
+		this.validationTimeout = validationTimeout;
+		return this;
+	}
+
+	public ConnectionPool getPool() {
+		initialize();
+		return this.pool;
+	}
 }
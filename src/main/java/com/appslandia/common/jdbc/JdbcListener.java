@@ -0,0 +1,64 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import com.appslandia.common.utils.AssertUtils;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+@FunctionalInterface
+public interface JdbcListener {
+
+	void executed(StatementImpl stat, boolean query, long driverNanos, long mappingNanos, long rows, int batchSize);
+
+	default boolean isTrackParameters() {
+		return false;
+	}
+
+	static JdbcListener of(JdbcListener... listeners) {
+		AssertUtils.assertNotNull(listeners);
+
+		final JdbcListener[] copy = listeners.clone();
+		return new JdbcListener() {
+
+			@Override
+			public void executed(StatementImpl stat, boolean query, long driverNanos, long mappingNanos, long rows, int batchSize) {
+				for (JdbcListener listener : copy) {
+					listener.executed(stat, query, driverNanos, mappingNanos, rows, batchSize);
+				}
+			}
+
+			@Override
+			public boolean isTrackParameters() {
+				for (JdbcListener listener : copy) {
+					if (listener.isTrackParameters()) {
+						return true;
+					}
+				}
+				return false;
+			}
+		};
+	}
+}
@@ -0,0 +1,71 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class JdbcMetricsRegistry implements JdbcListener {
+
+	final ConcurrentMap<String, StatementMetrics> metrics = new ConcurrentHashMap<>();
+
+	@Override
+	public void executed(StatementImpl stat, boolean query, long driverNanos, long mappingNanos, long rows, int batchSize) {
+		getOrCreate(stat.getName()).record(query, driverNanos, mappingNanos, rows, batchSize);
+	}
+
+	protected StatementMetrics getOrCreate(String name) {
+		StatementMetrics m = this.metrics.get(name);
+		if (m == null) {
+			m = this.metrics.computeIfAbsent(name, StatementMetrics::new);
+		}
+		return m;
+	}
+
+	public StatementMetrics getMetrics(String name) {
+		return this.metrics.get(name);
+	}
+
+	public Map<String, StatementMetrics> getAllMetrics() {
+		return Collections.unmodifiableMap(new TreeMap<>(this.metrics));
+	}
+
+	public void reset() {
+		this.metrics.clear();
+	}
+
+	public String dump() {
+		StringBuilder sb = new StringBuilder();
+		for (StatementMetrics m : getAllMetrics().values()) {
+			sb.append(m).append(System.lineSeparator());
+		}
+		return sb.toString();
+	}
+}
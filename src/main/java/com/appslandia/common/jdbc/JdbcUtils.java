@@ -20,14 +20,28 @@
 
 package com.appslandia.common.jdbc;
 
+import java.lang.reflect.Array;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import com.appslandia.common.base.LongObjectMap;
+import com.appslandia.common.base.UncheckedException;
+import com.appslandia.common.utils.AssertUtils;
 import com.appslandia.common.utils.ObjectUtils;
 
 /**
@@ -92,6 +106,41 @@ public class JdbcUtils {
 		return list;
 	}
 
+	public static <T> Stream<T> executeStream(ResultSetImpl rs, ResultSetMapper<T> mapper, AutoCloseable onClose) {
+		Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
+
+			@Override
+			public boolean tryAdvance(Consumer<? super T> action) {
+				try {
+					if (!rs.next()) {
+						return false;
+					}
+					action.accept(mapper.map(rs));
+					return true;
+
+				} catch (SQLException ex) {
+					throw new UncheckedException(ex);
+				}
+			}
+		};
+
+		return StreamSupport.stream(spliterator, false).onClose(() -> {
+			try {
+				try {
+					rs.close();
+				} finally {
+					if (onClose != null) {
+						onClose.close();
+					}
+				}
+			} catch (RuntimeException ex) {
+				throw ex;
+			} catch (Exception ex) {
+				throw new UncheckedException(ex);
+			}
+		});
+	}
+
 	public static <K, V> Map<K, V> executeMap(StatementImpl stat, String keyColumn, String valueColumn, Map<K, V> map) throws SQLException {
 		try (ResultSetImpl rs = stat.executeQuery()) {
 			return executeMap(rs, keyColumn, valueColumn, map);
@@ -99,10 +148,13 @@ public class JdbcUtils {
 	}
 
 	public static <K, V> Map<K, V> executeMap(ResultSet rs, String keyColumn, String valueColumn, Map<K, V> map) throws SQLException {
+		final int keyIndex = rs.findColumn(keyColumn);
+		final int valueIndex = rs.findColumn(valueColumn);
+
 		while (rs.next()) {
 
-			K k = ObjectUtils.cast(rs.getObject(keyColumn));
-			V v = ObjectUtils.cast(rs.getObject(valueColumn));
+			K k = ObjectUtils.cast(rs.getObject(keyIndex));
+			V v = ObjectUtils.cast(rs.getObject(valueIndex));
 
 			map.put(k, v);
 		}
@@ -128,7 +180,175 @@ public class JdbcUtils {
 		return map;
 	}
 
+	// Primitive collectors: a NULL value fails instead of reading as 0
+
+	public static long[] executeLongArray(ResultSetImpl rs, String column) throws SQLException {
+		final int index = rs.findColumn(column);
+		long[] arr = new long[initialCapacity(rs)];
+		int count = 0;
+
+		while (rs.next()) {
+			if (count == arr.length) {
+				arr = Arrays.copyOf(arr, newCapacity(count));
+			}
+			arr[count] = rs.getLong(index);
+			if (rs.wasNull()) {
+				throw toNullValueError(column, count);
+			}
+			count++;
+		}
+		return (count == arr.length) ? arr : Arrays.copyOf(arr, count);
+	}
+
+	public static int[] executeIntArray(ResultSetImpl rs, String column) throws SQLException {
+		final int index = rs.findColumn(column);
+		int[] arr = new int[initialCapacity(rs)];
+		int count = 0;
+
+		while (rs.next()) {
+			if (count == arr.length) {
+				arr = Arrays.copyOf(arr, newCapacity(count));
+			}
+			arr[count] = rs.getInt(index);
+			if (rs.wasNull()) {
+				throw toNullValueError(column, count);
+			}
+			count++;
+		}
+		return (count == arr.length) ? arr : Arrays.copyOf(arr, count);
+	}
+
+	public static double[] executeDoubleArray(ResultSetImpl rs, String column) throws SQLException {
+		final int index = rs.findColumn(column);
+		double[] arr = new double[initialCapacity(rs)];
+		int count = 0;
+
+		while (rs.next()) {
+			if (count == arr.length) {
+				arr = Arrays.copyOf(arr, newCapacity(count));
+			}
+			arr[count] = rs.getDouble(index);
+			if (rs.wasNull()) {
+				throw toNullValueError(column, count);
+			}
+			count++;
+		}
+		return (count == arr.length) ? arr : Arrays.copyOf(arr, count);
+	}
+
+	public static <V> LongObjectMap<V> executeLongObjectMap(ResultSetImpl rs, String keyColumn, ResultSetMapper<V> valueMapper, LongObjectMap<V> map)
+			throws SQLException {
+		final int keyIndex = rs.findColumn(keyColumn);
+
+		while (rs.next()) {
+			long key = rs.getLong(keyIndex);
+			if (rs.wasNull()) {
+				throw toNullValueError(keyColumn, map.size());
+			}
+			map.put(key, valueMapper.map(rs));
+		}
+		return map;
+	}
+
+	static SQLException toNullValueError(String column, int rowIndex) {
+		return new SQLException("Column " + column + " is NULL (rowIndex=" + rowIndex + ").");
+	}
+
+	static int initialCapacity(ResultSetImpl rs) throws SQLException {
+		int fetchSize = rs.getFetchSize();
+		return (fetchSize > 0) ? Math.min(fetchSize, 1 << 16) : 64;
+	}
+
+	static int newCapacity(int count) {
+		int capacity = count + (count >> 1) + 1;
+		return (capacity < 0) ? Integer.MAX_VALUE - 8 : capacity;
+	}
+
+	public static final int MAX_STATEMENT_NAME_LENGTH = 128;
+
+	public static String toStatementName(String sql) {
+		StringBuilder sb = new StringBuilder(Math.min(sql.length(), MAX_STATEMENT_NAME_LENGTH + 16));
+		int i = 0;
+		while ((i < sql.length()) && (sb.length() <= MAX_STATEMENT_NAME_LENGTH)) {
+			char chr = sql.charAt(i);
+
+			// Whitespace runs
+			if (Character.isWhitespace(chr)) {
+				while ((i < sql.length()) && Character.isWhitespace(sql.charAt(i))) {
+					i++;
+				}
+				if ((sb.length() > 0) && (i < sql.length())) {
+					sb.append(' ');
+				}
+				continue;
+			}
+
+			// String literals
+			if (chr == '\'') {
+				i++;
+				while (i < sql.length()) {
+					if (sql.charAt(i) == '\'') {
+						if ((i + 1 < sql.length()) && (sql.charAt(i + 1) == '\'')) {
+							i += 2;
+							continue;
+						}
+						break;
+					}
+					i++;
+				}
+				i++;
+				appendPlaceholder(sb);
+				continue;
+			}
+
+			// Numeric literals, not part of identifiers or parameter names
+			if (Character.isDigit(chr) && !isNamePart(sb)) {
+				while ((i < sql.length()) && (Character.isDigit(sql.charAt(i)) || (sql.charAt(i) == '.'))) {
+					i++;
+				}
+				appendPlaceholder(sb);
+				continue;
+			}
+			sb.append(chr);
+			i++;
+		}
+		if (sb.length() > MAX_STATEMENT_NAME_LENGTH) {
+			sb.setLength(MAX_STATEMENT_NAME_LENGTH);
+		}
+		return sb.toString();
+	}
+
+	private static boolean isNamePart(StringBuilder sb) {
+		if (sb.length() == 0) {
+			return false;
+		}
+		char prev = sb.charAt(sb.length() - 1);
+		return Character.isLetterOrDigit(prev) || (prev == '_') || (prev == ':') || (prev == '$') || (prev == '@');
+	}
+
+	// Literal lists collapse: IN (1, 2, 3) and IN (4, 5) share one name
+	private static void appendPlaceholder(StringBuilder sb) {
+		int end = sb.length();
+		while ((end > 0) && (sb.charAt(end - 1) == ' ')) {
+			end--;
+		}
+		if ((end > 0) && (sb.charAt(end - 1) == ',')) {
+			int start = end - 1;
+			while ((start > 0) && (sb.charAt(start - 1) == ' ')) {
+				start--;
+			}
+			if ((start > 0) && (sb.charAt(start - 1) == '?')) {
+				sb.setLength(start);
+				return;
+			}
+		}
+		sb.append('?');
+	}
+
 	public static String[] getColumnLabels(ResultSet rs) throws SQLException {
+		if (rs instanceof ResultSetImpl) {
+			return ((ResultSetImpl) rs).getColumnLabels().clone();
+		}
 		ResultSetMetaData md = rs.getMetaData();
 		List<String> labels = new ArrayList<>(md.getColumnCount());
 
@@ -137,4 +357,68 @@ public class JdbcUtils {
 		}
 		return labels.toArray(new String[labels.size()]);
 	}
+
+	public static Object[] toObjectArray(Object values) {
+		if (values == null) {
+			return new Object[0];
+		}
+		if (values instanceof Object[]) {
+			return (Object[]) values;
+		}
+		if (values instanceof Collection) {
+			return ((Collection<?>) values).toArray();
+		}
+		AssertUtils.assertTrue(values.getClass().isArray(), "values must be an array or a collection.");
+
+		int len = Array.getLength(values);
+		Object[] array = new Object[len];
+		for (int i = 0; i < len; i++) {
+			array[i] = Array.get(values, i);
+		}
+		return array;
+	}
+
+	public static Map<String, Integer> getArrayLengths(Sql sql, Map<String, Object> params) {
+		Map<String, Integer> arrayLengths = new HashMap<>();
+		for (String parameterName : sql.getArrayParams()) {
+			arrayLengths.put(parameterName, toObjectArray(params.get(parameterName)).length);
+		}
+		return arrayLengths;
+	}
+
+	public static List<Map<String, Object>> splitArrayParams(Sql sql, Map<String, Object> params) {
+		String splitParam = null;
+		Object[] splitValues = null;
+
+		for (String parameterName : sql.getArrayParams()) {
+			Object[] values = toObjectArray(params.get(parameterName));
+			if (values.length <= sql.getArrayLen(parameterName)) {
+				continue;
+			}
+			if (!sql.isBucketed()) {
+				throw new IllegalArgumentException("Array length exceeds maxLength (name=" + parameterName + ")");
+			}
+			if (sql.isLikeAnyParam(parameterName)) {
+				throw new IllegalArgumentException("LIKE_ANY parameter can't be split (name=" + parameterName + ")");
+			}
+			if (splitParam != null) {
+				throw new IllegalArgumentException("Only one array parameter can be split (names=" + splitParam + ", " + parameterName + ")");
+			}
+			splitParam = parameterName;
+			splitValues = values;
+		}
+		if (splitParam == null) {
+			return Collections.singletonList(params);
+		}
+
+		int maxLength = sql.getArrayLen(splitParam);
+		List<Map<String, Object>> chunks = new ArrayList<>((splitValues.length + maxLength - 1) / maxLength);
+
+		for (int from = 0; from < splitValues.length; from += maxLength) {
+			Map<String, Object> chunk = new LinkedHashMap<>(params);
+			chunk.put(splitParam, Arrays.copyOfRange(splitValues, from, Math.min(from + maxLength, splitValues.length)));
+			chunks.add(chunk);
+		}
+		return chunks;
+	}
 }
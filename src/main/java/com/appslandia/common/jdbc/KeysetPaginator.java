@@ -0,0 +1,438 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.appslandia.common.base.BaseEncoder;
+import com.appslandia.common.base.InitializeObject;
+import com.appslandia.common.utils.AssertUtils;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class KeysetPaginator extends InitializeObject {
+
+	public static final int DEFAULT_PAGE_SIZE = 50;
+
+	static final String KEY_PARAM_PREFIX = "keyset__";
+	static final int TOKEN_VERSION = 1;
+
+	private String name;
+	private String sql;
+	private int pageSize = DEFAULT_PAGE_SIZE;
+	private boolean rowValue = true;
+	final List<String> keys = new ArrayList<>();
+	final List<Boolean> descs = new ArrayList<>();
+
+	private Sql firstSql;
+	private Sql nextSql;
+
+	public KeysetPaginator() {
+	}
+
+	public KeysetPaginator(String sql) {
+		this.sql = sql;
+	}
+
+	@Override
+	protected void init() throws Exception {
+		AssertUtils.assertNotNull(this.sql, "sql is required.");
+		AssertUtils.assertTrue(!this.keys.isEmpty(), "keys are required.");
+
+		String name = (this.name != null) ? this.name : buildName();
+
+		this.firstSql = new Sql().sql(buildSql(false)).setName(name + ".first");
+		this.nextSql = new Sql().sql(buildSql(true)).setName(name + ".next");
+
+		this.firstSql.initialize();
+		this.nextSql.initialize();
+	}
+
+	// keyset.<sqlHash>(createdAt DESC, id DESC): the keys and directions tell apart paginators over the same query
+	protected String buildName() {
+		StringBuilder sb = new StringBuilder(64);
+		sb.append("keyset.").append(Integer.toHexString(this.sql.hashCode())).append('(');
+
+		for (int i = 0; i < this.keys.size(); i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(this.keys.get(i)).append(this.descs.get(i) ? " DESC" : " ASC");
+		}
+		return sb.append(')').toString();
+	}
+
+	protected String buildSql(boolean continuation) {
+		// Keys are result labels of the wrapped query
+		StringBuilder sb = new StringBuilder(this.sql.length() + 64);
+		sb.append("SELECT * FROM (").append(this.sql).append(") kp");
+
+		if (continuation) {
+			sb.append(" WHERE ");
+			if (this.rowValue && isSameDirection()) {
+				appendRowValueCondition(sb);
+			} else {
+				appendExpandedCondition(sb);
+			}
+		}
+
+		sb.append(" ORDER BY ");
+		for (int i = 0; i < this.keys.size(); i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(this.keys.get(i)).append(this.descs.get(i) ? " DESC" : " ASC");
+		}
+		return sb.toString();
+	}
+
+	// (k1, k2) > (:k1, :k2)
+	protected void appendRowValueCondition(StringBuilder sb) {
+		if (this.keys.size() == 1) {
+			sb.append(this.keys.get(0)).append(compareOp(0)).append(paramRef(0));
+			return;
+		}
+		sb.append('(');
+		for (int i = 0; i < this.keys.size(); i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(this.keys.get(i));
+		}
+		sb.append(')').append(compareOp(0)).append('(');
+		for (int i = 0; i < this.keys.size(); i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(paramRef(i));
+		}
+		sb.append(')');
+	}
+
+	// (k1 > :k1) OR (k1 = :k1 AND k2 > :k2)
+	protected void appendExpandedCondition(StringBuilder sb) {
+		sb.append('(');
+		for (int i = 0; i < this.keys.size(); i++) {
+			if (i > 0) {
+				sb.append(" OR ");
+			}
+			sb.append('(');
+			for (int j = 0; j < i; j++) {
+				sb.append(this.keys.get(j)).append(" = ").append(paramRef(j)).append(" AND ");
+			}
+			sb.append(this.keys.get(i)).append(compareOp(i)).append(paramRef(i));
+			sb.append(')');
+		}
+		sb.append(')');
+	}
+
+	private String compareOp(int keyIndex) {
+		return this.descs.get(keyIndex) ? " < " : " > ";
+	}
+
+	private static String paramRef(int keyIndex) {
+		return Sql.getParamPrefix() + KEY_PARAM_PREFIX + keyIndex;
+	}
+
+	private boolean isSameDirection() {
+		return !this.descs.contains(!this.descs.get(0));
+	}
+
+	public <T> Page<T> fetch(ConnectionImpl conn, Map<String, Object> params, String token, ResultSetMapper<T> mapper) throws java.sql.SQLException {
+		this.initialize();
+
+		Map<String, Object> allParams = (params != null) ? new HashMap<>(params) : new HashMap<>();
+		Sql sql = this.firstSql;
+
+		if (token != null) {
+			Object[] keyValues = decodeToken(token, this.keys.size());
+			for (int i = 0; i < keyValues.length; i++) {
+				allParams.put(KEY_PARAM_PREFIX + i, keyValues[i]);
+			}
+			sql = this.nextSql;
+		}
+
+		try (StatementImpl stat = conn.prepareCached(sql)) {
+			ConnectionImpl.setParameters(stat, allParams);
+
+			// One extra row tells whether a next page exists
+			stat.setMaxRows(this.pageSize + 1);
+			stat.setFetchSize(this.pageSize + 1);
+
+			try (ResultSetImpl rs = stat.executeQuery()) {
+				return readPage(rs, mapper);
+			}
+		}
+	}
+
+	protected <T> Page<T> readPage(ResultSetImpl rs, ResultSetMapper<T> mapper) throws java.sql.SQLException {
+		List<T> items = new ArrayList<>(this.pageSize);
+		Object[] lastKeys = null;
+
+		while (rs.next()) {
+			if (items.size() == this.pageSize) {
+				return new Page<>(items, encodeToken(lastKeys));
+			}
+			items.add(mapper.map(rs));
+
+			if (items.size() == this.pageSize) {
+				lastKeys = new Object[this.keys.size()];
+				for (int i = 0; i < lastKeys.length; i++) {
+					lastKeys[i] = rs.getObject(this.keys.get(i));
+					AssertUtils.assertNotNull(lastKeys[i], "keyset column must be not null.");
+				}
+			}
+		}
+		return new Page<>(items, null);
+	}
+
+	// Opaque token: typed key values, no Java deserialization of client input
+
+	public static String encodeToken(Object[] keyValues) {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream(64);
+		try (DataOutputStream out = new DataOutputStream(bos)) {
+			out.writeByte(TOKEN_VERSION);
+			out.writeByte(keyValues.length);
+
+			for (Object value : keyValues) {
+				writeValue(out, value);
+			}
+		} catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+		return BaseEncoder.BASE64_URL_NP.encode(bos.toByteArray());
+	}
+
+	public static Object[] decodeToken(String token, int keyCount) throws IllegalArgumentException {
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(BaseEncoder.BASE64_URL_NP.decode(token)))) {
+			if ((in.readByte() != TOKEN_VERSION) || (in.readByte() != keyCount)) {
+				throw new IllegalArgumentException("Invalid continuation token.");
+			}
+			Object[] keyValues = new Object[keyCount];
+			for (int i = 0; i < keyCount; i++) {
+				keyValues[i] = readValue(in);
+			}
+			if (in.available() > 0) {
+				throw new IllegalArgumentException("Invalid continuation token.");
+			}
+			return keyValues;
+
+		} catch (IOException ex) {
+			throw new IllegalArgumentException("Invalid continuation token.", ex);
+		}
+	}
+
+	static void writeValue(DataOutputStream out, Object value) throws IOException {
+		if (value instanceof Integer) {
+			out.writeByte('I');
+			out.writeInt((Integer) value);
+		} else if (value instanceof Long) {
+			out.writeByte('J');
+			out.writeLong((Long) value);
+		} else if (value instanceof Short) {
+			out.writeByte('S');
+			out.writeShort((Short) value);
+		} else if (value instanceof Double) {
+			out.writeByte('D');
+			out.writeDouble((Double) value);
+		} else if (value instanceof Float) {
+			out.writeByte('F');
+			out.writeFloat((Float) value);
+		} else if (value instanceof BigDecimal) {
+			out.writeByte('N');
+			out.writeUTF(((BigDecimal) value).toString());
+		} else if (value instanceof String) {
+			out.writeByte('T');
+			out.writeUTF((String) value);
+		} else if (value instanceof java.sql.Timestamp) {
+			out.writeByte('P');
+			out.writeLong(((java.sql.Timestamp) value).getTime());
+			out.writeInt(((java.sql.Timestamp) value).getNanos());
+		} else if (value instanceof java.sql.Date) {
+			out.writeByte('d');
+			out.writeUTF(value.toString());
+		} else if (value instanceof LocalDate) {
+			out.writeByte('L');
+			out.writeUTF(value.toString());
+		} else if (value instanceof LocalDateTime) {
+			out.writeByte('M');
+			out.writeUTF(value.toString());
+		} else if (value instanceof OffsetDateTime) {
+			out.writeByte('O');
+			out.writeUTF(value.toString());
+		} else if (value instanceof UUID) {
+			out.writeByte('U');
+			out.writeLong(((UUID) value).getMostSignificantBits());
+			out.writeLong(((UUID) value).getLeastSignificantBits());
+		} else {
+			throw new IllegalArgumentException("Unsupported keyset value type: " + ((value != null) ? value.getClass().getName() : null));
+		}
+	}
+
+	static Object readValue(DataInputStream in) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+		case 'I':
+			return in.readInt();
+		case 'J':
+			return in.readLong();
+		case 'S':
+			return in.readShort();
+		case 'D':
+			return in.readDouble();
+		case 'F':
+			return in.readFloat();
+		case 'N':
+			return new BigDecimal(in.readUTF());
+		case 'T':
+			return in.readUTF();
+		case 'P':
+			java.sql.Timestamp ts = new java.sql.Timestamp(in.readLong());
+			ts.setNanos(in.readInt());
+			return ts;
+		case 'd':
+			return java.sql.Date.valueOf(in.readUTF());
+		case 'L':
+			return LocalDate.parse(in.readUTF());
+		case 'M':
+			return LocalDateTime.parse(in.readUTF());
+		case 'O':
+			return OffsetDateTime.parse(in.readUTF());
+		case 'U':
+			return new UUID(in.readLong(), in.readLong());
+		default:
+			throw new IllegalArgumentException("Invalid continuation token.");
+		}
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public KeysetPaginator setName(String name) {
+		assertNotInitialized();
+		this.name = name;
+		return this;
+	}
+
+	public String getSql() {
+		return this.sql;
+	}
+
+	public KeysetPaginator sql(String sql) {
+		assertNotInitialized();
+		this.sql = sql;
+		return this;
+	}
+
+	public KeysetPaginator key(String columnLabel) {
+		return key(columnLabel, false);
+	}
+
+	public KeysetPaginator key(String columnLabel, boolean desc) {
+		assertNotInitialized();
+		AssertUtils.assertNotNull(columnLabel);
+
+		this.keys.add(columnLabel);
+		this.descs.add(desc);
+		return this;
+	}
+
+	public KeysetPaginator keys(String... columnLabels) {
+		for (String columnLabel : columnLabels) {
+			key(columnLabel, false);
+		}
+		return this;
+	}
+
+	public int getPageSize() {
+		return this.pageSize;
+	}
+
+	public KeysetPaginator setPageSize(int pageSize) {
+		assertNotInitialized();
+		AssertUtils.assertTrue(pageSize > 0, "pageSize is required.");
+
+		this.pageSize = pageSize;
+		return this;
+	}
+
+	public boolean isRowValue() {
+		return this.rowValue;
+	}
+
+	// false: expanded OR form for databases without row-value comparison
+	public KeysetPaginator setRowValue(boolean rowValue) {
+		assertNotInitialized();
+		this.rowValue = rowValue;
+		return this;
+	}
+
+	public Sql getFirstSql() {
+		this.initialize();
+		return this.firstSql;
+	}
+
+	public Sql getNextSql() {
+		this.initialize();
+		return this.nextSql;
+	}
+
+	public static class Page<T> {
+		final List<T> items;
+		final String nextToken;
+
+		public Page(List<T> items, String nextToken) {
+			this.items = Collections.unmodifiableList(items);
+			this.nextToken = nextToken;
+		}
+
+		public List<T> getItems() {
+			return this.items;
+		}
+
+		public String getNextToken() {
+			return this.nextToken;
+		}
+
+		public boolean hasNext() {
+			return this.nextToken != null;
+		}
+	}
+}
@@ -0,0 +1,75 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.sql.ResultSet;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+class MeteredResultSet extends ResultSetImpl {
+
+	final StatementImpl stat;
+	final JdbcListener listener;
+	final long executeNanos;
+	final long createdAt = System.nanoTime();
+
+	long nextNanos;
+	long rows;
+	boolean reported;
+
+	MeteredResultSet(ResultSet rs, StatementImpl stat, JdbcListener listener, long executeNanos) {
+		super(rs);
+		this.stat = stat;
+		this.listener = listener;
+		this.executeNanos = executeNanos;
+	}
+
+	@Override
+	public boolean next() throws java.sql.SQLException {
+		long start = System.nanoTime();
+		boolean hasNext = super.next();
+		this.nextNanos += System.nanoTime() - start;
+
+		if (hasNext) {
+			this.rows++;
+		}
+		return hasNext;
+	}
+
+	@Override
+	public void close() throws java.sql.SQLException {
+		try {
+			super.close();
+		} finally {
+			if (!this.reported) {
+				this.reported = true;
+
+				// Time outside the driver's next() is spent by the caller mapping rows
+				long mappingNanos = Math.max(0, System.nanoTime() - this.createdAt - this.nextNanos);
+				this.listener.executed(this.stat, true, this.executeNanos + this.nextNanos, mappingNanos, this.rows, 0);
+			}
+		}
+	}
+}
@@ -0,0 +1,214 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.appslandia.common.base.UncheckedException;
+import com.appslandia.common.utils.AssertUtils;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class PartitionedQuery {
+
+	public static final String PARAM_LO = "lo";
+	public static final String PARAM_HI = "hi";
+
+	final AsyncQueryExecutor executor;
+
+	public PartitionedQuery(AsyncQueryExecutor executor) {
+		this.executor = AssertUtils.assertNotNull(executor);
+	}
+
+	// Each partition binds :lo (inclusive) and :hi (exclusive)
+	public static long[][] splitRange(long lo, long hi, int partitions) {
+		AssertUtils.assertTrue(lo <= hi, "lo must be less than or equal to hi.");
+		AssertUtils.assertTrue(partitions > 0, "partitions is required.");
+
+		// Unsigned: hi - lo exceeds Long.MAX_VALUE for wide ranges such as [Long.MIN_VALUE, Long.MAX_VALUE]
+		long length = hi - lo;
+		int count = (Long.compareUnsigned(length, partitions) >= 0) ? partitions : (int) Math.max(1, length);
+		long size = Long.divideUnsigned(length, count);
+		long remainder = Long.remainderUnsigned(length, count);
+
+		long[][] ranges = new long[count][];
+		long start = lo;
+		for (int i = 0; i < count; i++) {
+			long end = start + size + ((i < remainder) ? 1 : 0);
+			ranges[i] = new long[] { start, end };
+			start = end;
+		}
+		return ranges;
+	}
+
+	protected <T> List<CompletableFuture<List<T>>> submit(Sql sql, Map<String, Object> params, long lo, long hi, int partitions,
+			ResultSetMapper<T> mapper) {
+		long[][] ranges = splitRange(lo, hi, partitions);
+		List<CompletableFuture<List<T>>> futures = new ArrayList<>(ranges.length);
+
+		for (long[] range : ranges) {
+			Map<String, Object> partitionParams = (params != null) ? new HashMap<>(params) : new HashMap<>();
+			partitionParams.put(PARAM_LO, range[0]);
+			partitionParams.put(PARAM_HI, range[1]);
+
+			futures.add(this.executor.executeListAsync(sql, partitionParams, mapper));
+		}
+		return futures;
+	}
+
+	public <T> List<T> executeList(Sql sql, Map<String, Object> params, long lo, long hi, int partitions, ResultSetMapper<T> mapper)
+			throws java.sql.SQLException {
+		List<CompletableFuture<List<T>>> futures = submit(sql, params, lo, hi, partitions, mapper);
+
+		// Partition order is key order
+		List<T> results = new ArrayList<>();
+		for (CompletableFuture<List<T>> future : futures) {
+			results.addAll(join(future, futures));
+		}
+		return results;
+	}
+
+	public <T> List<T> executeOrdered(Sql sql, Map<String, Object> params, long lo, long hi, int partitions, ResultSetMapper<T> mapper,
+			Comparator<? super T> comparator) throws java.sql.SQLException {
+		List<CompletableFuture<List<T>>> futures = submit(sql, params, lo, hi, partitions, mapper);
+
+		List<Iterator<T>> iters = new ArrayList<>(futures.size());
+		int total = 0;
+		for (CompletableFuture<List<T>> future : futures) {
+			List<T> partition = join(future, futures);
+			total += partition.size();
+			iters.add(partition.iterator());
+		}
+
+		// K-way merge of the sorted partitions
+		PriorityQueue<MergeEntry<T>> heap = new PriorityQueue<>(Math.max(1, iters.size()), (e1, e2) -> comparator.compare(e1.value, e2.value));
+		for (Iterator<T> iter : iters) {
+			if (iter.hasNext()) {
+				heap.add(new MergeEntry<>(iter.next(), iter));
+			}
+		}
+		List<T> results = new ArrayList<>(total);
+		while (!heap.isEmpty()) {
+			MergeEntry<T> entry = heap.poll();
+			results.add(entry.value);
+
+			if (entry.iter.hasNext()) {
+				heap.add(new MergeEntry<>(entry.iter.next(), entry.iter));
+			}
+		}
+		return results;
+	}
+
+	public <T> Stream<T> executeStream(Sql sql, Map<String, Object> params, long lo, long hi, int partitions, ResultSetMapper<T> mapper) {
+		final List<CompletableFuture<List<T>>> futures = submit(sql, params, lo, hi, partitions, mapper);
+
+		// Partitions are delivered in completion order
+		final BlockingQueue<CompletableFuture<List<T>>> completed = new LinkedBlockingQueue<>();
+		for (CompletableFuture<List<T>> future : futures) {
+			future.whenComplete((r, ex) -> completed.add(future));
+		}
+
+		Iterator<List<T>> iter = new Iterator<List<T>>() {
+			int remaining = futures.size();
+
+			@Override
+			public boolean hasNext() {
+				return this.remaining > 0;
+			}
+
+			@Override
+			public List<T> next() {
+				if (this.remaining == 0) {
+					throw new NoSuchElementException();
+				}
+				this.remaining--;
+				try {
+					return join(completed.take(), futures);
+
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					cancelAll(futures);
+					throw new UncheckedException(ex);
+
+				} catch (java.sql.SQLException ex) {
+					throw new UncheckedException(ex);
+				}
+			}
+		};
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iter, Spliterator.NONNULL), false).flatMap(List::stream)
+				.onClose(() -> cancelAll(futures));
+	}
+
+	static <T> List<T> join(CompletableFuture<List<T>> future, List<CompletableFuture<List<T>>> futures) throws java.sql.SQLException {
+		try {
+			return future.join();
+
+		} catch (RuntimeException ex) {
+			cancelAll(futures);
+
+			Throwable cause = (ex.getCause() != null) ? ex.getCause() : ex;
+			if (cause instanceof java.sql.SQLException) {
+				throw (java.sql.SQLException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new UncheckedException(cause);
+		}
+	}
+
+	static <T> void cancelAll(List<CompletableFuture<List<T>>> futures) {
+		for (CompletableFuture<List<T>> future : futures) {
+			future.cancel(false);
+		}
+	}
+
+	static class MergeEntry<T> {
+		final T value;
+		final Iterator<T> iter;
+
+		MergeEntry(T value, Iterator<T> iter) {
+			this.value = value;
+			this.iter = iter;
+		}
+	}
+}
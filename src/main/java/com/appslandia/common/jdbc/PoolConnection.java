@@ -0,0 +1,345 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.common.jdbc;
+
+import java.sql.Connection;
+
+import com.appslandia.common.utils.AssertUtils;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class PoolConnection implements Connection {
+
+	protected final ConnectionPool pool;
+	protected final ConnectionPool.PoolEntry entry;
+
+	private volatile boolean closed;
+	private boolean dirty;
+
+	PoolConnection(ConnectionPool pool, ConnectionPool.PoolEntry entry) {
+		this.pool = AssertUtils.assertNotNull(pool);
+		this.entry = AssertUtils.assertNotNull(entry);
+	}
+
+	protected Connection getConn() throws java.sql.SQLException {
+		if (this.closed) {
+			throw new java.sql.SQLException("Connection closed.");
+		}
+		return this.entry.conn;
+	}
+
+	// java.sql.Connection
+
+	@Override
+	public java.sql.CallableStatement prepareCall(java.lang.String sql) throws java.sql.SQLException {
+		return getConn().prepareCall(sql);
+	}
+
+	@Override
+	public java.sql.CallableStatement prepareCall(java.lang.String sql, int resultSetType, int resultSetConcurrency) throws java.sql.SQLException {
+		return getConn().prepareCall(sql, resultSetType, resultSetConcurrency);
+	}
+
+	@Override
+	public java.sql.CallableStatement prepareCall(java.lang.String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability)
+			throws java.sql.SQLException {
+		return getConn().prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+	}
+
+	@Override
+	public java.sql.PreparedStatement prepareStatement(java.lang.String sql) throws java.sql.SQLException {
+		return getConn().prepareStatement(sql);
+	}
+
+	@Override
+	public java.sql.PreparedStatement prepareStatement(java.lang.String sql, int autoGeneratedKeys) throws java.sql.SQLException {
+		return getConn().prepareStatement(sql, autoGeneratedKeys);
+	}
+
+	@Override
+	public java.sql.PreparedStatement prepareStatement(java.lang.String sql, int[] columnIndexes) throws java.sql.SQLException {
+		return getConn().prepareStatement(sql, columnIndexes);
+	}
+
+	@Override
+	public java.sql.PreparedStatement prepareStatement(java.lang.String sql, java.lang.String[] columnNames) throws java.sql.SQLException {
+		return getConn().prepareStatement(sql, columnNames);
+	}
+
+	@Override
+	public java.sql.PreparedStatement prepareStatement(java.lang.String sql, int resultSetType, int resultSetConcurrency) throws java.sql.SQLException {
+		return getConn().prepareStatement(sql, resultSetType, resultSetConcurrency);
+	}
+
+	@Override
+	public java.sql.PreparedStatement prepareStatement(java.lang.String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability)
+			throws java.sql.SQLException {
+		return getConn().prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+	}
+
+	@Override
+	public java.sql.Array createArrayOf(java.lang.String typeName, java.lang.Object[] elements) throws java.sql.SQLException {
+		return getConn().createArrayOf(typeName, elements);
+	}
+
+	@Override
+	public java.sql.SQLXML createSQLXML() throws java.sql.SQLException {
+		return getConn().createSQLXML();
+	}
+
+	@Override
+	public java.sql.Clob createClob() throws java.sql.SQLException {
+		return getConn().createClob();
+	}
+
+	@Override
+	public java.sql.NClob createNClob() throws java.sql.SQLException {
+		return getConn().createNClob();
+	}
+
+	@Override
+	public java.sql.Blob createBlob() throws java.sql.SQLException {
+		return getConn().createBlob();
+	}
+
+	@Override
+	public java.sql.Statement createStatement() throws java.sql.SQLException {
+		return getConn().createStatement();
+	}
+
+	@Override
+	public java.sql.Statement createStatement(int resultSetType, int resultSetConcurrency) throws java.sql.SQLException {
+		return getConn().createStatement(resultSetType, resultSetConcurrency);
+	}
+
+	@Override
+	public java.sql.Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws java.sql.SQLException {
+		return getConn().createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
+	}
+
+	@Override
+	public java.sql.Struct createStruct(java.lang.String typeName, java.lang.Object[] attributes) throws java.sql.SQLException {
+		return getConn().createStruct(typeName, attributes);
+	}
+
+	@Override
+	public java.sql.Savepoint setSavepoint() throws java.sql.SQLException {
+		return getConn().setSavepoint();
+	}
+
+	@Override
+	public java.sql.Savepoint setSavepoint(java.lang.String name) throws java.sql.SQLException {
+		return getConn().setSavepoint(name);
+	}
+
+	@Override
+	public void setNetworkTimeout(java.util.concurrent.Executor executor, int milliseconds) throws java.sql.SQLException {
+		getConn().setNetworkTimeout(executor, milliseconds);
+	}
+
+	@Override
+	public void setAutoCommit(boolean autoCommit) throws java.sql.SQLException {
+		getConn().setAutoCommit(autoCommit);
+	}
+
+	@Override
+	public void setCatalog(java.lang.String catalog) throws java.sql.SQLException {
+		getConn().setCatalog(catalog);
+	}
+
+	@Override
+	public void setClientInfo(java.util.Properties properties) throws java.sql.SQLClientInfoException {
+		if (this.closed) {
+			throw new java.sql.SQLClientInfoException();
+		}
+		this.entry.conn.setClientInfo(properties);
+	}
+
+	@Override
+	public void setClientInfo(java.lang.String name, java.lang.String value) throws java.sql.SQLClientInfoException {
+		if (this.closed) {
+			throw new java.sql.SQLClientInfoException();
+		}
+		this.entry.conn.setClientInfo(name, value);
+	}
+
+	@Override
+	public void setHoldability(int holdability) throws java.sql.SQLException {
+		getConn().setHoldability(holdability);
+	}
+
+	@Override
+	public void setReadOnly(boolean readOnly) throws java.sql.SQLException {
+		this.dirty = true;
+		getConn().setReadOnly(readOnly);
+	}
+
+	@Override
+	public void setSchema(java.lang.String schema) throws java.sql.SQLException {
+		getConn().setSchema(schema);
+	}
+
+	@Override
+	public void setTransactionIsolation(int level) throws java.sql.SQLException {
+		this.dirty = true;
+		getConn().setTransactionIsolation(level);
+	}
+
+	@Override
+	public void setTypeMap(java.util.Map<java.lang.String, java.lang.Class<?>> map) throws java.sql.SQLException {
+		getConn().setTypeMap(map);
+	}
+
+	@Override
+	public int getNetworkTimeout() throws java.sql.SQLException {
+		return getConn().getNetworkTimeout();
+	}
+
+	@Override
+	public boolean getAutoCommit() throws java.sql.SQLException {
+		return getConn().getAutoCommit();
+	}
+
+	@Override
+	public java.lang.String getCatalog() throws java.sql.SQLException {
+		return getConn().getCatalog();
+	}
+
+	@Override
+	public java.util.Properties getClientInfo() throws java.sql.SQLException {
+		return getConn().getClientInfo();
+	}
+
+	@Override
+	public java.lang.String getClientInfo(java.lang.String name) throws java.sql.SQLException {
+		return getConn().getClientInfo(name);
+	}
+
+	@Override
+	public int getHoldability() throws java.sql.SQLException {
+		return getConn().getHoldability();
+	}
+
+	@Override
+	public java.sql.DatabaseMetaData getMetaData() throws java.sql.SQLException {
+		return getConn().getMetaData();
+	}
+
+	@Override
+	public java.lang.String getSchema() throws java.sql.SQLException {
+		return getConn().getSchema();
+	}
+
+	@Override
+	public int getTransactionIsolation() throws java.sql.SQLException {
+		return getConn().getTransactionIsolation();
+	}
+
+	@Override
+	public java.util.Map<java.lang.String, java.lang.Class<?>> getTypeMap() throws java.sql.SQLException {
+		return getConn().getTypeMap();
+	}
+
+	@Override
+	public java.sql.SQLWarning getWarnings() throws java.sql.SQLException {
+		return getConn().getWarnings();
+	}
+
+	@Override
+	public boolean isReadOnly() throws java.sql.SQLException {
+		return getConn().isReadOnly();
+	}
+
+	@Override
+	public boolean isValid(int timeout) throws java.sql.SQLException {
+		return getConn().isValid(timeout);
+	}
+
+	@Override
+	public void releaseSavepoint(java.sql.Savepoint savepoint) throws java.sql.SQLException {
+		getConn().releaseSavepoint(savepoint);
+	}
+
+	@Override
+	public void clearWarnings() throws java.sql.SQLException {
+		getConn().clearWarnings();
+	}
+
+	@Override
+	public void commit() throws java.sql.SQLException {
+		getConn().commit();
+	}
+
+	@Override
+	public java.lang.String nativeSQL(java.lang.String sql) throws java.sql.SQLException {
+		return getConn().nativeSQL(sql);
+	}
+
+	@Override
+	public void rollback() throws java.sql.SQLException {
+		getConn().rollback();
+	}
+
+	@Override
+	public void rollback(java.sql.Savepoint savepoint) throws java.sql.SQLException {
+		getConn().rollback(savepoint);
+	}
+
+	// java.sql.Wrapper
+
+	@Override
+	public boolean isWrapperFor(java.lang.Class<?> iface) throws java.sql.SQLException {
+		return getConn().isWrapperFor(iface);
+	}
+
+	@Override
+	public <T> T unwrap(java.lang.Class<T> iface) throws java.sql.SQLException {
+		return getConn().unwrap(iface);
+	}
+
+	@Override
+	public boolean isClosed() throws java.sql.SQLException {
+		return this.closed || this.entry.conn.isClosed();
+	}
+
+	@Override
+	public void abort(java.util.concurrent.Executor executor) throws java.sql.SQLException {
+		if (!this.closed) {
+			this.closed = true;
+
+			this.pool.discard(this.entry);
+			this.entry.conn.abort(executor);
+		}
+	}
+
+	// AutoCloseable
+
+	@Override
+	public void close() throws java.sql.SQLException {
+		if (!this.closed) {
+			this.closed = true;
+			this.pool.release(this.entry, this.dirty);
+		}
+	}
+}
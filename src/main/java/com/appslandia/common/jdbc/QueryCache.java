@@ -0,0 +1,286 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.appslandia.common.base.Mutex;
+import com.appslandia.common.utils.AssertUtils;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class QueryCache {
+
+	public static final int DEFAULT_MAX_ENTRIES = 1000;
+	public static final long DEFAULT_TTL_MS = 5 * 60 * 1000;
+
+	final int maxEntries;
+	final long ttlNanos;
+
+	final Mutex mutex = new Mutex();
+	final Map<CacheKey, CacheEntry> entries;
+
+	// Invalidation bumps the table generation; entries loaded under an older one are stale
+	final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+	final LongAdder hitCount = new LongAdder();
+	final LongAdder missCount = new LongAdder();
+	final LongAdder invalidationCount = new LongAdder();
+
+	public QueryCache() {
+		this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MS);
+	}
+
+	public QueryCache(int maxEntries, long ttlMs) {
+		AssertUtils.assertTrue(maxEntries > 0, "maxEntries is required.");
+		AssertUtils.assertTrue(ttlMs > 0, "ttlMs is required.");
+
+		this.maxEntries = maxEntries;
+		this.ttlNanos = ttlMs * 1_000_000L;
+		this.entries = new LinkedHashMap<CacheKey, CacheEntry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+				return size() > QueryCache.this.maxEntries;
+			}
+		};
+	}
+
+	public <T> T getOrLoad(String dsName, Sql sql, Map<String, Object> params, Loader<T> loader) throws java.sql.SQLException {
+		return getOrLoad(dsName, sql, params, null, loader);
+	}
+
+	public <T> T getOrLoad(String dsName, Sql sql, Map<String, Object> params, Object resultKey, Loader<T> loader) throws java.sql.SQLException {
+		String[] tables = sql.getTables();
+		AssertUtils.assertNotNull(tables, "sql is not cacheable.");
+
+		CacheKey key = new CacheKey(dsName, (sql.getName() != null) ? sql.getName() : sql.getSql(), toKeyParams(params), resultKey);
+		long[] tableGens = getGenerations(tables);
+		long now = System.nanoTime();
+
+		CacheEntry entry;
+		synchronized (this.mutex) {
+			entry = this.entries.get(key);
+		}
+		if ((entry != null) && isValid(entry, now)) {
+			this.hitCount.increment();
+			return entry.getValue();
+		}
+		this.missCount.increment();
+
+		T value = loader.load();
+
+		// Generations were captured before loading: a concurrent write makes this entry stale at once
+		CacheEntry newEntry = new CacheEntry(value, now + this.ttlNanos, tables, tableGens);
+		synchronized (this.mutex) {
+			this.entries.put(key, newEntry);
+		}
+		return value;
+	}
+
+	public void invalidate(String table) {
+		getGeneration(table).incrementAndGet();
+		this.invalidationCount.increment();
+	}
+
+	public void clear() {
+		synchronized (this.mutex) {
+			this.entries.clear();
+		}
+	}
+
+	public int size() {
+		synchronized (this.mutex) {
+			return this.entries.size();
+		}
+	}
+
+	public long getHitCount() {
+		return this.hitCount.sum();
+	}
+
+	public long getMissCount() {
+		return this.missCount.sum();
+	}
+
+	public long getInvalidationCount() {
+		return this.invalidationCount.sum();
+	}
+
+	boolean isValid(CacheEntry entry, long now) {
+		if (now - entry.expiresAt >= 0) {
+			return false;
+		}
+		for (int i = 0; i < entry.tables.length; i++) {
+			if (getGeneration(entry.tables[i]).get() != entry.tableGens[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	long[] getGenerations(String[] tables) {
+		long[] gens = new long[tables.length];
+		for (int i = 0; i < tables.length; i++) {
+			gens[i] = getGeneration(tables[i]).get();
+		}
+		return gens;
+	}
+
+	AtomicLong getGeneration(String table) {
+		String key = table.toLowerCase(Locale.ENGLISH);
+		AtomicLong gen = this.generations.get(key);
+		if (gen == null) {
+			gen = this.generations.computeIfAbsent(key, k -> new AtomicLong());
+		}
+		return gen;
+	}
+
+	static Map<String, Object> toKeyParams(Map<String, Object> params) {
+		if ((params == null) || params.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Map<String, Object> keyParams = new HashMap<>(params.size() * 2);
+		for (Map.Entry<String, Object> param : params.entrySet()) {
+			Object value = param.getValue();
+
+			// Array parameters compare by content
+			if ((value != null) && value.getClass().isArray()) {
+				value = Arrays.asList(JdbcUtils.toObjectArray(value));
+			}
+			keyParams.put(param.getKey(), value);
+		}
+		return keyParams;
+	}
+
+	// Same Sql and params loaded as a list or a single value, or by another mapper.
+	// The mapper compares by identity: a capturing lambda is a new instance per call and never hits
+	public static Object toResultKey(String kind, Object mapper) {
+		return new ResultKey(kind, mapper);
+	}
+
+	// Caller-named result: equal names share entries whatever mapper instance loads them
+	public static Object toResultKey(String kind, String resultKey) {
+		AssertUtils.assertNotNull(resultKey, "resultKey is required.");
+		return AssertUtils.assertNotNull(kind) + ":" + resultKey;
+	}
+
+	@FunctionalInterface
+	public interface Loader<T> {
+
+		T load() throws java.sql.SQLException;
+	}
+
+	static class CacheKey {
+		final String dsName;
+		final String sqlName;
+		final Map<String, Object> params;
+		final Object resultKey;
+		final int hash;
+
+		CacheKey(String dsName, String sqlName, Map<String, Object> params, Object resultKey) {
+			this.dsName = dsName;
+			this.sqlName = sqlName;
+			this.params = params;
+			this.resultKey = resultKey;
+			this.hash = Objects.hash(dsName, sqlName, params, resultKey);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey another = (CacheKey) obj;
+			return Objects.equals(this.dsName, another.dsName) && this.sqlName.equals(another.sqlName) && this.params.equals(another.params)
+					&& Objects.equals(this.resultKey, another.resultKey);
+		}
+	}
+
+	static class ResultKey {
+		final String kind;
+		final Object mapper;
+
+		ResultKey(String kind, Object mapper) {
+			this.kind = AssertUtils.assertNotNull(kind);
+			this.mapper = mapper;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * this.kind.hashCode() + System.identityHashCode(this.mapper);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof ResultKey)) {
+				return false;
+			}
+			ResultKey another = (ResultKey) obj;
+			return this.kind.equals(another.kind) && (this.mapper == another.mapper);
+		}
+	}
+
+	static class CacheEntry {
+		final Object value;
+		final long expiresAt;
+		final String[] tables;
+		final long[] tableGens;
+
+		CacheEntry(Object value, long expiresAt, String[] tables, long[] tableGens) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+			this.tables = tables;
+			this.tableGens = tableGens;
+		}
+
+		@SuppressWarnings("unchecked")
+		<T> T getValue() {
+			return (T) this.value;
+		}
+	}
+}
@@ -21,12 +21,16 @@
 package com.appslandia.common.jdbc;
 
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.time.OffsetTime;
+import java.util.HashMap;
+import java.util.Map;
 
+import com.appslandia.common.base.CaseInsensitiveMap;
 import com.appslandia.common.utils.AssertUtils;
 
 /**
@@ -38,72 +42,129 @@ public class ResultSetImpl implements ResultSet {
 
 	protected final ResultSet rs;
 
+	private String[] columnLabels;
+	private Map<String, Integer> columnIndexes;
+	private Map<String, Integer> columnIndexesCI;
+
 	public ResultSetImpl(ResultSet rs) {
 		AssertUtils.assertFalse(rs instanceof ResultSetImpl);
 		this.rs = AssertUtils.assertNotNull(rs);
 	}
 
+	private void initColumnIndexes() throws java.sql.SQLException {
+		ResultSetMetaData md = this.rs.getMetaData();
+		int count = md.getColumnCount();
+
+		String[] labels = new String[count];
+		Map<String, Integer> indexes = new HashMap<>(count * 2);
+		Map<String, Integer> indexesCI = new CaseInsensitiveMap<>(new HashMap<>(count * 2));
+
+		// First column wins on duplicate labels
+		for (int col = 1; col <= count; col++) {
+			String label = md.getColumnLabel(col);
+			labels[col - 1] = label;
+
+			indexes.putIfAbsent(label, col);
+			indexesCI.putIfAbsent(label, col);
+		}
+		this.columnLabels = labels;
+		this.columnIndexesCI = indexesCI;
+		this.columnIndexes = indexes;
+	}
+
+	public String[] getColumnLabels() throws java.sql.SQLException {
+		if (this.columnIndexes == null) {
+			this.initColumnIndexes();
+		}
+		return this.columnLabels;
+	}
+
 	// Java 8+ Date/Time
 
 	public LocalDate getLocalDate(String columnLabel) throws java.sql.SQLException {
-		LocalDate value = this.rs.getObject(columnLabel, LocalDate.class);
+		LocalDate value = this.rs.getObject(this.findColumn(columnLabel), LocalDate.class);
 		return !this.rs.wasNull() ? value : null;
 	}
 
 	public LocalTime getLocalTime(String columnLabel) throws java.sql.SQLException {
-		LocalTime value = this.rs.getObject(columnLabel, LocalTime.class);
+		LocalTime value = this.rs.getObject(this.findColumn(columnLabel), LocalTime.class);
 		return !this.rs.wasNull() ? value : null;
 	}
 
 	public LocalDateTime getLocalDateTime(String columnLabel) throws java.sql.SQLException {
-		LocalDateTime value = this.rs.getObject(columnLabel, LocalDateTime.class);
+		LocalDateTime value = this.rs.getObject(this.findColumn(columnLabel), LocalDateTime.class);
 		return !this.rs.wasNull() ? value : null;
 	}
 
 	public OffsetTime getOffsetTime(String columnLabel) throws java.sql.SQLException {
-		OffsetTime value = this.rs.getObject(columnLabel, OffsetTime.class);
+		OffsetTime value = this.rs.getObject(this.findColumn(columnLabel), OffsetTime.class);
 		return !this.rs.wasNull() ? value : null;
 	}
 
 	public OffsetDateTime getOffsetDateTime(String columnLabel) throws java.sql.SQLException {
-		OffsetDateTime value = this.rs.getObject(columnLabel, OffsetDateTime.class);
+		OffsetDateTime value = this.rs.getObject(this.findColumn(columnLabel), OffsetDateTime.class);
+		return !this.rs.wasNull() ? value : null;
+	}
+
+	public LocalDate getLocalDate(int columnIndex) throws java.sql.SQLException {
+		LocalDate value = this.rs.getObject(columnIndex, LocalDate.class);
+		return !this.rs.wasNull() ? value : null;
+	}
+
+	public LocalTime getLocalTime(int columnIndex) throws java.sql.SQLException {
+		LocalTime value = this.rs.getObject(columnIndex, LocalTime.class);
+		return !this.rs.wasNull() ? value : null;
+	}
+
+	public LocalDateTime getLocalDateTime(int columnIndex) throws java.sql.SQLException {
+		LocalDateTime value = this.rs.getObject(columnIndex, LocalDateTime.class);
+		return !this.rs.wasNull() ? value : null;
+	}
+
+	public OffsetTime getOffsetTime(int columnIndex) throws java.sql.SQLException {
+		OffsetTime value = this.rs.getObject(columnIndex, OffsetTime.class);
+		return !this.rs.wasNull() ? value : null;
+	}
+
+	public OffsetDateTime getOffsetDateTime(int columnIndex) throws java.sql.SQLException {
+		OffsetDateTime value = this.rs.getObject(columnIndex, OffsetDateTime.class);
 		return !this.rs.wasNull() ? value : null;
 	}
 
 	// Get Primitive Wrappers
 
 	public Boolean getBoolean2(String columnLabel) throws java.sql.SQLException {
-		boolean value = this.rs.getBoolean(columnLabel);
+		boolean value = this.rs.getBoolean(this.findColumn(columnLabel));
 		return !this.rs.wasNull() ? value : null;
 	}
 
 	public Byte getByte2(String columnLabel) throws java.sql.SQLException {
-		byte value = this.rs.getByte(columnLabel);
+		byte value = this.rs.getByte(this.findColumn(columnLabel));
 		return !this.rs.wasNull() ? value : null;
 	}
 
 	public Short getShort2(String columnLabel) throws java.sql.SQLException {
-		short value = this.rs.getShort(columnLabel);
+		short value = this.rs.getShort(this.findColumn(columnLabel));
 		return !this.rs.wasNull() ? value : null;
 	}
 
 	public Integer getInt2(String columnLabel) throws java.sql.SQLException {
-		int value = this.rs.getInt(columnLabel);
+		int value = this.rs.getInt(this.findColumn(columnLabel));
 		return !this.rs.wasNull() ? value : null;
 	}
 
 	public Long getLong2(String columnLabel) throws java.sql.SQLException {
-		long value = this.rs.getLong(columnLabel);
+		long value = this.rs.getLong(this.findColumn(columnLabel));
 		return !this.rs.wasNull() ? value : null;
 	}
 
 	public Float getFloat2(String columnLabel) throws java.sql.SQLException {
-		float value = this.rs.getFloat(columnLabel);
+		float value = this.rs.getFloat(this.findColumn(columnLabel));
 		return !this.rs.wasNull() ? value : null;
 	}
 
 	public Double getDouble2(String columnLabel) throws java.sql.SQLException {
-		double value = this.rs.getDouble(columnLabel);
+		double value = this.rs.getDouble(this.findColumn(columnLabel));
 		return !this.rs.wasNull() ? value : null;
 	}
 
@@ -151,12 +212,12 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public boolean getBoolean(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getBoolean(columnLabel);
+		return this.rs.getBoolean(this.findColumn(columnLabel));
 	}
 
 	@Override
 	public java.lang.String getString(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getString(columnLabel);
+		return this.rs.getString(this.findColumn(columnLabel));
 	}
 
 	@Override
@@ -166,7 +227,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public java.lang.String getNString(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getNString(columnLabel);
+		return this.rs.getNString(this.findColumn(columnLabel));
 	}
 
 	@Override
@@ -176,7 +237,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public byte getByte(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getByte(columnLabel);
+		return this.rs.getByte(this.findColumn(columnLabel));
 	}
 
 	@Override
@@ -191,7 +252,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public byte[] getBytes(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getBytes(columnLabel);
+		return this.rs.getBytes(this.findColumn(columnLabel));
 	}
 
 	@Override
@@ -201,7 +262,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public short getShort(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getShort(columnLabel);
+		return this.rs.getShort(this.findColumn(columnLabel));
 	}
 
 	@Override
@@ -211,12 +272,12 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public int getInt(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getInt(columnLabel);
+		return this.rs.getInt(this.findColumn(columnLabel));
 	}
 
 	@Override
 	public long getLong(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getLong(columnLabel);
+		return this.rs.getLong(this.findColumn(columnLabel));
 	}
 
 	@Override
@@ -226,7 +287,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public float getFloat(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getFloat(columnLabel);
+		return this.rs.getFloat(this.findColumn(columnLabel));
 	}
 
 	@Override
@@ -236,7 +297,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public double getDouble(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getDouble(columnLabel);
+		return this.rs.getDouble(this.findColumn(columnLabel));
 	}
 
 	@Override
@@ -247,12 +308,12 @@ public class ResultSetImpl implements ResultSet {
 	@Override
 	@Deprecated
 	public java.math.BigDecimal getBigDecimal(java.lang.String columnLabel, int scale) throws java.sql.SQLException {
-		return this.rs.getBigDecimal(columnLabel, scale);
+		return this.rs.getBigDecimal(this.findColumn(columnLabel), scale);
 	}
 
 	@Override
 	public java.math.BigDecimal getBigDecimal(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getBigDecimal(columnLabel);
+		return this.rs.getBigDecimal(this.findColumn(columnLabel));
 	}
 
 	@Override
@@ -273,12 +334,12 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public java.sql.Date getDate(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getDate(columnLabel);
+		return this.rs.getDate(this.findColumn(columnLabel));
 	}
 
 	@Override
 	public java.sql.Date getDate(java.lang.String columnLabel, java.util.Calendar cal) throws java.sql.SQLException {
-		return this.rs.getDate(columnLabel, cal);
+		return this.rs.getDate(this.findColumn(columnLabel), cal);
 	}
 
 	@Override
@@ -293,7 +354,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public java.sql.Time getTime(java.lang.String columnLabel, java.util.Calendar cal) throws java.sql.SQLException {
-		return this.rs.getTime(columnLabel, cal);
+		return this.rs.getTime(this.findColumn(columnLabel), cal);
 	}
 
 	@Override
@@ -303,12 +364,12 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public java.sql.Time getTime(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getTime(columnLabel);
+		return this.rs.getTime(this.findColumn(columnLabel));
 	}
 
 	@Override
 	public java.sql.Timestamp getTimestamp(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getTimestamp(columnLabel);
+		return this.rs.getTimestamp(this.findColumn(columnLabel));
 	}
 
 	@Override
@@ -318,7 +379,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public java.sql.Timestamp getTimestamp(java.lang.String columnLabel, java.util.Calendar cal) throws java.sql.SQLException {
-		return this.rs.getTimestamp(columnLabel, cal);
+		return this.rs.getTimestamp(this.findColumn(columnLabel), cal);
 	}
 
 	@Override
@@ -333,7 +394,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public java.lang.Object getObject(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getObject(columnLabel);
+		return this.rs.getObject(this.findColumn(columnLabel));
 	}
 
 	@Override
@@ -343,7 +404,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public java.lang.Object getObject(java.lang.String columnLabel, java.util.Map<java.lang.String, java.lang.Class<?>> map) throws java.sql.SQLException {
-		return this.rs.getObject(columnLabel, map);
+		return this.rs.getObject(this.findColumn(columnLabel), map);
 	}
 
 	@Override
@@ -353,12 +414,12 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public <T> T getObject(java.lang.String columnLabel, java.lang.Class<T> type) throws java.sql.SQLException {
-		return this.rs.getObject(columnLabel, type);
+		return this.rs.getObject(this.findColumn(columnLabel), type);
 	}
 
 	@Override
 	public java.net.URL getURL(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getURL(columnLabel);
+		return this.rs.getURL(this.findColumn(columnLabel));
 	}
 
 	@Override
@@ -368,7 +429,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public java.sql.Array getArray(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getArray(columnLabel);
+		return this.rs.getArray(this.findColumn(columnLabel));
 	}
 
 	@Override
@@ -378,7 +439,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public java.sql.SQLXML getSQLXML(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getSQLXML(columnLabel);
+		return this.rs.getSQLXML(this.findColumn(columnLabel));
 	}
 
 	@Override
@@ -393,12 +454,12 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public java.sql.Ref getRef(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getRef(columnLabel);
+		return this.rs.getRef(this.findColumn(columnLabel));
 	}
 
 	@Override
 	public java.sql.RowId getRowId(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getRowId(columnLabel);
+		return this.rs.getRowId(this.findColumn(columnLabel));
 	}
 
 	@Override
@@ -413,7 +474,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public java.sql.Clob getClob(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getClob(columnLabel);
+		return this.rs.getClob(this.findColumn(columnLabel));
 	}
 
 	@Override
@@ -423,12 +484,12 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public java.sql.NClob getNClob(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getNClob(columnLabel);
+		return this.rs.getNClob(this.findColumn(columnLabel));
 	}
 
 	@Override
 	public java.io.InputStream getAsciiStream(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getAsciiStream(columnLabel);
+		return this.rs.getAsciiStream(this.findColumn(columnLabel));
 	}
 
 	@Override
@@ -443,7 +504,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public java.io.Reader getCharacterStream(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getCharacterStream(columnLabel);
+		return this.rs.getCharacterStream(this.findColumn(columnLabel));
 	}
 
 	@Override
@@ -453,7 +514,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public java.io.Reader getNCharacterStream(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getNCharacterStream(columnLabel);
+		return this.rs.getNCharacterStream(this.findColumn(columnLabel));
 	}
 
 	@Override
@@ -465,12 +526,12 @@ public class ResultSetImpl implements ResultSet {
 	@Override
 	@Deprecated
 	public java.io.InputStream getUnicodeStream(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getUnicodeStream(columnLabel);
+		return this.rs.getUnicodeStream(this.findColumn(columnLabel));
 	}
 
 	@Override
 	public java.sql.Blob getBlob(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getBlob(columnLabel);
+		return this.rs.getBlob(this.findColumn(columnLabel));
 	}
 
 	@Override
@@ -480,7 +541,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public java.io.InputStream getBinaryStream(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.getBinaryStream(columnLabel);
+		return this.rs.getBinaryStream(this.findColumn(columnLabel));
 	}
 
 	@Override
@@ -540,7 +601,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateBoolean(java.lang.String columnLabel, boolean x) throws java.sql.SQLException {
-		this.rs.updateBoolean(columnLabel, x);
+		this.rs.updateBoolean(this.findColumn(columnLabel), x);
 	}
 
 	@Override
@@ -555,12 +616,12 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateString(java.lang.String columnLabel, java.lang.String x) throws java.sql.SQLException {
-		this.rs.updateString(columnLabel, x);
+		this.rs.updateString(this.findColumn(columnLabel), x);
 	}
 
 	@Override
 	public void updateNString(java.lang.String columnLabel, java.lang.String nString) throws java.sql.SQLException {
-		this.rs.updateNString(columnLabel, nString);
+		this.rs.updateNString(this.findColumn(columnLabel), nString);
 	}
 
 	@Override
@@ -570,7 +631,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateBytes(java.lang.String columnLabel, byte[] x) throws java.sql.SQLException {
-		this.rs.updateBytes(columnLabel, x);
+		this.rs.updateBytes(this.findColumn(columnLabel), x);
 	}
 
 	@Override
@@ -580,7 +641,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateByte(java.lang.String columnLabel, byte x) throws java.sql.SQLException {
-		this.rs.updateByte(columnLabel, x);
+		this.rs.updateByte(this.findColumn(columnLabel), x);
 	}
 
 	@Override
@@ -590,7 +651,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateShort(java.lang.String columnLabel, short x) throws java.sql.SQLException {
-		this.rs.updateShort(columnLabel, x);
+		this.rs.updateShort(this.findColumn(columnLabel), x);
 	}
 
 	@Override
@@ -605,12 +666,12 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateInt(java.lang.String columnLabel, int x) throws java.sql.SQLException {
-		this.rs.updateInt(columnLabel, x);
+		this.rs.updateInt(this.findColumn(columnLabel), x);
 	}
 
 	@Override
 	public void updateLong(java.lang.String columnLabel, long x) throws java.sql.SQLException {
-		this.rs.updateLong(columnLabel, x);
+		this.rs.updateLong(this.findColumn(columnLabel), x);
 	}
 
 	@Override
@@ -620,7 +681,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateFloat(java.lang.String columnLabel, float x) throws java.sql.SQLException {
-		this.rs.updateFloat(columnLabel, x);
+		this.rs.updateFloat(this.findColumn(columnLabel), x);
 	}
 
 	@Override
@@ -630,7 +691,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateDouble(java.lang.String columnLabel, double x) throws java.sql.SQLException {
-		this.rs.updateDouble(columnLabel, x);
+		this.rs.updateDouble(this.findColumn(columnLabel), x);
 	}
 
 	@Override
@@ -645,12 +706,12 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateBigDecimal(java.lang.String columnLabel, java.math.BigDecimal x) throws java.sql.SQLException {
-		this.rs.updateBigDecimal(columnLabel, x);
+		this.rs.updateBigDecimal(this.findColumn(columnLabel), x);
 	}
 
 	@Override
 	public void updateAsciiStream(java.lang.String columnLabel, java.io.InputStream x) throws java.sql.SQLException {
-		this.rs.updateAsciiStream(columnLabel, x);
+		this.rs.updateAsciiStream(this.findColumn(columnLabel), x);
 	}
 
 	@Override
@@ -660,12 +721,12 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateAsciiStream(java.lang.String columnLabel, java.io.InputStream x, int length) throws java.sql.SQLException {
-		this.rs.updateAsciiStream(columnLabel, x, length);
+		this.rs.updateAsciiStream(this.findColumn(columnLabel), x, length);
 	}
 
 	@Override
 	public void updateAsciiStream(java.lang.String columnLabel, java.io.InputStream x, long length) throws java.sql.SQLException {
-		this.rs.updateAsciiStream(columnLabel, x, length);
+		this.rs.updateAsciiStream(this.findColumn(columnLabel), x, length);
 	}
 
 	@Override
@@ -680,17 +741,17 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateBinaryStream(java.lang.String columnLabel, java.io.InputStream x) throws java.sql.SQLException {
-		this.rs.updateBinaryStream(columnLabel, x);
+		this.rs.updateBinaryStream(this.findColumn(columnLabel), x);
 	}
 
 	@Override
 	public void updateBinaryStream(java.lang.String columnLabel, java.io.InputStream x, int length) throws java.sql.SQLException {
-		this.rs.updateBinaryStream(columnLabel, x, length);
+		this.rs.updateBinaryStream(this.findColumn(columnLabel), x, length);
 	}
 
 	@Override
 	public void updateBinaryStream(java.lang.String columnLabel, java.io.InputStream x, long length) throws java.sql.SQLException {
-		this.rs.updateBinaryStream(columnLabel, x, length);
+		this.rs.updateBinaryStream(this.findColumn(columnLabel), x, length);
 	}
 
 	@Override
@@ -715,7 +776,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateCharacterStream(java.lang.String columnLabel, java.io.Reader reader, long length) throws java.sql.SQLException {
-		this.rs.updateCharacterStream(columnLabel, reader, length);
+		this.rs.updateCharacterStream(this.findColumn(columnLabel), reader, length);
 	}
 
 	@Override
@@ -730,12 +791,12 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateCharacterStream(java.lang.String columnLabel, java.io.Reader reader, int length) throws java.sql.SQLException {
-		this.rs.updateCharacterStream(columnLabel, reader, length);
+		this.rs.updateCharacterStream(this.findColumn(columnLabel), reader, length);
 	}
 
 	@Override
 	public void updateCharacterStream(java.lang.String columnLabel, java.io.Reader reader) throws java.sql.SQLException {
-		this.rs.updateCharacterStream(columnLabel, reader);
+		this.rs.updateCharacterStream(this.findColumn(columnLabel), reader);
 	}
 
 	@Override
@@ -745,7 +806,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateNull(java.lang.String columnLabel) throws java.sql.SQLException {
-		this.rs.updateNull(columnLabel);
+		this.rs.updateNull(this.findColumn(columnLabel));
 	}
 
 	@Override
@@ -755,12 +816,12 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateDate(java.lang.String columnLabel, java.sql.Date x) throws java.sql.SQLException {
-		this.rs.updateDate(columnLabel, x);
+		this.rs.updateDate(this.findColumn(columnLabel), x);
 	}
 
 	@Override
 	public void updateTime(java.lang.String columnLabel, java.sql.Time x) throws java.sql.SQLException {
-		this.rs.updateTime(columnLabel, x);
+		this.rs.updateTime(this.findColumn(columnLabel), x);
 	}
 
 	@Override
@@ -770,7 +831,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateTimestamp(java.lang.String columnLabel, java.sql.Timestamp x) throws java.sql.SQLException {
-		this.rs.updateTimestamp(columnLabel, x);
+		this.rs.updateTimestamp(this.findColumn(columnLabel), x);
 	}
 
 	@Override
@@ -790,17 +851,17 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateObject(java.lang.String columnLabel, java.lang.Object x, java.sql.SQLType targetSqlType, int scaleOrLength) throws java.sql.SQLException {
-		this.rs.updateObject(columnLabel, x, targetSqlType, scaleOrLength);
+		this.rs.updateObject(this.findColumn(columnLabel), x, targetSqlType, scaleOrLength);
 	}
 
 	@Override
 	public void updateObject(java.lang.String columnLabel, java.lang.Object x, java.sql.SQLType targetSqlType) throws java.sql.SQLException {
-		this.rs.updateObject(columnLabel, x, targetSqlType);
+		this.rs.updateObject(this.findColumn(columnLabel), x, targetSqlType);
 	}
 
 	@Override
 	public void updateObject(java.lang.String columnLabel, java.lang.Object x, int scaleOrLength) throws java.sql.SQLException {
-		this.rs.updateObject(columnLabel, x, scaleOrLength);
+		this.rs.updateObject(this.findColumn(columnLabel), x, scaleOrLength);
 	}
 
 	@Override
@@ -815,7 +876,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateObject(java.lang.String columnLabel, java.lang.Object x) throws java.sql.SQLException {
-		this.rs.updateObject(columnLabel, x);
+		this.rs.updateObject(this.findColumn(columnLabel), x);
 	}
 
 	@Override
@@ -830,17 +891,17 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateRef(java.lang.String columnLabel, java.sql.Ref x) throws java.sql.SQLException {
-		this.rs.updateRef(columnLabel, x);
+		this.rs.updateRef(this.findColumn(columnLabel), x);
 	}
 
 	@Override
 	public void updateBlob(java.lang.String columnLabel, java.io.InputStream inputStream, long length) throws java.sql.SQLException {
-		this.rs.updateBlob(columnLabel, inputStream, length);
+		this.rs.updateBlob(this.findColumn(columnLabel), inputStream, length);
 	}
 
 	@Override
 	public void updateBlob(java.lang.String columnLabel, java.io.InputStream inputStream) throws java.sql.SQLException {
-		this.rs.updateBlob(columnLabel, inputStream);
+		this.rs.updateBlob(this.findColumn(columnLabel), inputStream);
 	}
 
 	@Override
@@ -855,7 +916,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateBlob(java.lang.String columnLabel, java.sql.Blob x) throws java.sql.SQLException {
-		this.rs.updateBlob(columnLabel, x);
+		this.rs.updateBlob(this.findColumn(columnLabel), x);
 	}
 
 	@Override
@@ -865,7 +926,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateClob(java.lang.String columnLabel, java.sql.Clob x) throws java.sql.SQLException {
-		this.rs.updateClob(columnLabel, x);
+		this.rs.updateClob(this.findColumn(columnLabel), x);
 	}
 
 	@Override
@@ -885,12 +946,12 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateClob(java.lang.String columnLabel, java.io.Reader reader) throws java.sql.SQLException {
-		this.rs.updateClob(columnLabel, reader);
+		this.rs.updateClob(this.findColumn(columnLabel), reader);
 	}
 
 	@Override
 	public void updateClob(java.lang.String columnLabel, java.io.Reader reader, long length) throws java.sql.SQLException {
-		this.rs.updateClob(columnLabel, reader, length);
+		this.rs.updateClob(this.findColumn(columnLabel), reader, length);
 	}
 
 	@Override
@@ -900,7 +961,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateArray(java.lang.String columnLabel, java.sql.Array x) throws java.sql.SQLException {
-		this.rs.updateArray(columnLabel, x);
+		this.rs.updateArray(this.findColumn(columnLabel), x);
 	}
 
 	@Override
@@ -910,12 +971,12 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateRowId(java.lang.String columnLabel, java.sql.RowId x) throws java.sql.SQLException {
-		this.rs.updateRowId(columnLabel, x);
+		this.rs.updateRowId(this.findColumn(columnLabel), x);
 	}
 
 	@Override
 	public void updateNClob(java.lang.String columnLabel, java.io.Reader reader) throws java.sql.SQLException {
-		this.rs.updateNClob(columnLabel, reader);
+		this.rs.updateNClob(this.findColumn(columnLabel), reader);
 	}
 
 	@Override
@@ -930,12 +991,12 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateNClob(java.lang.String columnLabel, java.io.Reader reader, long length) throws java.sql.SQLException {
-		this.rs.updateNClob(columnLabel, reader, length);
+		this.rs.updateNClob(this.findColumn(columnLabel), reader, length);
 	}
 
 	@Override
 	public void updateNClob(java.lang.String columnLabel, java.sql.NClob nClob) throws java.sql.SQLException {
-		this.rs.updateNClob(columnLabel, nClob);
+		this.rs.updateNClob(this.findColumn(columnLabel), nClob);
 	}
 
 	@Override
@@ -945,7 +1006,7 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateSQLXML(java.lang.String columnLabel, java.sql.SQLXML xmlObject) throws java.sql.SQLException {
-		this.rs.updateSQLXML(columnLabel, xmlObject);
+		this.rs.updateSQLXML(this.findColumn(columnLabel), xmlObject);
 	}
 
 	@Override
@@ -960,12 +1021,12 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public void updateNCharacterStream(java.lang.String columnLabel, java.io.Reader reader) throws java.sql.SQLException {
-		this.rs.updateNCharacterStream(columnLabel, reader);
+		this.rs.updateNCharacterStream(this.findColumn(columnLabel), reader);
 	}
 
 	@Override
 	public void updateNCharacterStream(java.lang.String columnLabel, java.io.Reader reader, long length) throws java.sql.SQLException {
-		this.rs.updateNCharacterStream(columnLabel, reader, length);
+		this.rs.updateNCharacterStream(this.findColumn(columnLabel), reader, length);
 	}
 
 	@Override
@@ -1025,7 +1086,14 @@ public class ResultSetImpl implements ResultSet {
 
 	@Override
 	public int findColumn(java.lang.String columnLabel) throws java.sql.SQLException {
-		return this.rs.findColumn(columnLabel);
+		if (this.columnIndexes == null) {
+			this.initColumnIndexes();
+		}
+		Integer index = this.columnIndexes.get(columnLabel);
+		if (index == null) {
+			index = this.columnIndexesCI.get(columnLabel);
+		}
+		return (index != null) ? index : this.rs.findColumn(columnLabel);
 	}
 
 	@Override
@@ -0,0 +1,208 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import com.appslandia.common.utils.AssertUtils;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class RoutingDataSource extends DataSourceWrapper {
+
+	final List<Replica> replicas = new CopyOnWriteArrayList<>();
+	final AtomicInteger counter = new AtomicInteger();
+
+	private Strategy strategy = Strategy.LEAST_OUTSTANDING;
+	private boolean fallbackToPrimary = true;
+
+	final DataSource readDataSource = new DataSourceWrapper(this) {
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			return getReadConnection();
+		}
+	};
+
+	public RoutingDataSource(DataSource primary) {
+		super(AssertUtils.assertNotNull(primary));
+	}
+
+	public RoutingDataSource addReplica(DataSource replica) {
+		this.replicas.add(new Replica(AssertUtils.assertNotNull(replica)));
+		return this;
+	}
+
+	public Strategy getStrategy() {
+		return this.strategy;
+	}
+
+	public RoutingDataSource setStrategy(Strategy strategy) {
+		this.strategy = AssertUtils.assertNotNull(strategy);
+		return this;
+	}
+
+	public boolean isFallbackToPrimary() {
+		return this.fallbackToPrimary;
+	}
+
+	public RoutingDataSource setFallbackToPrimary(boolean fallbackToPrimary) {
+		this.fallbackToPrimary = fallbackToPrimary;
+		return this;
+	}
+
+	public DataSource getPrimary() {
+		return getDs();
+	}
+
+	public int getReplicaCount() {
+		return this.replicas.size();
+	}
+
+	public int getOutstanding(int replicaIndex) {
+		return this.replicas.get(replicaIndex).outstanding.get();
+	}
+
+	// Routes getConnection() to a replica
+	public DataSource getReadDataSource() {
+		return this.readDataSource;
+	}
+
+	public Connection getReadConnection() throws SQLException {
+		Replica[] candidates = this.replicas.toArray(new Replica[0]);
+		if (candidates.length == 0) {
+			return getConnection();
+		}
+
+		int start = selectReplica(candidates);
+		SQLException error = null;
+
+		// Try the selected replica first, then the others
+		for (int i = 0; i < candidates.length; i++) {
+			Replica replica = candidates[(start + i) % candidates.length];
+			try {
+				return replica.getConnection();
+
+			} catch (SQLException ex) {
+				if (error == null) {
+					error = ex;
+				} else {
+					error.addSuppressed(ex);
+				}
+			}
+		}
+		if (this.fallbackToPrimary) {
+			return getConnection();
+		}
+		throw error;
+	}
+
+	protected int selectReplica(Replica[] candidates) {
+		int start = (this.counter.getAndIncrement() & Integer.MAX_VALUE) % candidates.length;
+		if (this.strategy == Strategy.ROUND_ROBIN) {
+			return start;
+		}
+
+		// LEAST_OUTSTANDING: ties rotate from the round-robin position
+		int selected = start;
+		int min = candidates[start].outstanding.get();
+
+		for (int i = 1; (i < candidates.length) && (min > 0); i++) {
+			int index = (start + i) % candidates.length;
+			int outstanding = candidates[index].outstanding.get();
+			if (outstanding < min) {
+				min = outstanding;
+				selected = index;
+			}
+		}
+		return selected;
+	}
+
+	public enum Strategy {
+
+		ROUND_ROBIN,
+
+		LEAST_OUTSTANDING
+	}
+
+	static class Replica {
+		final DataSource ds;
+		final AtomicInteger outstanding = new AtomicInteger();
+
+		Replica(DataSource ds) {
+			this.ds = ds;
+		}
+
+		Connection getConnection() throws SQLException {
+			Connection conn = this.ds.getConnection();
+			this.outstanding.incrementAndGet();
+
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+					new TrackedHandler(conn, this.outstanding));
+		}
+	}
+
+	static class TrackedHandler implements InvocationHandler {
+		final Connection conn;
+		final AtomicInteger outstanding;
+		final AtomicBoolean released = new AtomicBoolean();
+
+		TrackedHandler(Connection conn, AtomicInteger outstanding) {
+			this.conn = conn;
+			this.outstanding = outstanding;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if ("close".equals(method.getName()) && (method.getParameterCount() == 0)) {
+				try {
+					this.conn.close();
+				} finally {
+					if (this.released.compareAndSet(false, true)) {
+						this.outstanding.decrementAndGet();
+					}
+				}
+				return null;
+			}
+			try {
+				return method.invoke(this.conn, args);
+
+			} catch (InvocationTargetException ex) {
+				throw ex.getCause();
+			}
+		}
+	}
+}
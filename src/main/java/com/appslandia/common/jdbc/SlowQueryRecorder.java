@@ -0,0 +1,162 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.appslandia.common.utils.AssertUtils;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class SlowQueryRecorder implements JdbcListener {
+
+	public static final int DEFAULT_CAPACITY = 256;
+	public static final int DEFAULT_MAX_PARAMETERS = 32;
+	public static final int DEFAULT_MAX_VALUE_LENGTH = 256;
+
+	final long thresholdNanos;
+	final int maxParameters;
+	final int maxValueLength;
+
+	final AtomicReferenceArray<Entry> entries;
+	final AtomicLong sequence = new AtomicLong();
+
+	public SlowQueryRecorder(long thresholdMs) {
+		this(thresholdMs, DEFAULT_CAPACITY, DEFAULT_MAX_PARAMETERS, DEFAULT_MAX_VALUE_LENGTH);
+	}
+
+	public SlowQueryRecorder(long thresholdMs, int capacity, int maxParameters, int maxValueLength) {
+		AssertUtils.assertTrue(thresholdMs >= 0, "thresholdMs is invalid.");
+		AssertUtils.assertTrue(capacity > 0, "capacity is required.");
+
+		this.thresholdNanos = thresholdMs * 1_000_000L;
+		this.entries = new AtomicReferenceArray<>(capacity);
+		this.maxParameters = maxParameters;
+		this.maxValueLength = maxValueLength;
+	}
+
+	@Override
+	public boolean isTrackParameters() {
+		return true;
+	}
+
+	@Override
+	public void executed(StatementImpl stat, boolean query, long driverNanos, long mappingNanos, long rows, int batchSize) {
+		if (driverNanos < this.thresholdNanos) {
+			return;
+		}
+		String translatedSql = (stat.sql != null) ? stat.sql.getTranslatedSql() : null;
+		Entry entry = new Entry(stat.getName(), translatedSql, stat.getParameterSnapshot(this.maxParameters, this.maxValueLength), driverNanos,
+				mappingNanos, rows, System.currentTimeMillis());
+		add(entry);
+	}
+
+	protected void add(Entry entry) {
+		// Overwrite the oldest slot
+		long seq = this.sequence.getAndIncrement();
+		this.entries.set((int) (seq % this.entries.length()), entry);
+	}
+
+	public List<Entry> getEntries() {
+		long end = this.sequence.get();
+		long start = Math.max(0, end - this.entries.length());
+
+		List<Entry> list = new ArrayList<>((int) (end - start));
+		for (long seq = start; seq < end; seq++) {
+			Entry entry = this.entries.get((int) (seq % this.entries.length()));
+			if (entry != null) {
+				list.add(entry);
+			}
+		}
+		return list;
+	}
+
+	public long getRecordedCount() {
+		return this.sequence.get();
+	}
+
+	public void clear() {
+		for (int i = 0; i < this.entries.length(); i++) {
+			this.entries.set(i, null);
+		}
+	}
+
+	public static class Entry {
+		final String name;
+		final String translatedSql;
+		final Map<String, Object> parameters;
+		final long driverNanos;
+		final long mappingNanos;
+		final long rows;
+		final long timestamp;
+
+		public Entry(String name, String translatedSql, Map<String, Object> parameters, long driverNanos, long mappingNanos, long rows, long timestamp) {
+			this.name = name;
+			this.translatedSql = translatedSql;
+			this.parameters = parameters;
+			this.driverNanos = driverNanos;
+			this.mappingNanos = mappingNanos;
+			this.rows = rows;
+			this.timestamp = timestamp;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public String getTranslatedSql() {
+			return this.translatedSql;
+		}
+
+		public Map<String, Object> getParameters() {
+			return this.parameters;
+		}
+
+		public long getDriverNanos() {
+			return this.driverNanos;
+		}
+
+		public long getMappingNanos() {
+			return this.mappingNanos;
+		}
+
+		public long getRows() {
+			return this.rows;
+		}
+
+		public long getTimestamp() {
+			return this.timestamp;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s: %.3fms, rows=%d, sql=%s, params=%s", this.name, this.driverNanos / 1e6, this.rows, this.translatedSql, this.parameters);
+		}
+	}
+}
@@ -24,12 +24,17 @@ import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.appslandia.common.base.InitializeObject;
-import com.appslandia.common.base.Out;
+import com.appslandia.common.base.LruCache;
 import com.appslandia.common.utils.AssertUtils;
+import com.appslandia.common.utils.ObjectUtils;
 
 /**
  *
@@ -44,10 +49,15 @@ public class Sql extends InitializeObject implements Serializable {
 	private String name;
 	private String sql;
 	private Map<String, Integer> arrayLens;
+	private String[] tables;
 
 	private String translatedSql;
 	private Map<String, int[]> indexesMap;
 
+	private boolean bucketed;
+	private Set<String> likeAnyParams;
+	private ConcurrentMap<Map<String, Integer>, Sql> bucketSqls;
+
 	public Sql() {
 	}
 
@@ -72,47 +82,79 @@ public class Sql extends InitializeObject implements Serializable {
 		return this;
 	}
 
+	// Tables read by this query: makes it eligible for QueryCache
+	public Sql tables(String... tables) {
+		assertNotInitialized();
+		AssertUtils.assertTrue(tables.length > 0, "tables is required.");
+
+		this.tables = tables.clone();
+		return this;
+	}
+
+	public Sql bucketed() {
+		assertNotInitialized();
+		this.bucketed = true;
+		return this;
+	}
+
 	@Override
 	protected void init() throws Exception {
 		AssertUtils.assertNotNull(this.sql, "sql is required.");
 		translateSql();
+
+		if (this.bucketed) {
+			this.bucketSqls = new ConcurrentHashMap<>();
+
+			// Single array parameter
+			if ((this.arrayLens != null) && (this.arrayLens.size() == 1)) {
+				Map.Entry<String, Integer> arrayLen = this.arrayLens.entrySet().iterator().next();
+
+				for (int len = 1; len <= arrayLen.getValue(); len <<= 1) {
+					getBucketSql0(Collections.singletonMap(arrayLen.getKey(), len));
+				}
+			}
+		}
 	}
 
 	private void translateSql() {
-		StringBuilder sb = new StringBuilder(this.sql);
+		final String src = this.sql;
+		final char paramPrefix = getParamPrefix();
+
+		StringBuilder sb = new StringBuilder(src.length() + 16);
 		Map<String, int[]> indexesMap = new LinkedHashMap<>();
+		Set<String> likeAnyParams = new HashSet<>();
 
-		int start = 0;
 		int index = 0;
+		int pos = 0;
 
-		while (true) {
-
-			int paramIdx = start;
-			while (paramIdx < sb.length() - 1 && sb.charAt(paramIdx) != getParamPrefix()) {
-				paramIdx++;
+		while (pos < src.length()) {
+			char chr = src.charAt(pos);
+			if (chr != paramPrefix) {
+				sb.append(chr);
+				pos++;
+				continue;
 			}
-			if (paramIdx >= sb.length() - 1)
-				break;
 
 			// Parse parameter
-			Out<Integer> paramEnd = new Out<Integer>();
-			Out<String> paramName = new Out<String>();
-
-			boolean isParamContext = isParamContext(sb, paramIdx, paramEnd, paramName);
-			if (!isParamContext) {
-				start = paramIdx + 1;
+			int paramEnd = pos + 1;
+			while (paramEnd < src.length() && isParamChar(src.charAt(paramEnd))) {
+				paramEnd++;
+			}
+			if (paramEnd == pos + 1) {
+				sb.append(chr);
+				pos++;
 				continue;
 			}
+			String paramName = src.substring(pos + 1, paramEnd);
+			pos = paramEnd;
 
 			// IN or LIKE_ANY?
-			Out<Integer> fieldIdx = new Out<Integer>();
-			Out<String> fieldName = new Out<String>();
-
-			boolean isInContext = isContext(sb, paramIdx, "IN", fieldIdx, fieldName);
-			boolean isLikeAnyContext = isContext(sb, paramIdx, "LIKE_ANY", fieldIdx, fieldName);
+			boolean isInContext = findContext(sb, "IN") >= 0;
+			int fieldIdx = isInContext ? -1 : findContext(sb, "LIKE_ANY");
 
+			boolean isLikeAnyContext = fieldIdx >= 0;
 			boolean isArrayParam = isInContext || isLikeAnyContext;
-			Integer arrayLen = (this.arrayLens == null) ? null : this.arrayLens.get(paramName.value);
+			Integer arrayLen = (this.arrayLens == null) ? null : this.arrayLens.get(paramName);
 
 			if (arrayLen != null) {
 				if (!isArrayParam) {
@@ -124,52 +166,53 @@ public class Sql extends InitializeObject implements Serializable {
 					if (this.arrayLens == null) {
 						this.arrayLens = new HashMap<>();
 					}
-					this.arrayLens.put(paramName.value, arrayLen);
+					this.arrayLens.put(paramName, arrayLen);
 				}
 			}
 
 			// Normal parameter?
 			if (!isArrayParam) {
-				sb.replace(paramIdx, paramEnd.value + 1, "?");
-				putIndex(indexesMap, paramName.value, ++index);
-
-				start = paramIdx + 1;
+				sb.append('?');
+				putIndex(indexesMap, paramName, ++index);
 				continue;
 			}
 
 			// IN
 			if (isInContext) {
-				sb.replace(paramIdx, paramEnd.value + 1, "()");
+				sb.append('(');
 
 				for (int subIdx = 0; subIdx < arrayLen; subIdx++) {
-					if (subIdx == 0) {
-						sb.insert(paramIdx + 1, '?');
-					} else {
-						sb.insert(paramIdx + 1, "?, ");
+					if (subIdx > 0) {
+						sb.append(", ");
 					}
-					putIndex(indexesMap, toParamName(paramName.value, subIdx), ++index);
+					sb.append('?');
+					putIndex(indexesMap, toParamName(paramName, subIdx), ++index);
 				}
-
-				start = paramIdx + 1;
+				sb.append(')');
 				continue;
 			}
 
 			// LIKE_ANY
-			sb.delete(fieldIdx.value, paramEnd.value + 1);
+			int fieldEnd = fieldIdx;
+			while (fieldEnd < sb.length() && !Character.isWhitespace(sb.charAt(fieldEnd))) {
+				fieldEnd++;
+			}
+			String fieldName = sb.substring(fieldIdx, fieldEnd);
+			sb.setLength(fieldIdx);
+			likeAnyParams.add(paramName);
 
 			for (int subIdx = 0; subIdx < arrayLen; subIdx++) {
-				if (subIdx == 0) {
-					sb.insert(fieldIdx.value, String.format("%s LIKE ?", fieldName.value));
-				} else {
-					sb.insert(fieldIdx.value, String.format("%s LIKE ? OR ", fieldName.value));
+				if (subIdx > 0) {
+					sb.append(" OR ");
 				}
-				putIndex(indexesMap, toParamName(paramName.value, subIdx), ++index);
+				sb.append(fieldName).append(" LIKE ?");
+				putIndex(indexesMap, toParamName(paramName, subIdx), ++index);
 			}
-			start = fieldIdx.value + 1;
 		}
 
 		this.translatedSql = sb.toString();
 		this.indexesMap = Collections.unmodifiableMap(indexesMap);
+		this.likeAnyParams = Collections.unmodifiableSet(likeAnyParams);
 	}
 
 	private void putIndex(Map<String, int[]> indexesMap, String paramName, int index) {
@@ -194,6 +237,15 @@ public class Sql extends InitializeObject implements Serializable {
 		return this;
 	}
 
+	public String[] getTables() {
+		initialize();
+		return this.tables;
+	}
+
+	public boolean isCacheable() {
+		return getTables() != null;
+	}
+
 	public String getSql() {
 		initialize();
 		return this.sql;
@@ -204,6 +256,11 @@ public class Sql extends InitializeObject implements Serializable {
 		return this.translatedSql;
 	}
 
+	Map<String, Integer> getArrayLens() {
+		initialize();
+		return (this.arrayLens != null) ? this.arrayLens : Collections.emptyMap();
+	}
+
 	public int[] getIndexes(String parameterName) {
 		initialize();
 		int[] indexes = this.indexesMap.get(parameterName);
@@ -222,53 +279,185 @@ public class Sql extends InitializeObject implements Serializable {
 		return len;
 	}
 
-	private static boolean isContext(StringBuilder sb, int paramIdx, String context, Out<Integer> fieldIdx, Out<String> fieldName) {
-		int i = paramIdx - 1;
+	public Set<String> getArrayParams() {
+		initialize();
+		return (this.arrayLens != null) ? Collections.unmodifiableSet(this.arrayLens.keySet()) : Collections.emptySet();
+	}
+
+	public boolean isArrayParam(String parameterName) {
+		initialize();
+		return (this.arrayLens != null) && this.arrayLens.containsKey(parameterName);
+	}
+
+	public boolean isLikeAnyParam(String parameterName) {
+		initialize();
+		return this.likeAnyParams.contains(parameterName);
+	}
+
+	public boolean isBucketed() {
+		initialize();
+		return this.bucketed;
+	}
+
+	public Sql getBucketSql(String parameterName, int arrayLength) {
+		return getBucketSql(Collections.singletonMap(parameterName, arrayLength));
+	}
+
+	public Sql getBucketSql(Map<String, Integer> arrayLengths) {
+		initialize();
+		AssertUtils.assertTrue(this.bucketed, "sql is not bucketed.");
+
+		if (this.arrayLens == null) {
+			return this;
+		}
+		Map<String, Integer> bucketLens = new HashMap<>();
+		for (Map.Entry<String, Integer> arrayLen : this.arrayLens.entrySet()) {
+			Integer len = arrayLengths.get(arrayLen.getKey());
+			int length = (len != null) ? len : 0;
+
+			if (length > arrayLen.getValue()) {
+				throw new IllegalArgumentException("Array length exceeds maxLength (name=" + arrayLen.getKey() + ")");
+			}
+			bucketLens.put(arrayLen.getKey(), toBucketSize(length, arrayLen.getValue()));
+		}
+		return getBucketSql0(bucketLens);
+	}
+
+	private Sql getBucketSql0(Map<String, Integer> bucketLens) {
+		if (bucketLens.equals(this.arrayLens)) {
+			return this;
+		}
+		return this.bucketSqls.computeIfAbsent(bucketLens, lens -> {
+			Sql bucketSql = new Sql(this.sql);
+			bucketSql.name = this.name;
+			bucketSql.tables = this.tables;
+
+			for (Map.Entry<String, Integer> bucketLen : lens.entrySet()) {
+				bucketSql.arrayLen(bucketLen.getKey(), bucketLen.getValue());
+			}
+			bucketSql.initialize();
+			return bucketSql;
+		});
+	}
+
+	public static int toBucketSize(int arrayLength, int maxLength) {
+		int size = 1;
+		while (size < arrayLength) {
+			size <<= 1;
+		}
+		return Math.min(size, maxLength);
+	}
+
+	private static int findContext(StringBuilder sb, String context) {
+		int i = sb.length() - 1;
 		while (i >= 0 && Character.isWhitespace(sb.charAt(i))) {
 			i--;
 		}
 		if (i < 0)
-			return false;
+			return -1;
 
 		int j = i;
 		while (j >= 0 && !Character.isWhitespace(sb.charAt(j))) {
 			j--;
 		}
-		if (!sb.substring(j + 1, i + 1).equalsIgnoreCase(context)) {
-			return false;
+		if (!equalsIgnoreCase(sb, j + 1, i + 1, context)) {
+			return -1;
 		}
 
 		if (j < 0)
-			return false;
+			return -1;
 		int k = j;
 		while (k >= 0 && Character.isWhitespace(sb.charAt(k))) {
 			k--;
 		}
 		if (k < 0)
-			return false;
+			return -1;
 
 		int h = k;
 		while (h >= 0 && !Character.isWhitespace(sb.charAt(h)) && sb.charAt(h) != '(') {
 			h--;
 		}
-		fieldName.value = sb.substring(h + 1, k + 1);
-		if (fieldName.value.isEmpty())
-			return false;
+		if (h == k)
+			return -1;
+		return h + 1;
+	}
 
-		fieldIdx.value = h + 1;
+	private static boolean equalsIgnoreCase(StringBuilder sb, int start, int end, String str) {
+		if (end - start != str.length()) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			if (Character.toUpperCase(sb.charAt(i)) != Character.toUpperCase(str.charAt(i - start))) {
+				return false;
+			}
+		}
 		return true;
 	}
 
-	private static boolean isParamContext(StringBuilder sb, int paramIdx, Out<Integer> paramEnd, Out<String> paramName) {
-		int k = paramIdx + 1;
-		while (k < sb.length() && isParamChar(sb.charAt(k))) {
-			k++;
+	public static Sql of(String sql) {
+		return of(sql, null);
+	}
+
+	public static Sql of(String sql, Map<String, Integer> arrayLens) {
+		AssertUtils.assertNotNull(sql, "sql is required.");
+
+		SqlKey key = new SqlKey(sql, arrayLens);
+		LruCache<SqlKey, Sql> cache = SQL_CACHES[(key.hash & 0x7fffffff) % SQL_CACHES.length];
+
+		Sql obj = cache.get(key);
+		if (obj == null) {
+			obj = new Sql(sql);
+			if (arrayLens != null) {
+				for (Map.Entry<String, Integer> arrayLen : arrayLens.entrySet()) {
+					obj.arrayLen(arrayLen.getKey(), arrayLen.getValue());
+				}
+			}
+			obj.initialize();
+			cache.put(key, obj);
+		}
+		return obj;
+	}
+
+	public static final int SQL_CACHE_SIZE = 1024;
+	private static final LruCache<SqlKey, Sql>[] SQL_CACHES = newSqlCaches(16);
+
+	@SuppressWarnings("rawtypes")
+	private static LruCache<SqlKey, Sql>[] newSqlCaches(int stripes) {
+		LruCache<SqlKey, Sql>[] caches = ObjectUtils.cast(new LruCache[stripes]);
+		for (int i = 0; i < stripes; i++) {
+			caches[i] = new LruCache<>(SQL_CACHE_SIZE / stripes);
+		}
+		return caches;
+	}
+
+	static class SqlKey {
+
+		final String sql;
+		final Map<String, Integer> arrayLens;
+		final int hash;
+
+		SqlKey(String sql, Map<String, Integer> arrayLens) {
+			this.sql = sql;
+			this.arrayLens = (arrayLens == null || arrayLens.isEmpty()) ? Collections.emptyMap() : new HashMap<>(arrayLens);
+			this.hash = 31 * sql.hashCode() + this.arrayLens.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof SqlKey)) {
+				return false;
+			}
+			SqlKey another = (SqlKey) obj;
+			return this.sql.equals(another.sql) && this.arrayLens.equals(another.arrayLens);
 		}
-		if (k == paramIdx + 1)
-			return false;
-		paramName.value = sb.substring(paramIdx + 1, k);
-		paramEnd.value = k - 1;
-		return true;
 	}
 
 	public static String toParamName(String parameterName, int subIdx) {
@@ -0,0 +1,319 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.appslandia.common.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.appslandia.common.utils.AssertUtils;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class StatementCache implements AutoCloseable {
+
+	final int cacheSize;
+	final Object mutex = new Object();
+	final LinkedHashMap<StatementKey, CachedStatement> cache;
+
+	private long hits;
+	private long misses;
+	private long evictions;
+	private boolean closed;
+
+	public StatementCache(int cacheSize) {
+		this.cacheSize = AssertUtils.assertPossitive(cacheSize, "cacheSize must be greater than 0.");
+		this.cache = new LinkedHashMap<>(16, 0.75f, true);
+	}
+
+	public StatementImpl get(Connection conn, Sql sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+		StatementKey key = new StatementKey(sql, resultSetType, resultSetConcurrency);
+		List<CachedStatement> evicted = null;
+
+		synchronized (this.mutex) {
+			if (this.closed) {
+				throw new SQLException("Statement cache closed.");
+			}
+			CachedStatement stat = this.cache.get(key);
+			if (stat != null) {
+				if (!stat.inUse) {
+					stat.inUse = true;
+					this.hits++;
+					return stat;
+				}
+
+				// Nested use of the same statement
+				this.misses++;
+				return new StatementImpl(conn, sql, resultSetType, resultSetConcurrency);
+			}
+			this.misses++;
+		}
+
+		CachedStatement stat = new CachedStatement(this, key, conn, sql, resultSetType, resultSetConcurrency);
+		synchronized (this.mutex) {
+			if (this.closed || this.cache.containsKey(key)) {
+				stat.detached = true;
+				return stat;
+			}
+			this.cache.put(key, stat);
+
+			if (this.cache.size() > this.cacheSize) {
+				evicted = new ArrayList<>();
+				Iterator<CachedStatement> iter = this.cache.values().iterator();
+
+				while (iter.hasNext() && (this.cache.size() > this.cacheSize)) {
+					CachedStatement eldest = iter.next();
+					if (eldest.inUse) {
+						eldest.detached = true;
+					} else {
+						evicted.add(eldest);
+					}
+					iter.remove();
+					this.evictions++;
+				}
+			}
+		}
+		if (evicted != null) {
+			for (CachedStatement e : evicted) {
+				JdbcUtils.closeQuietly(e::closeStatement);
+			}
+		}
+		return stat;
+	}
+
+	void release(CachedStatement stat) throws SQLException {
+		boolean reusable = false;
+		synchronized (this.mutex) {
+			stat.inUse = false;
+			reusable = !this.closed && !stat.detached;
+		}
+		if (reusable) {
+			try {
+				if (!stat.isClosed()) {
+					stat.clearParameters();
+					stat.clearWarnings();
+
+					// Rows added but never executed
+					if (stat.batched) {
+						stat.stat.clearBatch();
+						stat.batched = false;
+					}
+					if (stat.fetchSizeChanged) {
+						stat.stat.setFetchSize(stat.defaultFetchSize);
+						stat.fetchSizeChanged = false;
+					}
+					if (stat.maxRowsChanged) {
+						stat.stat.setMaxRows(stat.defaultMaxRows);
+						stat.maxRowsChanged = false;
+					}
+					if (stat.queryTimeoutChanged) {
+						stat.stat.setQueryTimeout(stat.defaultQueryTimeout);
+						stat.queryTimeoutChanged = false;
+					}
+					return;
+				}
+			} catch (SQLException ex) {
+			}
+			remove(stat);
+		}
+		stat.closeStatement();
+	}
+
+	protected void remove(CachedStatement stat) {
+		synchronized (this.mutex) {
+			if (this.cache.get(stat.key) == stat) {
+				this.cache.remove(stat.key);
+			}
+			stat.detached = true;
+		}
+	}
+
+	public long getHits() {
+		synchronized (this.mutex) {
+			return this.hits;
+		}
+	}
+
+	public long getMisses() {
+		synchronized (this.mutex) {
+			return this.misses;
+		}
+	}
+
+	public long getEvictions() {
+		synchronized (this.mutex) {
+			return this.evictions;
+		}
+	}
+
+	public int size() {
+		synchronized (this.mutex) {
+			return this.cache.size();
+		}
+	}
+
+	@Override
+	public void close() throws SQLException {
+		List<CachedStatement> stats = null;
+		synchronized (this.mutex) {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+
+			stats = new ArrayList<>(this.cache.values());
+			this.cache.clear();
+		}
+
+		SQLException closeEx = null;
+		for (CachedStatement stat : stats) {
+			stat.detached = true;
+			if (!stat.inUse) {
+				try {
+					stat.closeStatement();
+				} catch (SQLException ex) {
+					closeEx = ex;
+				}
+			}
+		}
+		if (closeEx != null) {
+			throw closeEx;
+		}
+	}
+
+	static class CachedStatement extends StatementImpl {
+
+		final StatementCache owner;
+		final StatementKey key;
+
+		final int defaultFetchSize;
+		final int defaultMaxRows;
+		final int defaultQueryTimeout;
+
+		boolean inUse = true;
+		volatile boolean detached;
+		boolean fetchSizeChanged;
+		boolean maxRowsChanged;
+		boolean queryTimeoutChanged;
+		boolean batched;
+
+		CachedStatement(StatementCache owner, StatementKey key, Connection conn, Sql sql, int resultSetType, int resultSetConcurrency)
+				throws SQLException {
+			super(conn, sql, resultSetType, resultSetConcurrency);
+			this.owner = owner;
+			this.key = key;
+			this.defaultFetchSize = this.stat.getFetchSize();
+			this.defaultMaxRows = this.stat.getMaxRows();
+			this.defaultQueryTimeout = this.stat.getQueryTimeout();
+		}
+
+		@Override
+		public void setFetchSize(int rows) throws SQLException {
+			super.setFetchSize(rows);
+			this.fetchSizeChanged = true;
+		}
+
+		@Override
+		public void setMaxRows(int max) throws SQLException {
+			super.setMaxRows(max);
+			this.maxRowsChanged = true;
+		}
+
+		@Override
+		public void setLargeMaxRows(long max) throws SQLException {
+			super.setLargeMaxRows(max);
+			this.maxRowsChanged = true;
+		}
+
+		@Override
+		public void setQueryTimeout(int seconds) throws SQLException {
+			super.setQueryTimeout(seconds);
+			this.queryTimeoutChanged = true;
+		}
+
+		@Override
+		public void addBatch() throws SQLException {
+			super.addBatch();
+			this.batched = true;
+		}
+
+		@Override
+		public void addBatch(String sql) throws SQLException {
+			super.addBatch(sql);
+			this.batched = true;
+		}
+
+		@Override
+		public void close() throws SQLException {
+			this.owner.release(this);
+		}
+
+		void closeStatement() throws SQLException {
+			this.stat.close();
+		}
+	}
+
+	static class StatementKey {
+
+		final String name;
+		final String sql;
+		final Map<String, Integer> arrayLens;
+		final int resultSetType;
+		final int resultSetConcurrency;
+		final int hash;
+
+		// Named SQL: the parameter indexes belong to the Sql that prepared it
+		StatementKey(Sql sql, int resultSetType, int resultSetConcurrency) {
+			this.name = sql.getName();
+			this.sql = sql.getSql();
+			this.arrayLens = sql.getArrayLens();
+			this.resultSetType = resultSetType;
+			this.resultSetConcurrency = resultSetConcurrency;
+			this.hash = Objects.hash(this.name, this.sql, this.arrayLens, resultSetType, resultSetConcurrency);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof StatementKey)) {
+				return false;
+			}
+			StatementKey another = (StatementKey) obj;
+			return (this.resultSetType == another.resultSetType) && (this.resultSetConcurrency == another.resultSetConcurrency)
+					&& this.sql.equals(another.sql) && Objects.equals(this.name, another.name) && this.arrayLens.equals(another.arrayLens);
+		}
+	}
+}
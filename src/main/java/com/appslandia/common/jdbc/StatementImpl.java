@@ -24,6 +24,10 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -34,7 +38,9 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
+import com.appslandia.common.base.LongObjectMap;
 import com.appslandia.common.utils.AssertUtils;
 import com.appslandia.common.utils.IOUtils;
 import com.appslandia.common.utils.ObjectUtils;
@@ -47,44 +53,167 @@ import com.appslandia.common.utils.TagUtils;
  */
 public class StatementImpl implements PreparedStatement {
 
+	public static final String UNNAMED = "unnamed";
+
 	protected final Sql sql;
+	protected final String rawSql;
 	protected final PreparedStatement stat;
+	private String name;
+
+	protected Map<String, Object> parameters;
 
 	public StatementImpl(PreparedStatement stat) {
 		AssertUtils.assertFalse(stat instanceof StatementImpl);
 		this.stat = AssertUtils.assertNotNull(stat);
 		this.sql = null;
+		this.rawSql = null;
 	}
 
 	public StatementImpl(Connection conn, String sql) throws java.sql.SQLException {
 		this.stat = conn.prepareStatement(sql);
 		this.sql = null;
+		this.rawSql = sql;
 	}
 
 	public StatementImpl(Connection conn, String sql, int resultSetType, int resultSetConcurrency) throws java.sql.SQLException {
 		this.stat = conn.prepareStatement(sql, resultSetType, resultSetConcurrency);
 		this.sql = null;
+		this.rawSql = sql;
 	}
 
 	public StatementImpl(Connection conn, Sql sql) throws java.sql.SQLException {
 		this.stat = conn.prepareStatement(sql.getTranslatedSql());
 		this.sql = sql;
+		this.rawSql = null;
 	}
 
 	public StatementImpl(Connection conn, Sql sql, int resultSetType, int resultSetConcurrency) throws java.sql.SQLException {
 		this.stat = conn.prepareStatement(sql.getTranslatedSql(), resultSetType, resultSetConcurrency);
 		this.sql = sql;
+		this.rawSql = null;
 	}
 
 	public StatementImpl(Connection conn, Sql sql, boolean returnGeneratedKey) throws java.sql.SQLException {
 		this.stat = conn.prepareStatement(sql.getTranslatedSql(), returnGeneratedKey ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS);
 		this.sql = sql;
+		this.rawSql = null;
+	}
+
+	// Describes a plain java.sql.Statement to listeners by its SQL text
+	private StatementImpl(String rawSql) {
+		this.stat = null;
+		this.sql = null;
+		this.rawSql = rawSql;
 	}
 
 	protected Sql getSql() {
 		return AssertUtils.assertNotNull(this.sql, "sql is required.");
 	}
 
+	public String getName() {
+		String name = this.name;
+		if (name == null) {
+			if ((this.sql != null) && (this.sql.getName() != null)) {
+				name = this.sql.getName();
+			} else {
+				// Unnamed SQL: a bounded key for listeners and metrics
+				String text = (this.sql != null) ? this.sql.getSql() : this.rawSql;
+				name = (text != null) ? JdbcUtils.toStatementName(text) : UNNAMED;
+			}
+			this.name = name;
+		}
+		return name;
+	}
+
+	// Bound parameters are tracked only when the listener asks for them
+
+	protected void trackParameter(String parameterName, Object value) {
+		if (__trackParameters) {
+			if (this.parameters == null) {
+				this.parameters = new LinkedHashMap<>();
+			}
+			this.parameters.put(parameterName, value);
+		}
+	}
+
+	protected void trackParameter(String parameterName, boolean value) {
+		if (__trackParameters) {
+			trackParameter(parameterName, (Object) value);
+		}
+	}
+
+	protected void trackParameter(String parameterName, byte value) {
+		if (__trackParameters) {
+			trackParameter(parameterName, (Object) value);
+		}
+	}
+
+	protected void trackParameter(String parameterName, short value) {
+		if (__trackParameters) {
+			trackParameter(parameterName, (Object) value);
+		}
+	}
+
+	protected void trackParameter(String parameterName, int value) {
+		if (__trackParameters) {
+			trackParameter(parameterName, (Object) value);
+		}
+	}
+
+	protected void trackParameter(String parameterName, long value) {
+		if (__trackParameters) {
+			trackParameter(parameterName, (Object) value);
+		}
+	}
+
+	protected void trackParameter(String parameterName, float value) {
+		if (__trackParameters) {
+			trackParameter(parameterName, (Object) value);
+		}
+	}
+
+	protected void trackParameter(String parameterName, double value) {
+		if (__trackParameters) {
+			trackParameter(parameterName, (Object) value);
+		}
+	}
+
+	public Map<String, Object> getParameterSnapshot(int maxParameters, int maxValueLength) {
+		Map<String, Object> snapshot = new LinkedHashMap<>();
+		if (this.parameters == null) {
+			return snapshot;
+		}
+		for (Map.Entry<String, Object> param : this.parameters.entrySet()) {
+			if (snapshot.size() >= maxParameters) {
+				break;
+			}
+			snapshot.put(param.getKey(), toSnapshotValue(param.getValue(), maxValueLength));
+		}
+		return snapshot;
+	}
+
+	static Object toSnapshotValue(Object value, int maxValueLength) {
+		if (value == null || value instanceof Number || value instanceof Boolean || value instanceof java.time.temporal.Temporal) {
+			return value;
+		}
+		if (value instanceof byte[]) {
+			return "byte[" + ((byte[]) value).length + "]";
+		}
+		if (value instanceof InputStream || value instanceof Reader || value instanceof java.sql.Blob || value instanceof java.sql.Clob) {
+			return value.getClass().getSimpleName();
+		}
+		String str = value.toString();
+		return (str.length() <= maxValueLength) ? str : str.substring(0, maxValueLength) + "...";
+	}
+
+	static long sumUpdateCounts(int[] counts) {
+		long rows = 0;
+		for (int count : counts) {
+			rows += Math.max(0, count);
+		}
+		return rows;
+	}
+
 	public int executeGeneratedKey() throws java.sql.SQLException {
 		long seq = executeGeneratedKeyLong();
 
@@ -95,7 +224,7 @@ public class StatementImpl implements PreparedStatement {
 	}
 
 	public long executeGeneratedKeyLong() throws java.sql.SQLException {
-		this.stat.executeUpdate();
+		this.executeUpdate();
 
 		try (ResultSet rs = this.stat.getGeneratedKeys()) {
 			if (rs.next()) {
@@ -131,6 +260,35 @@ public class StatementImpl implements PreparedStatement {
 		return JdbcUtils.executeList(this, mapper, list);
 	}
 
+	public long[] executeLongArray(String column) throws java.sql.SQLException {
+		try (ResultSetImpl rs = this.executeQuery()) {
+			return JdbcUtils.executeLongArray(rs, column);
+		}
+	}
+
+	public int[] executeIntArray(String column) throws java.sql.SQLException {
+		try (ResultSetImpl rs = this.executeQuery()) {
+			return JdbcUtils.executeIntArray(rs, column);
+		}
+	}
+
+	public double[] executeDoubleArray(String column) throws java.sql.SQLException {
+		try (ResultSetImpl rs = this.executeQuery()) {
+			return JdbcUtils.executeDoubleArray(rs, column);
+		}
+	}
+
+	public <V> LongObjectMap<V> executeLongObjectMap(String keyColumn, ResultSetMapper<V> valueMapper) throws java.sql.SQLException {
+		return executeLongObjectMap(keyColumn, valueMapper, new LongObjectMap<>());
+	}
+
+	public <V> LongObjectMap<V> executeLongObjectMap(String keyColumn, ResultSetMapper<V> valueMapper, LongObjectMap<V> map)
+			throws java.sql.SQLException {
+		try (ResultSetImpl rs = this.executeQuery()) {
+			return JdbcUtils.executeLongObjectMap(rs, keyColumn, valueMapper, map);
+		}
+	}
+
 	public <T> T executeSingle(ResultSetMapper<T> mapper) throws java.sql.SQLException {
 		return JdbcUtils.executeSingle(this, mapper);
 	}
@@ -139,6 +297,15 @@ public class StatementImpl implements PreparedStatement {
 		return executeSingle(rs -> ObjectUtils.cast(rs.getObject(1)));
 	}
 
+	public <T> Stream<T> executeStream(ResultSetMapper<T> mapper) throws java.sql.SQLException {
+		return JdbcUtils.executeStream(this.executeQuery(), mapper, this);
+	}
+
+	public <T> Stream<T> executeStream(ResultSetMapper<T> mapper, int fetchSize) throws java.sql.SQLException {
+		this.setFetchSize(fetchSize);
+		return executeStream(mapper);
+	}
+
 	public void executeQuery(ResultSetHandler handler) throws Exception {
 		try (ResultSetImpl rs = this.executeQuery()) {
 			while (rs.next()) {
@@ -166,6 +333,77 @@ public class StatementImpl implements PreparedStatement {
 		}
 	}
 
+	public long executeStream(String streamLabel, WritableByteChannel out, ResultSetHandler handler) throws Exception {
+		return executeStream(streamLabel, 0, -1, out, handler);
+	}
+
+	// length < 0: to the end of the blob
+	// Returns the bytes transferred, or -1 if no row found
+	public long executeStream(String streamLabel, long offset, long length, WritableByteChannel out, ResultSetHandler handler) throws Exception {
+		AssertUtils.assertTrue(offset >= 0, "offset must be greater than or equal to 0.");
+
+		try (ResultSetImpl rs = this.executeQuery()) {
+			long transferred = -1;
+
+			while (rs.next()) {
+				if (transferred >= 0) {
+					throw new NonUniqueSqlException();
+				}
+				if (handler != null) {
+					handler.handle(rs);
+				}
+				transferred = copyBlob(rs, streamLabel, offset, length, out);
+			}
+			return transferred;
+		}
+	}
+
+	// Returns the bytes transferred, or -1 if no row found
+	public long executeStream(String streamLabel, Path path, ResultSetHandler handler) throws Exception {
+		try (ResultSetImpl rs = this.executeQuery()) {
+			long transferred = -1;
+
+			while (rs.next()) {
+				if (transferred >= 0) {
+					throw new NonUniqueSqlException();
+				}
+				if (handler != null) {
+					handler.handle(rs);
+				}
+				try (InputStream is = rs.getBinaryStream(streamLabel)) {
+					transferred = (is != null) ? Files.copy(is, path, StandardCopyOption.REPLACE_EXISTING) : 0;
+				}
+			}
+			return transferred;
+		}
+	}
+
+	static long copyBlob(ResultSetImpl rs, String streamLabel, long offset, long length, WritableByteChannel out) throws Exception {
+		if ((offset == 0) && (length < 0)) {
+			try (InputStream is = rs.getBinaryStream(streamLabel)) {
+				return (is != null) ? IOUtils.copy(is, out) : 0;
+			}
+		}
+
+		// Range read: let the driver position the stream
+		java.sql.Blob blob = rs.getBlob(streamLabel);
+		if (blob == null) {
+			return 0;
+		}
+		try {
+			long remaining = blob.length() - offset;
+			long len = (length < 0) ? remaining : Math.min(length, remaining);
+			if (len <= 0) {
+				return 0;
+			}
+			try (InputStream is = blob.getBinaryStream(offset + 1, len)) {
+				return IOUtils.copy(is, out);
+			}
+		} finally {
+			blob.free();
+		}
+	}
+
 	public void executeStream(String streamLabel, Writer w, ResultSetHandler handler) throws Exception {
 		try (ResultSetImpl rs = this.executeQuery()) {
 			boolean rsRead = false;
@@ -288,6 +526,15 @@ public class StatementImpl implements PreparedStatement {
 	// Set IN Parameters
 	// type IN :types
 
+	public void setObjectArray(String parameterName, Object[] values) throws java.sql.SQLException {
+		int arrayLen = this.getSql().getArrayLen(parameterName);
+		AssertUtils.assertTrue(values.length <= arrayLen);
+
+		for (int i = 0; i < arrayLen; i++) {
+			setObject(Sql.toParamName(parameterName, i), (i < values.length) ? values[i] : null);
+		}
+	}
+
 	public void setStringArray(String parameterName, String[] values) throws java.sql.SQLException {
 		int arrayLen = this.getSql().getArrayLen(parameterName);
 		AssertUtils.assertTrue(values.length <= arrayLen);
@@ -484,258 +731,301 @@ public class StatementImpl implements PreparedStatement {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setBoolean(index, x);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setString(String parameterName, java.lang.String x) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setString(index, x);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setNString(String parameterName, java.lang.String value) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setNString(index, value);
 		}
+		trackParameter(parameterName, value);
 	}
 
 	public void setByte(String parameterName, byte x) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setByte(index, x);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setBytes(String parameterName, byte[] x) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setBytes(index, x);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setShort(String parameterName, short x) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setShort(index, x);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setInt(String parameterName, int x) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setInt(index, x);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setLong(String parameterName, long x) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setLong(index, x);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setFloat(String parameterName, float x) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setFloat(index, x);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setDouble(String parameterName, double x) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setDouble(index, x);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setBigDecimal(String parameterName, java.math.BigDecimal x) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setBigDecimal(index, x);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setDate(String parameterName, java.sql.Date x, java.util.Calendar cal) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setDate(index, x, cal);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setDate(String parameterName, java.sql.Date x) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setDate(index, x);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setTimestamp(String parameterName, java.sql.Timestamp x) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setTimestamp(index, x);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setTimestamp(String parameterName, java.sql.Timestamp x, java.util.Calendar cal) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setTimestamp(index, x, cal);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setTime(String parameterName, java.sql.Time x, java.util.Calendar cal) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setTime(index, x, cal);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setTime(String parameterName, java.sql.Time x) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setTime(index, x);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setNull(String parameterName, int sqlType, java.lang.String typeName) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setNull(index, sqlType, typeName);
 		}
+		trackParameter(parameterName, null);
 	}
 
 	public void setNull(String parameterName, int sqlType) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setNull(index, sqlType);
 		}
+		trackParameter(parameterName, null);
 	}
 
 	public void setObject(String parameterName, java.lang.Object x) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setObject(index, x);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setObject(String parameterName, java.lang.Object x, int targetSqlType, int scaleOrLength) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setObject(index, x, targetSqlType, scaleOrLength);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setObject(String parameterName, java.lang.Object x, java.sql.SQLType targetSqlType) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setObject(index, x, targetSqlType);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setObject(String parameterName, java.lang.Object x, int targetSqlType) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setObject(index, x, targetSqlType);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setObject(String parameterName, java.lang.Object x, java.sql.SQLType targetSqlType, int scaleOrLength) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setObject(index, x, targetSqlType, scaleOrLength);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setURL(String parameterName, java.net.URL x) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setURL(index, x);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setArray(String parameterName, java.sql.Array x) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setArray(index, x);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setSQLXML(String parameterName, java.sql.SQLXML xmlObject) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setSQLXML(index, xmlObject);
 		}
+		trackParameter(parameterName, xmlObject);
 	}
 
 	public void setRef(String parameterName, java.sql.Ref x) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setRef(index, x);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setRowId(String parameterName, java.sql.RowId x) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setRowId(index, x);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setClob(String parameterName, java.io.Reader reader, long length) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setClob(index, reader, length);
 		}
+		trackParameter(parameterName, reader);
 	}
 
 	public void setClob(String parameterName, java.sql.Clob x) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setClob(index, x);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setClob(String parameterName, java.io.Reader reader) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setClob(index, reader);
 		}
+		trackParameter(parameterName, reader);
 	}
 
 	public void setNClob(String parameterName, java.sql.NClob value) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setNClob(index, value);
 		}
+		trackParameter(parameterName, value);
 	}
 
 	public void setNClob(String parameterName, java.io.Reader reader, long length) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setNClob(index, reader, length);
 		}
+		trackParameter(parameterName, reader);
 	}
 
 	public void setNClob(String parameterName, java.io.Reader reader) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setNClob(index, reader);
 		}
+		trackParameter(parameterName, reader);
 	}
 
 	public void setAsciiStream(String parameterName, java.io.InputStream x, int length) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setAsciiStream(index, x, length);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setAsciiStream(String parameterName, java.io.InputStream x, long length) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setAsciiStream(index, x, length);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setAsciiStream(String parameterName, java.io.InputStream x) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setAsciiStream(index, x);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setCharacterStream(String parameterName, java.io.Reader reader, long length) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setCharacterStream(index, reader, length);
 		}
+		trackParameter(parameterName, reader);
 	}
 
 	public void setCharacterStream(String parameterName, java.io.Reader reader, int length) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setCharacterStream(index, reader, length);
 		}
+		trackParameter(parameterName, reader);
 	}
 
 	public void setCharacterStream(String parameterName, java.io.Reader reader) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setCharacterStream(index, reader);
 		}
+		trackParameter(parameterName, reader);
 	}
 
 	public void setNCharacterStream(String parameterName, java.io.Reader value, long length) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setNCharacterStream(index, value, length);
 		}
+		trackParameter(parameterName, value);
 	}
 
 	public void setNCharacterStream(String parameterName, java.io.Reader value) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setNCharacterStream(index, value);
 		}
+		trackParameter(parameterName, value);
 	}
 
 	@Deprecated
@@ -743,64 +1033,127 @@ public class StatementImpl implements PreparedStatement {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setUnicodeStream(index, x, length);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setBlob(String parameterName, java.sql.Blob x) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setBlob(index, x);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setBlob(String parameterName, java.io.InputStream inputStream) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setBlob(index, inputStream);
 		}
+		trackParameter(parameterName, inputStream);
 	}
 
 	public void setBlob(String parameterName, java.io.InputStream inputStream, long length) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setBlob(index, inputStream, length);
 		}
+		trackParameter(parameterName, inputStream);
 	}
 
 	public void setBinaryStream(String parameterName, java.io.InputStream x, long length) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setBinaryStream(index, x, length);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setBinaryStream(String parameterName, java.io.InputStream x) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setBinaryStream(index, x);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	public void setBinaryStream(String parameterName, java.io.InputStream x, int length) throws java.sql.SQLException {
 		for (int index : this.getSql().getIndexes(parameterName)) {
 			this.stat.setBinaryStream(index, x, length);
 		}
+		trackParameter(parameterName, x);
 	}
 
 	// java.sql.PreparedStatement
 
 	@Override
 	public int executeUpdate() throws java.sql.SQLException {
-		return this.stat.executeUpdate();
+		JdbcListener listener = __listener;
+		if (listener == null) {
+			return this.stat.executeUpdate();
+		}
+		long start = System.nanoTime();
+		int rows = this.stat.executeUpdate();
+
+		listener.executed(this, false, System.nanoTime() - start, 0, rows, 0);
+		return rows;
 	}
 
 	@Override
 	public long executeLargeUpdate() throws java.sql.SQLException {
-		return this.stat.executeLargeUpdate();
+		JdbcListener listener = __listener;
+		if (listener == null) {
+			return this.stat.executeLargeUpdate();
+		}
+		long start = System.nanoTime();
+		long rows = this.stat.executeLargeUpdate();
+
+		listener.executed(this, false, System.nanoTime() - start, 0, rows, 0);
+		return rows;
 	}
 
 	@Override
 	public boolean execute() throws java.sql.SQLException {
-		return this.stat.execute();
+		JdbcListener listener = __listener;
+		if (listener == null) {
+			return this.stat.execute();
+		}
+		long start = System.nanoTime();
+		boolean result = this.stat.execute();
+
+		listener.executed(this, result, System.nanoTime() - start, 0, 0, 0);
+		return result;
 	}
 
 	@Override
 	public ResultSetImpl executeQuery() throws java.sql.SQLException {
-		return new ResultSetImpl(this.stat.executeQuery());
+		JdbcListener listener = __listener;
+		if (listener == null) {
+			return new ResultSetImpl(this.stat.executeQuery());
+		}
+		long start = System.nanoTime();
+		ResultSet rs = this.stat.executeQuery();
+
+		return new MeteredResultSet(rs, this, listener, System.nanoTime() - start);
+	}
+
+	// Plain java.sql.Statement: raw SQL is not prepared, so a literal ? is not a placeholder
+
+	static int executeUpdate(Statement stat, String sql) throws java.sql.SQLException {
+		JdbcListener listener = __listener;
+		if (listener == null) {
+			return stat.executeUpdate(sql);
+		}
+		long start = System.nanoTime();
+		int rows = stat.executeUpdate(sql);
+
+		listener.executed(new StatementImpl(sql), false, System.nanoTime() - start, 0, rows, 0);
+		return rows;
+	}
+
+	static ResultSetImpl executeQuery(Statement stat, String sql) throws java.sql.SQLException {
+		JdbcListener listener = __listener;
+		if (listener == null) {
+			return new ResultSetImpl(stat.executeQuery(sql));
+		}
+		long start = System.nanoTime();
+		ResultSet rs = stat.executeQuery(sql);
+
+		return new MeteredResultSet(rs, new StatementImpl(sql), listener, System.nanoTime() - start);
 	}
 
 	@Override
@@ -1062,6 +1415,10 @@ public class StatementImpl implements PreparedStatement {
 	@Override
 	public void clearParameters() throws java.sql.SQLException {
 		this.stat.clearParameters();
+
+		if (this.parameters != null) {
+			this.parameters.clear();
+		}
 	}
 
 	@Override
@@ -1138,12 +1495,32 @@ public class StatementImpl implements PreparedStatement {
 
 	@Override
 	public int[] executeBatch() throws java.sql.SQLException {
-		return this.stat.executeBatch();
+		JdbcListener listener = __listener;
+		if (listener == null) {
+			return this.stat.executeBatch();
+		}
+		long start = System.nanoTime();
+		int[] counts = this.stat.executeBatch();
+
+		listener.executed(this, false, System.nanoTime() - start, 0, sumUpdateCounts(counts), counts.length);
+		return counts;
 	}
 
 	@Override
 	public long[] executeLargeBatch() throws java.sql.SQLException {
-		return this.stat.executeLargeBatch();
+		JdbcListener listener = __listener;
+		if (listener == null) {
+			return this.stat.executeLargeBatch();
+		}
+		long start = System.nanoTime();
+		long[] counts = this.stat.executeLargeBatch();
+
+		long rows = 0;
+		for (long count : counts) {
+			rows += Math.max(0, count);
+		}
+		listener.executed(this, false, System.nanoTime() - start, 0, rows, counts.length);
+		return counts;
 	}
 
 	@Override
@@ -1339,4 +1716,16 @@ public class StatementImpl implements PreparedStatement {
 	public void close() throws java.sql.SQLException {
 		this.stat.close();
 	}
+
+	private static volatile JdbcListener __listener;
+	private static volatile boolean __trackParameters;
+
+	public static JdbcListener getListener() {
+		return __listener;
+	}
+
+	public static void setListener(JdbcListener listener) {
+		__trackParameters = (listener != null) && listener.isTrackParameters();
+		__listener = listener;
+	}
 }
@@ -0,0 +1,177 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class StatementMetrics {
+
+	// 8 sub-buckets per power of two: about 12% resolution
+	static final int SUB_BUCKETS = 8;
+	static final int BUCKET_COUNT = SUB_BUCKETS + (63 - 3) * SUB_BUCKETS;
+
+	final String name;
+
+	final LongAdder count = new LongAdder();
+	final LongAdder queryCount = new LongAdder();
+	final LongAdder rowsRead = new LongAdder();
+	final LongAdder rowsAffected = new LongAdder();
+
+	final LongAdder batchCount = new LongAdder();
+	final LongAdder batchRows = new LongAdder();
+	final LongAccumulator maxBatchSize = new LongAccumulator(Math::max, 0);
+
+	final LongAdder driverNanos = new LongAdder();
+	final LongAdder mappingNanos = new LongAdder();
+	final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+	final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+	public StatementMetrics(String name) {
+		this.name = name;
+	}
+
+	public void record(boolean query, long driverNanos, long mappingNanos, long rows, int batchSize) {
+		this.count.increment();
+		if (query) {
+			this.queryCount.increment();
+			this.rowsRead.add(rows);
+		} else {
+			this.rowsAffected.add(rows);
+		}
+		if (batchSize > 0) {
+			this.batchCount.increment();
+			this.batchRows.add(batchSize);
+			this.maxBatchSize.accumulate(batchSize);
+		}
+
+		long nanos = driverNanos + mappingNanos;
+		this.driverNanos.add(driverNanos);
+		this.mappingNanos.add(mappingNanos);
+		this.maxNanos.accumulate(nanos);
+		this.buckets.incrementAndGet(toBucket(nanos));
+	}
+
+	static int toBucket(long nanos) {
+		if (nanos < SUB_BUCKETS) {
+			return (int) Math.max(0, nanos);
+		}
+		int exp = 63 - Long.numberOfLeadingZeros(nanos);
+		int sub = (int) (nanos >>> (exp - 3)) - SUB_BUCKETS;
+		return SUB_BUCKETS + (exp - 3) * SUB_BUCKETS + sub;
+	}
+
+	static long toUpperBound(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int exp = (bucket - SUB_BUCKETS) / SUB_BUCKETS + 3;
+		long sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+		return ((SUB_BUCKETS + sub + 1) << (exp - 3)) - 1;
+	}
+
+	public long getPercentileNanos(double percentile) {
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			total += this.buckets.get(i);
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long target = Math.max(1, (long) Math.ceil(percentile * total));
+		long cumulative = 0;
+
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			cumulative += this.buckets.get(i);
+			if (cumulative >= target) {
+				return Math.min(toUpperBound(i), getMaxNanos());
+			}
+		}
+		return getMaxNanos();
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public long getCount() {
+		return this.count.sum();
+	}
+
+	public long getQueryCount() {
+		return this.queryCount.sum();
+	}
+
+	public long getRowsRead() {
+		return this.rowsRead.sum();
+	}
+
+	public long getRowsAffected() {
+		return this.rowsAffected.sum();
+	}
+
+	public long getBatchCount() {
+		return this.batchCount.sum();
+	}
+
+	public long getBatchRows() {
+		return this.batchRows.sum();
+	}
+
+	public long getMaxBatchSize() {
+		return this.maxBatchSize.get();
+	}
+
+	public long getDriverNanos() {
+		return this.driverNanos.sum();
+	}
+
+	public long getMappingNanos() {
+		return this.mappingNanos.sum();
+	}
+
+	public long getP50Nanos() {
+		return getPercentileNanos(0.50);
+	}
+
+	public long getP99Nanos() {
+		return getPercentileNanos(0.99);
+	}
+
+	public long getMaxNanos() {
+		return this.maxNanos.get();
+	}
+
+	@Override
+	public String toString() {
+		long batchCount = getBatchCount();
+		return String.format("%s: count=%d, p50=%.3fms, p99=%.3fms, max=%.3fms, rowsRead=%d, rowsAffected=%d, batches=%d, avgBatchSize=%d, driver=%.3fms, mapping=%.3fms",
+				this.name, getCount(), getP50Nanos() / 1e6, getP99Nanos() / 1e6, getMaxNanos() / 1e6, getRowsRead(), getRowsAffected(), batchCount,
+				(batchCount > 0) ? getBatchRows() / batchCount : 0, getDriverNanos() / 1e6, getMappingNanos() / 1e6);
+	}
+}
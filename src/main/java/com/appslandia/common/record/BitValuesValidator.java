@@ -41,4 +41,15 @@ public class BitValuesValidator implements FieldValidator {
 		}
 		return new FieldError(ERROR_MSG_KEY, constraintArgs);
 	}
+
+	@Override
+	public Compiled compile(Object constraintArgs) {
+		return value -> {
+			// Only bits 0 and 1 are valid
+			if ((value == null) || ((((Number) value).intValue() & ~1) == 0)) {
+				return null;
+			}
+			return new FieldError(ERROR_MSG_KEY, constraintArgs);
+		};
+	}
 }
@@ -0,0 +1,493 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.record;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import com.appslandia.common.base.CsvReader;
+import com.appslandia.common.threading.DaemonThreadFactory;
+import com.appslandia.common.utils.AssertUtils;
+import com.appslandia.common.utils.ParseUtils;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class BulkLoader {
+
+	public static final int DEFAULT_CHUNK_ROWS = 1000;
+	public static final int DEFAULT_QUEUE_CHUNKS = 8;
+
+	final DataSource dataSource;
+	final Table table;
+
+	private FieldValidators validators = new FieldValidators();
+	private char delimiter = ',';
+	private Charset charset = StandardCharsets.UTF_8;
+	private boolean header = true;
+	private int validatorThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+	private int writerConnections = 1;
+	private int chunkRows = DEFAULT_CHUNK_ROWS;
+	private int queueChunks = DEFAULT_QUEUE_CHUNKS;
+	private RejectHandler rejectHandler;
+
+	public BulkLoader(DataSource dataSource, Table table) {
+		this.dataSource = AssertUtils.assertNotNull(dataSource);
+		this.table = AssertUtils.assertNotNull(table);
+	}
+
+	public Result load(Path file) throws Exception {
+		try (CsvReader reader = CsvReader.open(file, this.charset, this.delimiter)) {
+			return load(reader);
+		}
+	}
+
+	public Result load(Reader reader) throws Exception {
+		try (CsvReader csvReader = new CsvReader(reader, this.delimiter)) {
+			return load(csvReader);
+		}
+	}
+
+	// Reads on the calling thread; validators and writers run on their own threads
+	public Result load(CsvReader reader) throws Exception {
+		final long start = System.nanoTime();
+		final Pipeline pipeline = new Pipeline();
+
+		ExecutorService executor = Executors.newFixedThreadPool(this.validatorThreads + this.writerConnections, new DaemonThreadFactory());
+		try {
+			for (int i = 0; i < this.validatorThreads; i++) {
+				executor.execute(() -> {
+					try {
+						runValidator(pipeline);
+					} catch (Throwable ex) {
+						pipeline.fail(ex);
+					} finally {
+						// The last validator ends the writers
+						if (pipeline.validatorsAlive.decrementAndGet() == 0) {
+							for (int w = 0; w < this.writerConnections; w++) {
+								pipeline.put(pipeline.writeQueue, END);
+							}
+						}
+					}
+				});
+			}
+			for (int i = 0; i < this.writerConnections; i++) {
+				executor.execute(() -> {
+					try {
+						runWriter(pipeline);
+					} catch (Throwable ex) {
+						pipeline.fail(ex);
+					} finally {
+						pipeline.writersAlive.decrementAndGet();
+					}
+				});
+			}
+
+			try {
+				runReader(reader, pipeline);
+			} catch (Throwable ex) {
+				pipeline.fail(ex);
+			} finally {
+				for (int i = 0; i < this.validatorThreads; i++) {
+					pipeline.put(pipeline.parseQueue, END);
+				}
+			}
+
+		} finally {
+			executor.shutdown();
+			while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+				// Wait for in-flight batches
+			}
+		}
+
+		Throwable error = pipeline.error.get();
+		if (error != null) {
+			if (error instanceof Exception) {
+				throw (Exception) error;
+			}
+			throw (Error) error;
+		}
+		return new Result(pipeline.rowsRead.sum(), pipeline.rowsLoaded.sum(), pipeline.rowsRejected.sum(), System.nanoTime() - start);
+	}
+
+	protected void runReader(CsvReader reader, Pipeline pipeline) throws Exception {
+		String[] columns = null;
+		int[] fieldIndexes = null;
+
+		if (this.header) {
+			columns = reader.readRow();
+			if (columns == null) {
+				return;
+			}
+		}
+		fieldIndexes = toFieldIndexes(columns);
+
+		Chunk chunk = new Chunk(fieldIndexes, this.chunkRows);
+		String[] row;
+
+		while (!pipeline.isFailed() && ((row = reader.readRow()) != null)) {
+			// Skip blank lines
+			if ((row.length == 1) && row[0].isEmpty()) {
+				continue;
+			}
+			chunk.add(reader.getRowNumber(), row);
+			pipeline.rowsRead.increment();
+
+			if (chunk.size() == this.chunkRows) {
+				pipeline.put(pipeline.parseQueue, chunk);
+				chunk = new Chunk(fieldIndexes, this.chunkRows);
+			}
+		}
+		if (chunk.size() > 0) {
+			pipeline.put(pipeline.parseQueue, chunk);
+		}
+	}
+
+	protected void runValidator(Pipeline pipeline) throws Exception {
+		List<Field> fields = this.table.getFields();
+		Object item;
+
+		while ((item = pipeline.take(pipeline.parseQueue)) != END) {
+			Chunk chunk = (Chunk) item;
+			List<Record> records = new ArrayList<>(chunk.size());
+
+			for (int i = 0; i < chunk.size(); i++) {
+				String[] row = chunk.rows.get(i);
+				Record record = this.table.newRecord();
+
+				try {
+					for (int col = 0; col < chunk.fieldIndexes.length; col++) {
+						int fieldIndex = chunk.fieldIndexes[col];
+						if (fieldIndex < 0) {
+							continue;
+						}
+						Field field = fields.get(fieldIndex);
+						String value = (col < row.length) ? row[col] : null;
+
+						try {
+							record.set(field.getName(), toValue(value, field));
+						} catch (IllegalArgumentException ex) {
+							throw new IllegalArgumentException("field=" + field.getName() + ", value=" + value, ex);
+						}
+					}
+					this.validators.validateRecord(record, this.table);
+					records.add(record);
+
+				} catch (ValidatorException | IllegalArgumentException ex) {
+					pipeline.rowsRejected.increment();
+					reject(chunk.rowNumbers[i], row, ex.getMessage());
+				}
+			}
+			if (!records.isEmpty()) {
+				pipeline.put(pipeline.writeQueue, records);
+			}
+		}
+	}
+
+	protected void runWriter(Pipeline pipeline) throws Exception {
+		try (DbManager dbManager = new DbManager(this.dataSource)) {
+			dbManager.setAutoCommit(false);
+			dbManager.setBatchSize(this.chunkRows);
+
+			Object item;
+			while ((item = pipeline.take(pipeline.writeQueue)) != END) {
+				@SuppressWarnings("unchecked")
+				List<Record> records = (List<Record>) item;
+
+				for (Record record : records) {
+					dbManager.insertBatch(record, this.table);
+				}
+				dbManager.executeBatch();
+				dbManager.commit();
+
+				pipeline.rowsLoaded.add(records.size());
+			}
+		}
+	}
+
+	protected void reject(long rowNumber, String[] row, String message) {
+		RejectHandler handler = this.rejectHandler;
+		if (handler != null) {
+			synchronized (handler) {
+				handler.rejected(rowNumber, row, message);
+			}
+		}
+	}
+
+	protected int[] toFieldIndexes(String[] columns) {
+		List<Field> fields = this.table.getFields();
+
+		// No header: columns follow the table fields
+		if (columns == null) {
+			int[] indexes = new int[fields.size()];
+			for (int i = 0; i < indexes.length; i++) {
+				indexes[i] = fields.get(i).isAutoKey() ? -1 : i;
+			}
+			return indexes;
+		}
+
+		int[] indexes = new int[columns.length];
+		for (int col = 0; col < columns.length; col++) {
+			indexes[col] = -1;
+
+			for (int i = 0; i < fields.size(); i++) {
+				Field field = fields.get(i);
+				if (!field.isAutoKey() && field.getName().equalsIgnoreCase(columns[col].trim())) {
+					indexes[col] = i;
+					break;
+				}
+			}
+		}
+		return indexes;
+	}
+
+	// Empty text is NULL; parse failures reject the row
+	protected Object toValue(String value, Field field) throws IllegalArgumentException {
+		if ((value == null) || value.isEmpty()) {
+			return null;
+		}
+		switch (field.getSqlType()) {
+		case Types.TINYINT:
+		case Types.SMALLINT:
+		case Types.INTEGER:
+			return Integer.valueOf(value.trim());
+		case Types.BIGINT:
+			return Long.valueOf(value.trim());
+		case Types.DECIMAL:
+		case Types.NUMERIC:
+			return new BigDecimal(value.trim());
+		case Types.REAL:
+		case Types.FLOAT:
+		case Types.DOUBLE:
+			return Double.valueOf(value.trim());
+		case Types.BIT:
+		case Types.BOOLEAN:
+			return parseBool(value.trim());
+		case Types.DATE:
+			return java.sql.Date.valueOf(value.trim());
+		case Types.TIME:
+			return java.sql.Time.valueOf(value.trim());
+		case Types.TIMESTAMP:
+			return java.sql.Timestamp.valueOf(value.trim());
+		default:
+			return value;
+		}
+	}
+
+	static Boolean parseBool(String value) throws IllegalArgumentException {
+		if (ParseUtils.isTrueValue(value)) {
+			return Boolean.TRUE;
+		}
+		if (ParseUtils.isFalseValue(value)) {
+			return Boolean.FALSE;
+		}
+		throw new IllegalArgumentException("Invalid boolean value: " + value);
+	}
+
+	public BulkLoader setValidators(FieldValidators validators) {
+		this.validators = AssertUtils.assertNotNull(validators);
+		return this;
+	}
+
+	public BulkLoader setDelimiter(char delimiter) {
+		this.delimiter = delimiter;
+		return this;
+	}
+
+	public BulkLoader setCharset(Charset charset) {
+		this.charset = AssertUtils.assertNotNull(charset);
+		return this;
+	}
+
+	public BulkLoader setHeader(boolean header) {
+		this.header = header;
+		return this;
+	}
+
+	public BulkLoader setValidatorThreads(int validatorThreads) {
+		AssertUtils.assertTrue(validatorThreads > 0, "validatorThreads is required.");
+		this.validatorThreads = validatorThreads;
+		return this;
+	}
+
+	public BulkLoader setWriterConnections(int writerConnections) {
+		AssertUtils.assertTrue(writerConnections > 0, "writerConnections is required.");
+		this.writerConnections = writerConnections;
+		return this;
+	}
+
+	public BulkLoader setChunkRows(int chunkRows) {
+		AssertUtils.assertTrue(chunkRows > 0, "chunkRows is required.");
+		this.chunkRows = chunkRows;
+		return this;
+	}
+
+	public BulkLoader setQueueChunks(int queueChunks) {
+		AssertUtils.assertTrue(queueChunks > 0, "queueChunks is required.");
+		this.queueChunks = queueChunks;
+		return this;
+	}
+
+	public BulkLoader setRejectHandler(RejectHandler rejectHandler) {
+		this.rejectHandler = rejectHandler;
+		return this;
+	}
+
+	@FunctionalInterface
+	public interface RejectHandler {
+
+		void rejected(long rowNumber, String[] row, String message);
+	}
+
+	static class Chunk {
+		final int[] fieldIndexes;
+		final List<String[]> rows;
+		final long[] rowNumbers;
+
+		Chunk(int[] fieldIndexes, int capacity) {
+			this.fieldIndexes = fieldIndexes;
+			this.rows = new ArrayList<>(capacity);
+			this.rowNumbers = new long[capacity];
+		}
+
+		void add(long rowNumber, String[] row) {
+			this.rowNumbers[this.rows.size()] = rowNumber;
+			this.rows.add(row);
+		}
+
+		int size() {
+			return this.rows.size();
+		}
+	}
+
+	static final Object END = new Object();
+
+	class Pipeline {
+
+		// Bounded queues give backpressure between stages
+		final BlockingQueue<Object> parseQueue = new ArrayBlockingQueue<>(BulkLoader.this.queueChunks);
+		final BlockingQueue<Object> writeQueue = new ArrayBlockingQueue<>(BulkLoader.this.queueChunks);
+
+		final AtomicReference<Throwable> error = new AtomicReference<>();
+		final AtomicInteger validatorsAlive = new AtomicInteger(BulkLoader.this.validatorThreads);
+		final AtomicInteger writersAlive = new AtomicInteger(BulkLoader.this.writerConnections);
+
+		final LongAdder rowsRead = new LongAdder();
+		final LongAdder rowsLoaded = new LongAdder();
+		final LongAdder rowsRejected = new LongAdder();
+
+		void fail(Throwable ex) {
+			if (!this.error.compareAndSet(null, ex)) {
+				this.error.get().addSuppressed(ex);
+			}
+		}
+
+		boolean isFailed() {
+			return this.error.get() != null;
+		}
+
+		void put(BlockingQueue<Object> queue, Object item) {
+			AtomicInteger consumersAlive = (queue == this.parseQueue) ? this.validatorsAlive : this.writersAlive;
+			try {
+				while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+
+					// Once failed: drop data, and stop signaling when no consumer is left
+					if (isFailed() && ((item != END) || (consumersAlive.get() == 0))) {
+						return;
+					}
+				}
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				fail(ex);
+			}
+		}
+
+		Object take(BlockingQueue<Object> queue) throws InterruptedException {
+			Object item = queue.take();
+
+			// Drain without processing once failed
+			while (isFailed() && (item != END)) {
+				item = queue.take();
+			}
+			return item;
+		}
+	}
+
+	public static class Result {
+		final long rowsRead;
+		final long rowsLoaded;
+		final long rowsRejected;
+		final long elapsedNanos;
+
+		public Result(long rowsRead, long rowsLoaded, long rowsRejected, long elapsedNanos) {
+			this.rowsRead = rowsRead;
+			this.rowsLoaded = rowsLoaded;
+			this.rowsRejected = rowsRejected;
+			this.elapsedNanos = elapsedNanos;
+		}
+
+		public long getRowsRead() {
+			return this.rowsRead;
+		}
+
+		public long getRowsLoaded() {
+			return this.rowsLoaded;
+		}
+
+		public long getRowsRejected() {
+			return this.rowsRejected;
+		}
+
+		public long getElapsedNanos() {
+			return this.elapsedNanos;
+		}
+
+		public double getRowsPerSecond() {
+			return (this.elapsedNanos > 0) ? this.rowsLoaded * 1_000_000_000d / this.elapsedNanos : 0;
+		}
+
+		@Override
+		public String toString() {
+			return "rowsRead=" + this.rowsRead + ", rowsLoaded=" + this.rowsLoaded + ", rowsRejected=" + this.rowsRejected + ", rowsPerSecond="
+					+ (long) getRowsPerSecond();
+		}
+	}
+}
@@ -20,17 +20,28 @@
 
 package com.appslandia.common.record;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
 
 import javax.sql.DataSource;
 
+import com.appslandia.common.jdbc.BatchWriter;
+import com.appslandia.common.jdbc.ConnectionImpl;
 import com.appslandia.common.jdbc.JdbcUtils;
 import com.appslandia.common.jdbc.ResultSetHandler;
 import com.appslandia.common.jdbc.ResultSetImpl;
@@ -38,6 +49,7 @@ import com.appslandia.common.jdbc.ResultSetMapper;
 import com.appslandia.common.jdbc.Sql;
 import com.appslandia.common.jdbc.StatementImpl;
 import com.appslandia.common.threading.ThreadLocalStorage;
+import com.appslandia.common.utils.AssertUtils;
 import com.appslandia.common.utils.ObjectUtils;
 
 /**
@@ -47,21 +59,227 @@ import com.appslandia.common.utils.ObjectUtils;
  */
 public class DbManager implements AutoCloseable {
 
+	public static final int DEFAULT_KEYS_CHUNK_SIZE = 256;
+	public static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+
 	private Connection conn;
-	private Map<String, StatementImpl> tableStats = new LinkedHashMap<>();
+	private final boolean closeConnection;
+
+	// Access order: the eldest statement is evicted first
+	private LinkedHashMap<String, CachedStatement> statCache = new LinkedHashMap<>(16, 0.75f, true);
+	private Map<String, StatementStats> statementStats = new LinkedHashMap<>();
+	private int statementCacheSize = DEFAULT_STATEMENT_CACHE_SIZE;
+	private Map<String, BatchWriter> batchWriters = new LinkedHashMap<>();
+	private Map<String, List<Record>> batchRecords = new HashMap<>();
+	private Boolean batchKeysSupported;
+	private UpsertType upsertType;
+	private Set<String> writtenTables = new HashSet<>();
+
+	private int batchSize = BatchWriter.DEFAULT_BATCH_SIZE;
+	private long batchBytes = BatchWriter.DEFAULT_BATCH_BYTES;
+	private int commitEvery;
+	private int keysChunkSize = DEFAULT_KEYS_CHUNK_SIZE;
+
+	private int pendingRows;
+	private long pendingBytes;
+	private int uncommittedBatches;
 
 	public DbManager() throws SQLException {
 		this(DbManager.getDataSource());
 	}
 
 	public DbManager(DataSource dataSource) throws SQLException {
-		this.conn = dataSource.getConnection();
+		this(dataSource.getConnection(), true);
+	}
+
+	public DbManager(Connection conn, boolean closeConnection) {
+		this.conn = AssertUtils.assertNotNull(conn);
+		this.closeConnection = closeConnection;
 	}
 
 	public Connection getConnection() {
 		return this.conn;
 	}
 
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	public DbManager setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+		return this;
+	}
+
+	public long getBatchBytes() {
+		return this.batchBytes;
+	}
+
+	public DbManager setBatchBytes(long batchBytes) {
+		this.batchBytes = batchBytes;
+		return this;
+	}
+
+	public int getCommitEvery() {
+		return this.commitEvery;
+	}
+
+	public DbManager setCommitEvery(int commitEvery) {
+		this.commitEvery = commitEvery;
+		return this;
+	}
+
+	public UpsertType getUpsertType() throws SQLException {
+		if (this.upsertType == null) {
+			this.upsertType = UpsertType.of(this.conn.getMetaData().getDatabaseProductName());
+		}
+		return this.upsertType;
+	}
+
+	public DbManager setUpsertType(UpsertType upsertType) {
+		this.upsertType = upsertType;
+		return this;
+	}
+
+	public int getStatementCacheSize() {
+		return this.statementCacheSize;
+	}
+
+	public DbManager setStatementCacheSize(int statementCacheSize) {
+		this.statementCacheSize = AssertUtils.assertPossitive(statementCacheSize, "statementCacheSize must be greater than 0.");
+		return this;
+	}
+
+	public Map<String, StatementStats> getStatementStats() {
+		return Collections.unmodifiableMap(this.statementStats);
+	}
+
+	public int getKeysChunkSize() {
+		return this.keysChunkSize;
+	}
+
+	public DbManager setKeysChunkSize(int keysChunkSize) {
+		AssertUtils.assertTrue(keysChunkSize > 0, "keysChunkSize is required.");
+		this.keysChunkSize = keysChunkSize;
+		return this;
+	}
+
+	protected void addBatch(Sql sql, StatementImpl stat, long boundBytes) throws SQLException {
+		addBatch(sql, stat, boundBytes, null, null);
+	}
+
+	protected void addBatch(Sql sql, StatementImpl stat, long boundBytes, Record record, String autoKeyName) throws SQLException {
+		BatchWriter writer = this.batchWriters.get(sql.getName());
+		if (writer == null) {
+			// Thresholds are applied across all statements to keep the flush order
+			writer = new BatchWriter(stat, this.conn, false).setBatchSize(0).setBatchBytes(0);
+
+			this.batchWriters.put(sql.getName(), writer);
+		}
+
+		// Buffered records receive their generated keys in order
+		if (record != null) {
+			List<Record> records = this.batchRecords.get(sql.getName());
+			if (records == null) {
+				final List<Record> pending = records = new ArrayList<>();
+				writer.setReturnGeneratedKeys(true).setBatchHandler((counts, keys) -> assignKeys(pending, keys, autoKeyName));
+
+				this.batchRecords.put(sql.getName(), records);
+			}
+			records.add(record);
+		}
+		writer.add(boundBytes);
+
+		this.pendingRows++;
+		this.pendingBytes += boundBytes;
+
+		if ((this.batchSize > 0 && this.pendingRows >= this.batchSize) || (this.batchBytes > 0 && this.pendingBytes >= this.batchBytes)) {
+			executeBatch();
+		}
+	}
+
+	protected StatementImpl getStatement(Table table, Sql sql, boolean returnGeneratedKey) throws SQLException {
+		StatementStats stats = this.statementStats.get(table.getName());
+		if (stats == null) {
+			stats = new StatementStats();
+			this.statementStats.put(table.getName(), stats);
+		}
+
+		CachedStatement cached = this.statCache.get(sql.getName());
+		if (cached != null) {
+			stats.reuseCount++;
+			return cached.stat;
+		}
+
+		StatementImpl stat = this.prepareStatement(sql, returnGeneratedKey);
+		stats.prepareCount++;
+
+		this.statCache.put(sql.getName(), new CachedStatement(stat, stats));
+		this.evictStatements(sql.getName());
+		return stat;
+	}
+
+	protected StatementImpl prepareStatement(Sql sql, boolean returnGeneratedKey) throws SQLException {
+		// Pooled ConnectionImpl: statements outlive this DbManager
+		if (returnGeneratedKey) {
+			return new StatementImpl(this.conn, sql, true);
+		}
+		if (this.conn instanceof ConnectionImpl) {
+			return ((ConnectionImpl) this.conn).prepareCached(sql);
+		}
+		return new StatementImpl(this.conn, sql);
+	}
+
+	protected void evictStatements(String currentName) throws SQLException {
+		Iterator<Map.Entry<String, CachedStatement>> iter = this.statCache.entrySet().iterator();
+
+		while (iter.hasNext() && (this.statCache.size() > this.statementCacheSize)) {
+			Map.Entry<String, CachedStatement> eldest = iter.next();
+
+			// The statement being returned stays
+			if (eldest.getKey().equals(currentName)) {
+				break;
+			}
+
+			// Statements with pending batches stay until executeBatch
+			BatchWriter writer = this.batchWriters.get(eldest.getKey());
+			if ((writer != null) && (writer.getPendingRows() > 0)) {
+				continue;
+			}
+			iter.remove();
+
+			this.batchWriters.remove(eldest.getKey());
+			this.batchRecords.remove(eldest.getKey());
+
+			eldest.getValue().stats.evictCount++;
+			eldest.getValue().stat.close();
+		}
+	}
+
+	protected void assignKeys(List<Record> records, List<Object> keys, String autoKeyName) {
+		try {
+			// No keys after executeBatch: skip the attempt from now on
+			if (keys.isEmpty() && !records.isEmpty()) {
+				this.batchKeysSupported = false;
+			}
+
+			// Drivers returning fewer keys than rows: positions are unknown
+			if (keys.size() == records.size()) {
+				for (int i = 0; i < keys.size(); i++) {
+					records.get(i).set(autoKeyName, keys.get(i));
+				}
+			}
+		} finally {
+			records.clear();
+		}
+	}
+
+	protected boolean isBatchKeysSupported() throws SQLException {
+		if (this.batchKeysSupported == null) {
+			this.batchKeysSupported = this.conn.getMetaData().supportsGetGeneratedKeys();
+		}
+		return this.batchKeysSupported;
+	}
+
 	protected void setParameter(StatementImpl stat, String parameterName, Object val, int sqlType) throws SQLException {
 		if (val == null) {
 			if (sqlType > 0) {
@@ -95,19 +313,17 @@ public class DbManager implements AutoCloseable {
 
 	protected Object insert(Record record, Table table, boolean addBatch) throws SQLException {
 		this.assertNotClosed();
+		this.tableWritten(table);
 
-		StatementImpl stat = this.tableStats.get(table.getInsertSql().getName());
-		if (stat == null) {
-			stat = new StatementImpl(this.conn, table.getInsertSql(), (table.getAutoKey() != null));
-
-			this.tableStats.put(table.getInsertSql().getName(), stat);
-		}
+		StatementImpl stat = this.getStatement(table, table.getInsertSql(), (table.getAutoKey() != null));
 
+		long boundBytes = 0;
 		for (Field field : table.getFields()) {
 			if (!field.isAutoKey()) {
 
 				Object val = record.get(field.getName());
 				setParameter(stat, field.getName(), val, field.getSqlType());
+				boundBytes += BatchWriter.estimateSize(val);
 			}
 		}
 
@@ -129,7 +345,72 @@ public class DbManager implements AutoCloseable {
 		} else {
 			assertNotAutoCommit();
 
-			stat.addBatch();
+			if ((table.getAutoKey() != null) && isBatchKeysSupported()) {
+				addBatch(table.getInsertSql(), stat, boundBytes, record, table.getAutoKey().getName());
+			} else {
+				addBatch(table.getInsertSql(), stat, boundBytes);
+			}
+		}
+		return rowAffected;
+	}
+
+	public int insertBulk(List<Record> records, Table table) throws SQLException {
+		this.assertNotClosed();
+		this.tableWritten(table);
+
+		int[] bulkSizes = table.getBulkInsertSizes();
+		int rowAffected = 0;
+		int offset = 0;
+
+		// Pack records into the largest bulk size that fits
+		for (int i = bulkSizes.length - 1; i >= 0; i--) {
+			while (records.size() - offset >= bulkSizes[i]) {
+
+				rowAffected += insertBulk(records, offset, bulkSizes[i], table);
+				offset += bulkSizes[i];
+			}
+		}
+
+		for (; offset < records.size(); offset++) {
+			this.insert(records.get(offset), table, false);
+			rowAffected++;
+		}
+		return rowAffected;
+	}
+
+	protected int insertBulk(List<Record> records, int offset, int rows, Table table) throws SQLException {
+		Sql bulkSql = table.getBulkInsertSql(rows);
+
+		StatementImpl stat = this.getStatement(table, bulkSql, (table.getAutoKey() != null));
+
+		for (int row = 0; row < rows; row++) {
+			Record record = records.get(offset + row);
+
+			for (Field field : table.getFields()) {
+				if (!field.isAutoKey()) {
+
+					Object val = record.get(field.getName());
+					setParameter(stat, Sql.toParamName(field.getName(), row), val, field.getSqlType());
+				}
+			}
+		}
+
+		int rowAffected = stat.executeUpdate();
+
+		if (table.getAutoKey() != null) {
+			List<Object> keys = new ArrayList<>(rows);
+			try (ResultSet rs = stat.getGeneratedKeys()) {
+				while (rs.next()) {
+					keys.add(rs.getObject(1));
+				}
+			}
+
+			// Generated keys are returned in VALUES order; some drivers return only the last one
+			if (keys.size() == rows) {
+				for (int row = 0; row < rows; row++) {
+					records.get(offset + row).set(table.getAutoKey().getName(), keys.get(row));
+				}
+			}
 		}
 		return rowAffected;
 	}
@@ -144,19 +425,17 @@ public class DbManager implements AutoCloseable {
 
 	protected int update(Record record, Table table, boolean addBatch) throws SQLException {
 		this.assertNotClosed();
+		this.tableWritten(table);
 
-		StatementImpl stat = this.tableStats.get(table.getUpdateSql().getName());
-		if (stat == null) {
-			stat = new StatementImpl(this.conn, table.getUpdateSql());
-
-			this.tableStats.put(table.getUpdateSql().getName(), stat);
-		}
+		StatementImpl stat = this.getStatement(table, table.getUpdateSql(), false);
 
+		long boundBytes = 0;
 		for (Field field : table.getFields()) {
 			if (field.isKey() || field.isUpdatable()) {
 
 				Object val = record.get(field.getName());
 				setParameter(stat, field.getName(), val, field.getSqlType());
+				boundBytes += BatchWriter.estimateSize(val);
 			}
 		}
 		int rowAffected = -1;
@@ -166,7 +445,41 @@ public class DbManager implements AutoCloseable {
 		} else {
 			assertNotAutoCommit();
 
-			stat.addBatch();
+			addBatch(table.getUpdateSql(), stat, boundBytes);
+		}
+		return rowAffected;
+	}
+
+	public int upsert(Record record, Table table) throws SQLException {
+		return this.upsert(record, table, false);
+	}
+
+	public void upsertBatch(Record record, Table table) throws SQLException {
+		this.upsert(record, table, true);
+	}
+
+	protected int upsert(Record record, Table table, boolean addBatch) throws SQLException {
+		this.assertNotClosed();
+		this.tableWritten(table);
+
+		Sql upsertSql = table.getUpsertSql(getUpsertType());
+		StatementImpl stat = this.getStatement(table, upsertSql, false);
+
+		long boundBytes = 0;
+		for (Field field : table.getFields()) {
+
+			Object val = record.get(field.getName());
+			setParameter(stat, field.getName(), val, field.getSqlType());
+			boundBytes += BatchWriter.estimateSize(val);
+		}
+		int rowAffected = -1;
+
+		if (!addBatch) {
+			rowAffected = stat.executeUpdate();
+		} else {
+			assertNotAutoCommit();
+
+			addBatch(upsertSql, stat, boundBytes);
 		}
 		return rowAffected;
 	}
@@ -181,19 +494,17 @@ public class DbManager implements AutoCloseable {
 
 	protected int delete(Record key, Table table, boolean addBatch) throws SQLException {
 		this.assertNotClosed();
+		this.tableWritten(table);
 
-		StatementImpl stat = this.tableStats.get(table.getDeleteSql().getName());
-		if (stat == null) {
-			stat = new StatementImpl(this.conn, table.getDeleteSql());
-
-			this.tableStats.put(table.getDeleteSql().getName(), stat);
-		}
+		StatementImpl stat = this.getStatement(table, table.getDeleteSql(), false);
 
+		long boundBytes = 0;
 		for (Field field : table.getFields()) {
 			if (field.isKey()) {
 
 				Object val = key.get(field.getName());
 				setParameter(stat, field.getName(), val, field.getSqlType());
+				boundBytes += BatchWriter.estimateSize(val);
 			}
 		}
 		int rowAffected = -1;
@@ -203,7 +514,7 @@ public class DbManager implements AutoCloseable {
 		} else {
 			assertNotAutoCommit();
 
-			stat.addBatch();
+			addBatch(table.getDeleteSql(), stat, boundBytes);
 		}
 		return rowAffected;
 	}
@@ -211,12 +522,7 @@ public class DbManager implements AutoCloseable {
 	public Record getRecord(Record key, Table table) throws SQLException {
 		this.assertNotClosed();
 
-		StatementImpl stat = this.tableStats.get(table.getGetSql().getName());
-		if (stat == null) {
-			stat = new StatementImpl(this.conn, table.getGetSql());
-
-			this.tableStats.put(table.getGetSql().getName(), stat);
-		}
+		StatementImpl stat = this.getStatement(table, table.getGetSql(), false);
 
 		for (Field field : table.getFields()) {
 			if (field.isKey()) {
@@ -226,21 +532,111 @@ public class DbManager implements AutoCloseable {
 			}
 		}
 		try (ResultSetImpl rs = stat.executeQuery()) {
-
-			final String[] columnLabels = JdbcUtils.getColumnLabels(rs);
-			return JdbcUtils.executeSingle(rs, r -> RecordUtils.toRecord(r, columnLabels));
+			return JdbcUtils.executeSingle(rs, RecordUtils::toRecord);
 		}
 	}
 
-	public boolean exists(Record key, Table table) throws SQLException {
+	public Map<Record, Record> getRecords(Collection<Record> keys, Table table) throws SQLException {
 		this.assertNotClosed();
 
-		StatementImpl stat = this.tableStats.get(table.getExistsSql().getName());
-		if (stat == null) {
-			stat = new StatementImpl(this.conn, table.getExistsSql());
+		Map<Record, Record> result = new LinkedHashMap<>();
+		executeManyKeys(keys, table, false, (key, record) -> result.put(key, record));
+		return result;
+	}
+
+	public Map<Record, Boolean> existsAll(Collection<Record> keys, Table table) throws SQLException {
+		this.assertNotClosed();
 
-			this.tableStats.put(table.getExistsSql().getName(), stat);
+		Map<Record, Boolean> result = new LinkedHashMap<>();
+		for (Record key : keys) {
+			result.put(key, Boolean.FALSE);
 		}
+		executeManyKeys(keys, table, true, (key, record) -> result.put(key, Boolean.TRUE));
+		return result;
+	}
+
+	protected void executeManyKeys(Collection<Record> keys, Table table, boolean existsOnly, BiConsumer<Record, Record> handler) throws SQLException {
+		List<Field> keyFields = new ArrayList<>();
+		for (Field field : table.getFields()) {
+			if (field.isKey()) {
+				keyFields.add(field);
+			}
+		}
+
+		// Input keys by normalized key values
+		Map<List<Object>, List<Record>> keyMap = new HashMap<>();
+		for (Record key : keys) {
+			keyMap.computeIfAbsent(toKeyValues(key, keyFields), k -> new ArrayList<>(1)).add(key);
+		}
+
+		int chunkSize = Math.max(1, Math.min(this.keysChunkSize, Table.MAX_BULK_INSERT_PARAMS / keyFields.size()));
+		List<List<Object>> keyValues = new ArrayList<>(keyMap.keySet());
+
+		for (int offset = 0; offset < keyValues.size(); offset += chunkSize) {
+			int count = Math.min(chunkSize, keyValues.size() - offset);
+
+			// Pad to a bucket size by repeating the last key
+			int bucketSize = Sql.toBucketSize(count, chunkSize);
+			Sql sql = existsOnly ? table.getExistsManySql(bucketSize) : table.getGetManySql(bucketSize);
+
+			StatementImpl stat = this.getStatement(table, sql, false);
+
+			for (int i = 0; i < bucketSize; i++) {
+				List<Object> values = keyValues.get(offset + Math.min(i, count - 1));
+
+				for (int k = 0; k < keyFields.size(); k++) {
+					Field field = keyFields.get(k);
+					setParameter(stat, Sql.toParamName(field.getName(), i), values.get(k), field.getSqlType());
+				}
+			}
+
+			try (ResultSetImpl rs = stat.executeQuery()) {
+				final RecordSchema schema = new RecordSchema(rs.getColumnLabels());
+
+				while (rs.next()) {
+					Record record = RecordUtils.toRecord(rs, schema);
+					List<Record> matched = keyMap.get(toKeyValues(record, keyFields));
+
+					if (matched != null) {
+						for (Record key : matched) {
+							handler.accept(key, record);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	static List<Object> toKeyValues(Record key, List<Field> keyFields) {
+		List<Object> values = new ArrayList<>(keyFields.size());
+		for (Field field : keyFields) {
+			values.add(normalizeKeyValue(key.get(field.getName())));
+		}
+		return values;
+	}
+
+	static Object normalizeKeyValue(Object value) {
+		if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+			return ((Number) value).longValue();
+		}
+		if (value instanceof BigDecimal) {
+			BigDecimal decimal = ((BigDecimal) value).stripTrailingZeros();
+			if (decimal.scale() > 0) {
+				return decimal;
+			}
+			value = decimal.toBigInteger();
+		}
+		if (value instanceof BigInteger) {
+			BigInteger integer = (BigInteger) value;
+			return (integer.bitLength() < 64) ? (Object) integer.longValue() : integer;
+		}
+		return value;
+	}
+
+	public boolean exists(Record key, Table table) throws SQLException {
+		this.assertNotClosed();
+
+		StatementImpl stat = this.getStatement(table, table.getExistsSql(), false);
 
 		for (Field field : table.getFields()) {
 			if (field.isKey()) {
@@ -265,9 +661,8 @@ public class DbManager implements AutoCloseable {
 
 		try (Statement stat = this.conn.createStatement()) {
 			try (ResultSetImpl rs = new ResultSetImpl(stat.executeQuery(sql))) {
-
-				final String[] columnLabels = JdbcUtils.getColumnLabels(rs);
-				return JdbcUtils.executeList(rs, r -> RecordUtils.toRecord(r, columnLabels), new ArrayList<>());
+				final RecordSchema schema = new RecordSchema(rs.getColumnLabels());
+				return JdbcUtils.executeList(rs, r -> RecordUtils.toRecord(r, schema), new ArrayList<>());
 			}
 		}
 	}
@@ -275,13 +670,12 @@ public class DbManager implements AutoCloseable {
 	public <T> List<Record> executeList(String pSql, Map<String, Object> params) throws SQLException {
 		this.assertNotClosed();
 
-		try (StatementImpl stat = new StatementImpl(this.conn, new Sql(pSql))) {
+		try (StatementImpl stat = new StatementImpl(this.conn, Sql.of(pSql))) {
 			setParameters(stat, params);
 
 			try (ResultSetImpl rs = stat.executeQuery()) {
-
-				final String[] columnLabels = JdbcUtils.getColumnLabels(rs);
-				return JdbcUtils.executeList(rs, r -> RecordUtils.toRecord(r, columnLabels), new ArrayList<>());
+				final RecordSchema schema = new RecordSchema(rs.getColumnLabels());
+				return JdbcUtils.executeList(rs, r -> RecordUtils.toRecord(r, schema), new ArrayList<>());
 			}
 		}
 	}
@@ -289,21 +683,13 @@ public class DbManager implements AutoCloseable {
 	public Record executeSingle(String sql) throws SQLException {
 		this.assertNotClosed();
 
-		return executeSingle(sql, rs -> {
-
-			final String[] columnLabels = JdbcUtils.getColumnLabels(rs);
-			return RecordUtils.toRecord(rs, columnLabels);
-		});
+		return executeSingle(sql, RecordUtils::toRecord);
 	}
 
 	public Record executeSingle(String pSql, Map<String, Object> params) throws SQLException {
 		this.assertNotClosed();
 
-		return executeSingle(pSql, params, rs -> {
-
-			final String[] columnLabels = JdbcUtils.getColumnLabels(rs);
-			return RecordUtils.toRecord(rs, columnLabels);
-		});
+		return executeSingle(pSql, params, RecordUtils::toRecord);
 	}
 
 	// Utility methods
@@ -319,7 +705,7 @@ public class DbManager implements AutoCloseable {
 	public int executeUpdate(String pSql, Map<String, Object> params) throws SQLException {
 		this.assertNotClosed();
 
-		try (StatementImpl stat = new StatementImpl(this.conn, new Sql(pSql))) {
+		try (StatementImpl stat = new StatementImpl(this.conn, Sql.of(pSql))) {
 			setParameters(stat, params);
 
 			return stat.executeUpdate();
@@ -350,7 +736,7 @@ public class DbManager implements AutoCloseable {
 			throws SQLException {
 		this.assertNotClosed();
 
-		try (StatementImpl stat = new StatementImpl(this.conn, new Sql(pSql))) {
+		try (StatementImpl stat = new StatementImpl(this.conn, Sql.of(pSql))) {
 			setParameters(stat, params);
 
 			try (ResultSetImpl rs = stat.executeQuery()) {
@@ -381,7 +767,7 @@ public class DbManager implements AutoCloseable {
 	public <K, V> Map<K, V> executeMap(String pSql, Map<String, Object> params, String keyColumn, String valueColumn, Map<K, V> map) throws SQLException {
 		this.assertNotClosed();
 
-		try (StatementImpl stat = new StatementImpl(this.conn, new Sql(pSql))) {
+		try (StatementImpl stat = new StatementImpl(this.conn, Sql.of(pSql))) {
 			setParameters(stat, params);
 
 			try (ResultSetImpl rs = stat.executeQuery()) {
@@ -412,7 +798,7 @@ public class DbManager implements AutoCloseable {
 	public <T> List<T> executeList(String pSql, Map<String, Object> params, ResultSetMapper<T> mapper, List<T> list) throws SQLException {
 		this.assertNotClosed();
 
-		try (StatementImpl stat = new StatementImpl(this.conn, new Sql(pSql))) {
+		try (StatementImpl stat = new StatementImpl(this.conn, Sql.of(pSql))) {
 			setParameters(stat, params);
 
 			try (ResultSetImpl rs = stat.executeQuery()) {
@@ -435,7 +821,7 @@ public class DbManager implements AutoCloseable {
 	public <T> T executeSingle(String pSql, Map<String, Object> params, ResultSetMapper<T> mapper) throws SQLException {
 		this.assertNotClosed();
 
-		try (StatementImpl stat = new StatementImpl(this.conn, new Sql(pSql))) {
+		try (StatementImpl stat = new StatementImpl(this.conn, Sql.of(pSql))) {
 			setParameters(stat, params);
 
 			try (ResultSetImpl rs = stat.executeQuery()) {
@@ -468,7 +854,7 @@ public class DbManager implements AutoCloseable {
 	public void executeQuery(String pSql, Map<String, Object> params, ResultSetHandler handler) throws Exception {
 		this.assertNotClosed();
 
-		try (StatementImpl stat = new StatementImpl(this.conn, new Sql(pSql))) {
+		try (StatementImpl stat = new StatementImpl(this.conn, Sql.of(pSql))) {
 			setParameters(stat, params);
 
 			try (ResultSetImpl rs = stat.executeQuery()) {
@@ -484,8 +870,28 @@ public class DbManager implements AutoCloseable {
 		this.assertNotClosed();
 		assertNotAutoCommit();
 
-		for (StatementImpl stat : this.tableStats.values()) {
-			stat.executeBatch();
+		try {
+			for (BatchWriter writer : this.batchWriters.values()) {
+				writer.flush();
+			}
+		} finally {
+			this.pendingRows = 0;
+			this.pendingBytes = 0;
+
+			// Records of a failed batch get no keys
+			for (List<Record> records : this.batchRecords.values()) {
+				records.clear();
+			}
+		}
+
+		// Statements kept for pending batches
+		if (this.statCache.size() > this.statementCacheSize) {
+			this.evictStatements(null);
+		}
+
+		// commit() also invalidates the tables written so far
+		if (this.commitEvery > 0 && ++this.uncommittedBatches >= this.commitEvery) {
+			this.commit();
 		}
 	}
 
@@ -504,6 +910,10 @@ public class DbManager implements AutoCloseable {
 		assertNotAutoCommit();
 
 		this.conn.commit();
+		this.uncommittedBatches = 0;
+
+		// Entries cached while the transaction was open may hold pre-commit data
+		invalidateWrittenTables();
 	}
 
 	public void rollback() throws SQLException {
@@ -511,6 +921,21 @@ public class DbManager implements AutoCloseable {
 		assertNotAutoCommit();
 
 		this.conn.rollback();
+		this.uncommittedBatches = 0;
+
+		invalidateWrittenTables();
+	}
+
+	protected void tableWritten(Table table) {
+		ConnectionImpl.invalidateCache(table.getName());
+		this.writtenTables.add(table.getName());
+	}
+
+	protected void invalidateWrittenTables() {
+		for (String tableName : this.writtenTables) {
+			ConnectionImpl.invalidateCache(tableName);
+		}
+		this.writtenTables.clear();
 	}
 
 	protected void assertNotAutoCommit() throws SQLException {
@@ -528,10 +953,20 @@ public class DbManager implements AutoCloseable {
 	private boolean closed = false;
 
 	private void closeStatements() throws SQLException {
-		List<StatementImpl> stats = new ArrayList<>(this.tableStats.values());
+		// Unexecuted rows must not reach the next borrower of a pooled statement
+		for (BatchWriter writer : this.batchWriters.values()) {
+			if (writer.getPendingRows() > 0) {
+				writer.getStatement().clearBatch();
+			}
+		}
+		this.batchWriters.clear();
+		this.batchRecords.clear();
+
+		List<CachedStatement> stats = new ArrayList<>(this.statCache.values());
+		this.statCache.clear();
 
 		for (int i = stats.size() - 1; i >= 0; i--) {
-			stats.get(i).close();
+			stats.get(i).stat.close();
 		}
 	}
 
@@ -540,15 +975,52 @@ public class DbManager implements AutoCloseable {
 		if (!this.closed) {
 			closeStatements();
 
-			if (!this.conn.getAutoCommit()) {
-				this.conn.setAutoCommit(true);
+			// Borrowed connection: the owner restores and closes it
+			if (this.closeConnection) {
+				if (!this.conn.getAutoCommit()) {
+					this.conn.setAutoCommit(true);
+				}
+				this.conn.close();
 			}
-
-			this.conn.close();
 			this.closed = true;
 		}
 	}
 
+	static class CachedStatement {
+
+		final StatementImpl stat;
+		final StatementStats stats;
+
+		CachedStatement(StatementImpl stat, StatementStats stats) {
+			this.stat = stat;
+			this.stats = stats;
+		}
+	}
+
+	public static class StatementStats {
+
+		long prepareCount;
+		long reuseCount;
+		long evictCount;
+
+		public long getPrepareCount() {
+			return this.prepareCount;
+		}
+
+		public long getReuseCount() {
+			return this.reuseCount;
+		}
+
+		public long getEvictCount() {
+			return this.evictCount;
+		}
+
+		@Override
+		public String toString() {
+			return "prepareCount=" + this.prepareCount + ", reuseCount=" + this.reuseCount + ", evictCount=" + this.evictCount;
+		}
+	}
+
 	private static final ThreadLocalStorage<DataSource> DS_HOLDER = new ThreadLocalStorage<>();
 
 	public static DataSource getDataSource() throws IllegalStateException {
@@ -30,6 +30,17 @@ public interface FieldValidator {
 
 	FieldError validate(Object value, Object constraintArgs);
 
+	// Resolves constraintArgs once; the result is reused for every value
+	default Compiled compile(Object constraintArgs) {
+		return value -> validate(value, constraintArgs);
+	}
+
+	@FunctionalInterface
+	public interface Compiled {
+
+		FieldError validate(Object value);
+	}
+
 	public static class FieldError {
 
 		final String errorMsgKey;
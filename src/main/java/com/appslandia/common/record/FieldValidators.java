@@ -25,9 +25,16 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
 
-import com.appslandia.common.base.ToStringBuilder;
 import com.appslandia.common.record.FieldValidator.FieldError;
+import com.appslandia.common.record.ValidationPlan.RecordError;
 
 /**
  *
@@ -36,7 +43,11 @@ import com.appslandia.common.record.FieldValidator.FieldError;
  */
 public class FieldValidators {
 
+	public static final int PARALLEL_THRESHOLD = 1024;
+
 	final Map<String, FieldValidator> validators = new HashMap<>();
+	final ConcurrentMap<Table, ValidationPlan> recordPlans = new ConcurrentHashMap<>();
+	final ConcurrentMap<Table, ValidationPlan> keyPlans = new ConcurrentHashMap<>();
 
 	public FieldValidators() {
 		initialize();
@@ -63,6 +74,10 @@ public class FieldValidators {
 
 	public void putValidator(String name, FieldValidator validator) {
 		this.validators.put(name, validator);
+
+		// Plans hold resolved validators
+		this.recordPlans.clear();
+		this.keyPlans.clear();
 	}
 
 	public void validateField(Field field, Object value, List<FieldError> errors) {
@@ -75,53 +90,77 @@ public class FieldValidators {
 		}
 	}
 
-	public void validateRecord(Record record, Table table, Callback callback) {
-		List<FieldError> errors = new ArrayList<>(2);
-		for (Field field : table.getFields()) {
-			validateField(field, record.get(field.getName()), errors);
-
-			if (!errors.isEmpty()) {
-				callback.onError(field.getName(), errors);
-			}
+	public ValidationPlan getRecordPlan(Table table) {
+		ValidationPlan plan = this.recordPlans.get(table);
+		if (plan == null) {
+			plan = this.recordPlans.computeIfAbsent(table, t -> new ValidationPlan(t, this, false));
 		}
+		return plan;
 	}
 
-	public void validateKey(Record key, Table table, Callback callback) {
-		List<FieldError> errors = new ArrayList<>(2);
-		for (Field field : table.getFields()) {
+	public ValidationPlan getKeyPlan(Table table) {
+		ValidationPlan plan = this.keyPlans.get(table);
+		if (plan == null) {
+			plan = this.keyPlans.computeIfAbsent(table, t -> new ValidationPlan(t, this, true));
+		}
+		return plan;
+	}
 
-			if (field.isKey()) {
-				validateField(field, key.get(field.getName()), errors);
+	public void validateRecord(Record record, Table table, Callback callback) {
+		getRecordPlan(table).validate(record, callback);
+	}
 
-				if (!errors.isEmpty()) {
-					callback.onError(field.getName(), errors);
-				}
-			}
-		}
+	public void validateKey(Record key, Table table, Callback callback) {
+		getKeyPlan(table).validate(key, callback);
 	}
 
 	public void validateRecord(Record record, Table table) throws ValidatorException {
-		List<FieldError> errors = new ArrayList<>(2);
-		for (Field field : table.getFields()) {
-			validateField(field, record.get(field.getName()), errors);
-
-			if (!errors.isEmpty()) {
-				throw new ValidatorException("field=" + field.getName() + ", errors=" + new ToStringBuilder(3).toString(errors));
-			}
-		}
+		getRecordPlan(table).validate(record);
 	}
 
 	public void validateKey(Record key, Table table) throws ValidatorException {
-		List<FieldError> errors = new ArrayList<>(2);
-		for (Field field : table.getFields()) {
-			if (field.isKey()) {
-				validateField(field, key.get(field.getName()), errors);
+		getKeyPlan(table).validate(key);
+	}
 
-				if (!errors.isEmpty()) {
-					throw new ValidatorException("field=" + field.getName() + ", errors=" + new ToStringBuilder(3).toString(errors));
+	// failFast: throws on the lowest failing index found; otherwise returns all errors in index order
+	public List<RecordError> validateAll(List<? extends Record> records, Table table, boolean failFast) throws ValidatorException {
+		final ValidationPlan plan = getRecordPlan(table);
+		final List<? extends Record> list = (records instanceof RandomAccess) ? records : new ArrayList<>(records);
+
+		List<RecordError> errors;
+		if (list.size() < PARALLEL_THRESHOLD) {
+			errors = new ArrayList<>();
+			for (int i = 0; i < list.size(); i++) {
+				RecordError error = plan.check(i, list.get(i), failFast);
+				if (error != null) {
+					errors.add(error);
+					if (failFast) {
+						break;
+					}
 				}
 			}
+		} else {
+			final Queue<RecordError> found = new ConcurrentLinkedQueue<>();
+			final AtomicBoolean failed = new AtomicBoolean();
+
+			IntStream.range(0, list.size()).parallel().forEach(i -> {
+				if (failFast && failed.get()) {
+					return;
+				}
+				RecordError error = plan.check(i, list.get(i), failFast);
+				if (error != null) {
+					found.add(error);
+					failed.set(true);
+				}
+			});
+			errors = new ArrayList<>(found);
+			errors.sort((e1, e2) -> Integer.compare(e1.getIndex(), e2.getIndex()));
+		}
+
+		if (failFast && !errors.isEmpty()) {
+			throw new ValidatorException(errors.get(0).toString());
 		}
+		return errors;
 	}
 
 	public interface Callback {
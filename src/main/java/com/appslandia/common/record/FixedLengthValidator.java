@@ -43,4 +43,16 @@ public class FixedLengthValidator implements FieldValidator {
 
 		return null;
 	}
+
+	@Override
+	public Compiled compile(Object constraintArgs) {
+		final int fixedLength = (Integer) constraintArgs;
+
+		return value -> {
+			if ((value != null) && (((String) value).length() != fixedLength)) {
+				return new FieldError(ERROR_MSG_KEY, constraintArgs);
+			}
+			return null;
+		};
+	}
 }
@@ -43,4 +43,16 @@ public class MaxLengthValidator implements FieldValidator {
 
 		return null;
 	}
+
+	@Override
+	public Compiled compile(Object constraintArgs) {
+		final int maxLength = (Integer) constraintArgs;
+
+		return value -> {
+			if ((value != null) && (((String) value).length() > maxLength)) {
+				return new FieldError(ERROR_MSG_KEY, constraintArgs);
+			}
+			return null;
+		};
+	}
 }
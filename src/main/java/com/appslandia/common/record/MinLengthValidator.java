@@ -43,4 +43,16 @@ public class MinLengthValidator implements FieldValidator {
 
 		return null;
 	}
+
+	@Override
+	public Compiled compile(Object constraintArgs) {
+		final int minLength = (Integer) constraintArgs;
+
+		return value -> {
+			if ((value != null) && (((String) value).length() < minLength)) {
+				return new FieldError(ERROR_MSG_KEY, constraintArgs);
+			}
+			return null;
+		};
+	}
 }
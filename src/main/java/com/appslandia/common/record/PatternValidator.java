@@ -52,4 +52,16 @@ public class PatternValidator implements FieldValidator {
 	private static Pattern getPattern(final String pattern) {
 		return PATTERNS.computeIfAbsent(pattern, p -> Pattern.compile(pattern, Pattern.CASE_INSENSITIVE));
 	}
+
+	@Override
+	public Compiled compile(Object constraintArgs) {
+		final Pattern pattern = getPattern((String) constraintArgs);
+
+		return value -> {
+			if ((value == null) || pattern.matcher((String) value).matches()) {
+				return null;
+			}
+			return new FieldError(ERROR_MSG_KEY, constraintArgs);
+		};
+	}
 }
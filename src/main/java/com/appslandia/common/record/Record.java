@@ -51,11 +51,11 @@ public class Record extends CaseInsensitiveMap<Object> {
 	}
 
 	public <T> T get(String name) {
-		return ObjectUtils.cast(super.get(name));
+		return ObjectUtils.cast(this.get((Object) name));
 	}
 
 	public int getInt(String name) throws IllegalStateException {
-		Integer val = (Integer) super.get(name);
+		Integer val = (Integer) this.get((Object) name);
 		AssertUtils.assertStateNotNull(val);
 		return val;
 	}
@@ -63,7 +63,7 @@ public class Record extends CaseInsensitiveMap<Object> {
 	public List<Object> toValues(String[] columnLabels) {
 		List<Object> values = new ArrayList<>(columnLabels.length);
 		for (String label : columnLabels) {
-			values.add(super.get(label));
+			values.add(this.get((Object) label));
 		}
 		return values;
 	}
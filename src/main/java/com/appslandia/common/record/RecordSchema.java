@@ -0,0 +1,95 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.record;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import com.appslandia.common.utils.AssertUtils;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class RecordSchema implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	final String[] names;
+	final String[] keys;
+	final Map<String, Integer> slots;
+
+	public RecordSchema(String... names) {
+		AssertUtils.assertNotNull(names);
+
+		this.names = names.clone();
+		this.keys = new String[names.length];
+		this.slots = new HashMap<>(names.length * 4);
+
+		// Last name wins on duplicates, as with Record.set
+		for (int slot = 0; slot < names.length; slot++) {
+			AssertUtils.assertNotNull(names[slot], "name is required.");
+
+			this.keys[slot] = names[slot].toLowerCase(Locale.ENGLISH);
+			this.slots.put(this.keys[slot], slot);
+		}
+		for (int slot = 0; slot < names.length; slot++) {
+			this.slots.put(names[slot], this.slots.get(this.keys[slot]));
+		}
+	}
+
+	public int indexOf(String name) {
+		if (name == null) {
+			return -1;
+		}
+		Integer slot = this.slots.get(name);
+		if (slot != null) {
+			return slot;
+		}
+
+		// Mixed-case names: compare without allocating
+		for (int i = this.names.length - 1; i >= 0; i--) {
+			if (this.names[i].equalsIgnoreCase(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	boolean isShadowed(int slot) {
+		return this.slots.get(this.keys[slot]) != slot;
+	}
+
+	public int size() {
+		return this.names.length;
+	}
+
+	public String getName(int slot) {
+		return this.names[slot];
+	}
+
+	public SchemaRecord newRecord() {
+		return new SchemaRecord(this);
+	}
+}
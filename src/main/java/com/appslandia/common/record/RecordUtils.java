@@ -23,6 +23,8 @@ package com.appslandia.common.record;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
+import com.appslandia.common.jdbc.ResultSetImpl;
+
 /**
  *
  * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
@@ -30,6 +32,18 @@ import java.sql.SQLException;
  */
 public final class RecordUtils {
 
+	public static Record toRecord(ResultSetImpl rs) throws SQLException {
+		return toRecord(rs, new RecordSchema(rs.getColumnLabels()));
+	}
+
+	public static Record toRecord(ResultSetImpl rs, RecordSchema schema) throws SQLException {
+		Object[] values = new Object[schema.size()];
+		for (int col = 1; col <= values.length; col++) {
+			values[col - 1] = rs.getObject(col);
+		}
+		return new SchemaRecord(schema, values);
+	}
+
 	public static Record toRecord(ResultSet rs, String[] columnLabels) throws SQLException {
 		Record record = new Record();
 		for (int col = 1; col <= columnLabels.length; col++) {
@@ -36,4 +36,10 @@ public class RequiredValidator implements FieldValidator {
 		}
 		return null;
 	}
+
+	@Override
+	public Compiled compile(Object constraintArgs) {
+		final FieldError error = new FieldError(ERROR_MSG_KEY, constraintArgs);
+		return value -> (value == null) ? error : null;
+	}
 }
@@ -0,0 +1,258 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.record;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.appslandia.common.utils.AssertUtils;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class SchemaRecord extends Record {
+	private static final long serialVersionUID = 1L;
+
+	// Enum constants keep their identity across serialization
+	enum Unset {
+		INSTANCE
+	}
+
+	static final Object UNSET = Unset.INSTANCE;
+
+	final SlotMap slotMap;
+
+	public SchemaRecord(RecordSchema schema) {
+		this(new SlotMap(schema, newValues(schema.size())));
+	}
+
+	SchemaRecord(RecordSchema schema, Object[] values) {
+		this(new SlotMap(schema, values));
+	}
+
+	private SchemaRecord(SlotMap slotMap) {
+		super(slotMap);
+		this.slotMap = slotMap;
+	}
+
+	static Object[] newValues(int size) {
+		Object[] values = new Object[size];
+		Arrays.fill(values, UNSET);
+		return values;
+	}
+
+	public RecordSchema getSchema() {
+		return this.slotMap.schema;
+	}
+
+	Object getValue(int slot) {
+		Object value = this.slotMap.values[slot];
+		return (value != UNSET) ? value : null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return this.slotMap.containsKey(key);
+	}
+
+	@Override
+	public Object get(Object key) {
+		return this.slotMap.get(key);
+	}
+
+	@Override
+	public Object put(String key, Object value) {
+		return this.slotMap.put(key, value);
+	}
+
+	@Override
+	public Object remove(Object key) {
+		return this.slotMap.remove(key);
+	}
+
+	static class SlotMap extends AbstractMap<String, Object> implements java.io.Serializable {
+		private static final long serialVersionUID = 1L;
+
+		final RecordSchema schema;
+		final Object[] values;
+
+		// Names outside the schema
+		Map<String, Object> extras;
+
+		SlotMap(RecordSchema schema, Object[] values) {
+			this.schema = AssertUtils.assertNotNull(schema);
+			this.values = values;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			int slot = this.schema.indexOf((String) key);
+			if (slot >= 0) {
+				return this.values[slot] != UNSET;
+			}
+			return (this.extras != null) && this.extras.containsKey(toLowerCase(key));
+		}
+
+		@Override
+		public Object get(Object key) {
+			int slot = this.schema.indexOf((String) key);
+			if (slot >= 0) {
+				Object value = this.values[slot];
+				return (value != UNSET) ? value : null;
+			}
+			return (this.extras != null) ? this.extras.get(toLowerCase(key)) : null;
+		}
+
+		@Override
+		public Object put(String key, Object value) {
+			int slot = this.schema.indexOf(key);
+			if (slot >= 0) {
+				Object old = this.values[slot];
+				this.values[slot] = value;
+				return (old != UNSET) ? old : null;
+			}
+			if (this.extras == null) {
+				this.extras = new LinkedHashMap<>();
+			}
+			return this.extras.put(toLowerCase(key), value);
+		}
+
+		@Override
+		public Object remove(Object key) {
+			int slot = this.schema.indexOf((String) key);
+			if (slot >= 0) {
+				Object old = this.values[slot];
+				this.values[slot] = UNSET;
+				return (old != UNSET) ? old : null;
+			}
+			return (this.extras != null) ? this.extras.remove(toLowerCase(key)) : null;
+		}
+
+		@Override
+		public void clear() {
+			Arrays.fill(this.values, UNSET);
+			this.extras = null;
+		}
+
+		@Override
+		public Set<Entry<String, Object>> entrySet() {
+			return new AbstractSet<Entry<String, Object>>() {
+
+				@Override
+				public Iterator<Entry<String, Object>> iterator() {
+					return new EntryIterator();
+				}
+
+				@Override
+				public int size() {
+					int size = (SlotMap.this.extras != null) ? SlotMap.this.extras.size() : 0;
+					for (int slot = 0; slot < SlotMap.this.values.length; slot++) {
+						if (isVisible(slot)) {
+							size++;
+						}
+					}
+					return size;
+				}
+			};
+		}
+
+		boolean isVisible(int slot) {
+			return (this.values[slot] != UNSET) && !this.schema.isShadowed(slot);
+		}
+
+		static String toLowerCase(Object key) {
+			return (key != null) ? ((String) key).toLowerCase(Locale.ENGLISH) : null;
+		}
+
+		class EntryIterator implements Iterator<Entry<String, Object>> {
+
+			int nextSlot = advance(0);
+			int lastSlot = -1;
+			Iterator<Entry<String, Object>> extrasIter;
+
+			int advance(int slot) {
+				while (slot < SlotMap.this.values.length && !isVisible(slot)) {
+					slot++;
+				}
+				return slot;
+			}
+
+			Iterator<Entry<String, Object>> extrasIter() {
+				if (this.extrasIter == null) {
+					this.extrasIter = (SlotMap.this.extras != null) ? SlotMap.this.extras.entrySet().iterator()
+							: java.util.Collections.emptyIterator();
+				}
+				return this.extrasIter;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return (this.nextSlot < SlotMap.this.values.length) || extrasIter().hasNext();
+			}
+
+			@Override
+			public Entry<String, Object> next() {
+				if (this.nextSlot < SlotMap.this.values.length) {
+					final int slot = this.lastSlot = this.nextSlot;
+					this.nextSlot = advance(slot + 1);
+
+					return new SimpleEntry<String, Object>(SlotMap.this.schema.keys[slot], SlotMap.this.values[slot]) {
+						private static final long serialVersionUID = 1L;
+
+						@Override
+						public Object setValue(Object value) {
+							SlotMap.this.values[slot] = value;
+							return super.setValue(value);
+						}
+					};
+				}
+				if (!extrasIter().hasNext()) {
+					throw new NoSuchElementException();
+				}
+				this.lastSlot = -1;
+				return this.extrasIter.next();
+			}
+
+			@Override
+			public void remove() {
+				if (this.lastSlot >= 0) {
+					SlotMap.this.values[this.lastSlot] = UNSET;
+					this.lastSlot = -1;
+					return;
+				}
+				if (this.extrasIter == null) {
+					throw new IllegalStateException();
+				}
+				this.extrasIter.remove();
+			}
+		}
+	}
+}
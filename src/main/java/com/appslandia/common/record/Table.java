@@ -22,7 +22,10 @@ package com.appslandia.common.record;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.appslandia.common.base.InitializeObject;
 import com.appslandia.common.base.TextBuilder;
@@ -37,6 +40,9 @@ import com.appslandia.common.utils.AssertUtils;
 public class Table extends InitializeObject implements Serializable {
 	private static final long serialVersionUID = 1L;
 
+	public static final int[] BULK_INSERT_SIZES = { 8, 64, 256 };
+	public static final int MAX_BULK_INSERT_PARAMS = 2000;
+
 	private String name;
 	private Field autoKey;
 	final List<Field> fields = new ArrayList<>();
@@ -48,6 +54,13 @@ public class Table extends InitializeObject implements Serializable {
 	private Sql getSql;
 	private Sql existsSql;
 
+	private int[] bulkInsertSizes;
+	private RecordSchema recordSchema;
+	final ConcurrentMap<Integer, Sql> bulkInsertSqls = new ConcurrentHashMap<>();
+	final ConcurrentMap<Integer, Sql> getManySqls = new ConcurrentHashMap<>();
+	final ConcurrentMap<Integer, Sql> existsManySqls = new ConcurrentHashMap<>();
+	final ConcurrentMap<UpsertType, Sql> upsertSqls = new ConcurrentHashMap<>();
+
 	public Table() {
 	}
 
@@ -90,6 +103,12 @@ public class Table extends InitializeObject implements Serializable {
 
 		this.getSql = new Sql().sql(this.buildGetSQL()).setName(this.name + ".getSql");
 		this.existsSql = new Sql().sql(this.buildExistsSQL()).setName(this.name + ".existsSql");
+
+		this.recordSchema = new RecordSchema(this.fields.stream().map(Field::getName).toArray(String[]::new));
+
+		// Bulk sizes within the driver parameter limit
+		int insertParams = (this.autoKey != null) ? this.fields.size() - 1 : this.fields.size();
+		this.bulkInsertSizes = Arrays.stream(BULK_INSERT_SIZES).filter(size -> size * insertParams <= MAX_BULK_INSERT_PARAMS).toArray();
 	}
 
 	protected String buildInsertSQL() {
@@ -127,6 +146,230 @@ public class Table extends InitializeObject implements Serializable {
 		return sb.toString();
 	}
 
+	protected String buildBulkInsertSQL(int rows) {
+		TextBuilder sb = new TextBuilder().append("INSERT INTO ").append(this.name);
+		sb.append(" ( ");
+
+		boolean isFirst = true;
+		for (Field field : this.fields) {
+			if (!field.isAutoKey()) {
+
+				if (isFirst) {
+					sb.append(field.getName());
+					isFirst = false;
+				} else {
+					sb.append(", ").append(field.getName());
+				}
+			}
+		}
+		sb.append(" )");
+		sb.append(" VALUES ");
+
+		for (int row = 0; row < rows; row++) {
+			if (row > 0) {
+				sb.append(", ");
+			}
+			sb.append("( ");
+
+			isFirst = true;
+			for (Field field : this.fields) {
+				if (!field.isAutoKey()) {
+
+					if (isFirst) {
+						sb.append(Sql.toParamName(field.getParamName(), row));
+						isFirst = false;
+					} else {
+						sb.append(",").append(Sql.toParamName(field.getParamName(), row));
+					}
+				}
+			}
+			sb.append(" )");
+		}
+		return sb.toString();
+	}
+
+	protected String buildUpsertSQL(UpsertType upsertType) {
+		switch (upsertType) {
+		case ON_CONFLICT:
+			return this.buildOnConflictUpsertSQL();
+		case ON_DUPLICATE_KEY:
+			return this.buildOnDuplicateKeyUpsertSQL();
+		default:
+			return this.buildMergeUpsertSQL(upsertType);
+		}
+	}
+
+	protected String buildMergeUpsertSQL(UpsertType upsertType) {
+		TextBuilder sb = new TextBuilder().append("MERGE INTO ").append(this.name).append(" t");
+
+		boolean isFirst = true;
+		if (upsertType == UpsertType.MERGE_ORACLE) {
+			// Oracle: no VALUES table constructor
+			sb.append(" USING ( SELECT ");
+
+			for (Field field : this.fields) {
+				if (isFirst) {
+					isFirst = false;
+				} else {
+					sb.append(", ");
+				}
+				sb.append(field.getParamName()).append(" ").append(field.getName());
+			}
+			sb.append(" FROM dual ) s");
+
+		} else {
+			sb.append(" USING ( VALUES ( ");
+
+			for (Field field : this.fields) {
+				if (isFirst) {
+					sb.append(field.getParamName());
+					isFirst = false;
+				} else {
+					sb.append(",").append(field.getParamName());
+				}
+			}
+			sb.append(" ) ) s ( ");
+			this.appendFieldNames(sb, null);
+			sb.append(" )");
+		}
+
+		sb.append(" ON ( ");
+		isFirst = true;
+		for (Field field : this.fields) {
+			if (field.isKey()) {
+
+				if (isFirst) {
+					isFirst = false;
+				} else {
+					sb.append(" AND ");
+				}
+				sb.append("t.").append(field.getName()).append("=s.").append(field.getName());
+			}
+		}
+		sb.append(" )");
+
+		// No updatable fields: insert only
+		if (this.hasUpdatableFields()) {
+			sb.append(" WHEN MATCHED THEN UPDATE SET ");
+
+			isFirst = true;
+			for (Field field : this.fields) {
+				if (field.isUpdatable()) {
+
+					if (isFirst) {
+						isFirst = false;
+					} else {
+						sb.append(", ");
+					}
+					sb.append(field.getName()).append("=s.").append(field.getName());
+				}
+			}
+		}
+		sb.append(" WHEN NOT MATCHED THEN INSERT ( ");
+		this.appendFieldNames(sb, null);
+		sb.append(" ) VALUES ( ");
+		this.appendFieldNames(sb, "s.");
+		sb.append(" )");
+
+		// SQL Server requires the terminator; others reject it through JDBC
+		if (upsertType == UpsertType.MERGE_SQL_SERVER) {
+			sb.append(";");
+		}
+		return sb.toString();
+	}
+
+	protected String buildOnConflictUpsertSQL() {
+		TextBuilder sb = new TextBuilder().append(this.buildInsertSQL());
+		sb.append(" ON CONFLICT ( ");
+
+		boolean isFirst = true;
+		for (Field field : this.fields) {
+			if (field.isKey()) {
+
+				if (isFirst) {
+					sb.append(field.getName());
+					isFirst = false;
+				} else {
+					sb.append(", ").append(field.getName());
+				}
+			}
+		}
+		sb.append(" )");
+
+		if (!this.hasUpdatableFields()) {
+			sb.append(" DO NOTHING");
+			return sb.toString();
+		}
+		sb.append(" DO UPDATE SET ");
+
+		isFirst = true;
+		for (Field field : this.fields) {
+			if (field.isUpdatable()) {
+
+				if (isFirst) {
+					isFirst = false;
+				} else {
+					sb.append(", ");
+				}
+				sb.append(field.getName()).append("=EXCLUDED.").append(field.getName());
+			}
+		}
+		return sb.toString();
+	}
+
+	protected String buildOnDuplicateKeyUpsertSQL() {
+		TextBuilder sb = new TextBuilder().append(this.buildInsertSQL());
+		sb.append(" ON DUPLICATE KEY UPDATE ");
+
+		boolean isFirst = true;
+		for (Field field : this.fields) {
+			if (field.isUpdatable()) {
+
+				if (isFirst) {
+					isFirst = false;
+				} else {
+					sb.append(", ");
+				}
+				sb.append(field.getName()).append("=VALUES(").append(field.getName()).append(")");
+			}
+		}
+
+		// No updatable fields: no-op assignment keeps the existing row
+		if (isFirst) {
+			for (Field field : this.fields) {
+				if (field.isKey()) {
+					sb.append(field.getName()).append("=").append(field.getName());
+					break;
+				}
+			}
+		}
+		return sb.toString();
+	}
+
+	protected void appendFieldNames(TextBuilder sqlBuilder, String prefix) {
+		boolean isFirst = true;
+		for (Field field : this.fields) {
+			if (isFirst) {
+				isFirst = false;
+			} else {
+				sqlBuilder.append(", ");
+			}
+			if (prefix != null) {
+				sqlBuilder.append(prefix);
+			}
+			sqlBuilder.append(field.getName());
+		}
+	}
+
+	protected boolean hasUpdatableFields() {
+		for (Field field : this.fields) {
+			if (field.isUpdatable()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	protected String buildUpdateSQL() {
 		TextBuilder sb = new TextBuilder().append("UPDATE ").append(this.name);
 		sb.append(" SET ");
@@ -173,6 +416,85 @@ public class Table extends InitializeObject implements Serializable {
 		return sb.toString();
 	}
 
+	protected String buildGetManySQL(int keys) {
+		TextBuilder sb = new TextBuilder().append("SELECT * FROM ").append(this.name);
+		sb.append(" WHERE ");
+
+		this.appendWhereManyKeysConditions(sb, keys);
+		return sb.toString();
+	}
+
+	protected String buildExistsManySQL(int keys) {
+		TextBuilder sb = new TextBuilder().append("SELECT ");
+
+		boolean isFirst = true;
+		for (Field field : this.fields) {
+			if (field.isKey()) {
+
+				if (isFirst) {
+					sb.append(field.getName());
+					isFirst = false;
+				} else {
+					sb.append(", ").append(field.getName());
+				}
+			}
+		}
+		sb.append(" FROM ").append(this.name);
+		sb.append(" WHERE ");
+
+		this.appendWhereManyKeysConditions(sb, keys);
+		return sb.toString();
+	}
+
+	protected void appendWhereManyKeysConditions(TextBuilder sqlBuilder, int keys) {
+		Field singleKey = null;
+		for (Field field : this.fields) {
+			if (field.isKey()) {
+				if (singleKey != null) {
+					singleKey = null;
+					break;
+				}
+				singleKey = field;
+			}
+		}
+
+		// Single key: key IN (...)
+		if (singleKey != null) {
+			sqlBuilder.append(singleKey.getName()).append(" IN (");
+
+			for (int i = 0; i < keys; i++) {
+				if (i > 0) {
+					sqlBuilder.append(",");
+				}
+				sqlBuilder.append(Sql.toParamName(singleKey.getParamName(), i));
+			}
+			sqlBuilder.append(")");
+			return;
+		}
+
+		// Composite keys: (k1=? AND k2=?) OR (...)
+		for (int i = 0; i < keys; i++) {
+			if (i > 0) {
+				sqlBuilder.append(" OR ");
+			}
+			sqlBuilder.append("(");
+
+			boolean isFirst = true;
+			for (Field field : this.fields) {
+				if (field.isKey()) {
+
+					if (isFirst) {
+						isFirst = false;
+					} else {
+						sqlBuilder.append(" AND ");
+					}
+					sqlBuilder.append(field.getName()).append("=").append(Sql.toParamName(field.getParamName(), i));
+				}
+			}
+			sqlBuilder.append(")");
+		}
+	}
+
 	protected void appendWhereKeyConditions(TextBuilder sqlBuilder) {
 		boolean isFirst = true;
 		for (Field field : this.fields) {
@@ -274,6 +596,66 @@ public class Table extends InitializeObject implements Serializable {
 		return this.insertSql;
 	}
 
+	public RecordSchema getRecordSchema() {
+		initialize();
+		return this.recordSchema;
+	}
+
+	public SchemaRecord newRecord() {
+		initialize();
+		return this.recordSchema.newRecord();
+	}
+
+	public int[] getBulkInsertSizes() {
+		initialize();
+		return this.bulkInsertSizes;
+	}
+
+	public Sql getBulkInsertSql(int rows) {
+		initialize();
+		AssertUtils.assertTrue(rows > 0, "rows is required.");
+
+		Sql sql = this.bulkInsertSqls.get(rows);
+		if (sql == null) {
+			sql = this.bulkInsertSqls.computeIfAbsent(rows, r -> new Sql().sql(this.buildBulkInsertSQL(r)).setName(this.name + ".insertSql." + r));
+		}
+		return sql;
+	}
+
+	public Sql getGetManySql(int keys) {
+		initialize();
+		AssertUtils.assertTrue(keys > 0, "keys is required.");
+
+		Sql sql = this.getManySqls.get(keys);
+		if (sql == null) {
+			sql = this.getManySqls.computeIfAbsent(keys, k -> new Sql().sql(this.buildGetManySQL(k)).setName(this.name + ".getSql." + k));
+		}
+		return sql;
+	}
+
+	public Sql getExistsManySql(int keys) {
+		initialize();
+		AssertUtils.assertTrue(keys > 0, "keys is required.");
+
+		Sql sql = this.existsManySqls.get(keys);
+		if (sql == null) {
+			sql = this.existsManySqls.computeIfAbsent(keys, k -> new Sql().sql(this.buildExistsManySQL(k)).setName(this.name + ".existsSql." + k));
+		}
+		return sql;
+	}
+
+	public Sql getUpsertSql(UpsertType upsertType) {
+		initialize();
+		AssertUtils.assertNotNull(upsertType, "upsertType is required.");
+		AssertUtils.assertNull(this.autoKey, "upsert is not supported for autoKey tables.");
+
+		Sql sql = this.upsertSqls.get(upsertType);
+		if (sql == null) {
+			sql = this.upsertSqls.computeIfAbsent(upsertType, t -> new Sql().sql(this.buildUpsertSQL(t)).setName(this.name + ".upsertSql." + t.name()));
+		}
+		return sql;
+	}
+
 	public Sql getUpdateSql() {
 		initialize();
 		return this.updateSql;
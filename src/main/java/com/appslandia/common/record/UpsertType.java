@@ -0,0 +1,58 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.record;
+
+import java.util.Locale;
+
+import com.appslandia.common.utils.AssertUtils;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public enum UpsertType {
+
+	MERGE, MERGE_SQL_SERVER, MERGE_ORACLE, ON_CONFLICT, ON_DUPLICATE_KEY;
+
+	public static UpsertType of(String productName) {
+		AssertUtils.assertNotNull(productName, "productName is required.");
+		String name = productName.toLowerCase(Locale.ENGLISH);
+
+		if (name.contains("postgresql") || name.contains("sqlite")) {
+			return ON_CONFLICT;
+		}
+		if (name.contains("mysql") || name.contains("mariadb")) {
+			return ON_DUPLICATE_KEY;
+		}
+		if (name.contains("sql server")) {
+			return MERGE_SQL_SERVER;
+		}
+		if (name.contains("oracle")) {
+			return MERGE_ORACLE;
+		}
+		if (name.startsWith("h2") || name.startsWith("db2") || name.startsWith("hsql")) {
+			return MERGE;
+		}
+		throw new IllegalArgumentException("Upsert is not supported (productName=" + productName + ")");
+	}
+}
@@ -21,7 +21,9 @@
 package com.appslandia.common.record;
 
 import java.lang.reflect.Array;
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
 
 import com.appslandia.common.utils.AssertUtils;
 
@@ -53,4 +55,23 @@ public class ValidValuesValidator implements FieldValidator {
 		}
 		return new FieldError(ERROR_MSG_KEY, constraintArgs);
 	}
+
+	@Override
+	public Compiled compile(Object constraintArgs) {
+		AssertUtils.assertNotNull(constraintArgs, "constraintArgs is required.");
+		AssertUtils.assertTrue(constraintArgs.getClass().isArray(), "constraintArgs must be an array.");
+
+		int len = Array.getLength(constraintArgs);
+		final Set<Object> validValues = new HashSet<>(len * 2);
+		for (int i = 0; i < len; i++) {
+			validValues.add(Array.get(constraintArgs, i));
+		}
+
+		return value -> {
+			if ((value == null) || validValues.contains(value)) {
+				return null;
+			}
+			return new FieldError(ERROR_MSG_KEY, constraintArgs);
+		};
+	}
 }
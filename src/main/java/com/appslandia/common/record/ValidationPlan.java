@@ -0,0 +1,177 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.record;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.appslandia.common.base.ToStringBuilder;
+import com.appslandia.common.record.FieldValidator.FieldError;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class ValidationPlan {
+
+	final RecordSchema schema;
+
+	// Fields with constraints; steps of field i are [stepStarts[i], stepStarts[i + 1])
+	final String[] fieldNames;
+	final int[] slots;
+	final int[] stepStarts;
+	final FieldValidator.Compiled[] steps;
+
+	ValidationPlan(Table table, FieldValidators validators, boolean keysOnly) {
+		this.schema = table.getRecordSchema();
+
+		List<String> fieldNames = new ArrayList<>();
+		List<Integer> stepStarts = new ArrayList<>();
+		List<FieldValidator.Compiled> steps = new ArrayList<>();
+
+		for (Field field : table.getFields()) {
+			if ((keysOnly && !field.isKey()) || field.getConstraints().isEmpty()) {
+				continue;
+			}
+			fieldNames.add(field.getName());
+			stepStarts.add(steps.size());
+
+			for (Map.Entry<String, Object> constraint : field.getConstraints().entrySet()) {
+				steps.add(validators.getValidator(constraint.getKey()).compile(constraint.getValue()));
+			}
+		}
+		stepStarts.add(steps.size());
+
+		this.fieldNames = fieldNames.toArray(new String[fieldNames.size()]);
+		this.slots = new int[this.fieldNames.length];
+		for (int i = 0; i < this.slots.length; i++) {
+			this.slots[i] = this.schema.indexOf(this.fieldNames[i]);
+		}
+		this.stepStarts = stepStarts.stream().mapToInt(Integer::intValue).toArray();
+		this.steps = steps.toArray(new FieldValidator.Compiled[steps.size()]);
+	}
+
+	private Object getValue(Record record, SchemaRecord schemaRecord, int fieldIndex) {
+		if (schemaRecord != null) {
+			return schemaRecord.getValue(this.slots[fieldIndex]);
+		}
+		return record.get(this.fieldNames[fieldIndex]);
+	}
+
+	private SchemaRecord toSchemaRecord(Record record) {
+		if ((record instanceof SchemaRecord) && (((SchemaRecord) record).getSchema() == this.schema)) {
+			return (SchemaRecord) record;
+		}
+		return null;
+	}
+
+	private List<FieldError> validateField(Record record, SchemaRecord schemaRecord, int fieldIndex, List<FieldError> errors) {
+		Object value = getValue(record, schemaRecord, fieldIndex);
+
+		for (int s = this.stepStarts[fieldIndex]; s < this.stepStarts[fieldIndex + 1]; s++) {
+			FieldError error = this.steps[s].validate(value);
+			if (error != null) {
+				if (errors == null) {
+					errors = new ArrayList<>(2);
+				}
+				errors.add(error);
+			}
+		}
+		return errors;
+	}
+
+	public void validate(Record record) throws ValidatorException {
+		SchemaRecord schemaRecord = toSchemaRecord(record);
+
+		for (int i = 0; i < this.fieldNames.length; i++) {
+			List<FieldError> errors = validateField(record, schemaRecord, i, null);
+
+			if (errors != null) {
+				throw new ValidatorException(toMessage(this.fieldNames[i], errors));
+			}
+		}
+	}
+
+	public void validate(Record record, FieldValidators.Callback callback) {
+		SchemaRecord schemaRecord = toSchemaRecord(record);
+
+		for (int i = 0; i < this.fieldNames.length; i++) {
+			List<FieldError> errors = validateField(record, schemaRecord, i, null);
+
+			if (errors != null) {
+				callback.onError(this.fieldNames[i], errors);
+			}
+		}
+	}
+
+	// Returns null if valid
+	public RecordError check(int index, Record record, boolean firstFieldOnly) {
+		SchemaRecord schemaRecord = toSchemaRecord(record);
+		RecordError recordError = null;
+
+		for (int i = 0; i < this.fieldNames.length; i++) {
+			List<FieldError> errors = validateField(record, schemaRecord, i, null);
+
+			if (errors != null) {
+				if (recordError == null) {
+					recordError = new RecordError(index);
+				}
+				recordError.fieldErrors.put(this.fieldNames[i], errors);
+
+				if (firstFieldOnly) {
+					break;
+				}
+			}
+		}
+		return recordError;
+	}
+
+	static String toMessage(String fieldName, List<FieldError> errors) {
+		return "field=" + fieldName + ", errors=" + new ToStringBuilder(3).toString(errors);
+	}
+
+	public static class RecordError {
+		final int index;
+		final Map<String, List<FieldError>> fieldErrors = new LinkedHashMap<>();
+
+		public RecordError(int index) {
+			this.index = index;
+		}
+
+		public int getIndex() {
+			return this.index;
+		}
+
+		public Map<String, List<FieldError>> getFieldErrors() {
+			return this.fieldErrors;
+		}
+
+		@Override
+		public String toString() {
+			Map.Entry<String, List<FieldError>> first = this.fieldErrors.entrySet().iterator().next();
+			return "index=" + this.index + ", " + toMessage(first.getKey(), first.getValue());
+		}
+	}
+}
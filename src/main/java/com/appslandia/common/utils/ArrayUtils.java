@@ -79,6 +79,27 @@ public class ArrayUtils {
 		return arr;
 	}
 
+	public static int[] append(int[] src1, int[] src2) {
+		int[] arr = new int[src1.length + src2.length];
+		System.arraycopy(src1, 0, arr, 0, src1.length);
+		System.arraycopy(src2, 0, arr, src1.length, src2.length);
+		return arr;
+	}
+
+	public static long[] append(long[] src1, long[] src2) {
+		long[] arr = new long[src1.length + src2.length];
+		System.arraycopy(src1, 0, arr, 0, src1.length);
+		System.arraycopy(src2, 0, arr, src1.length, src2.length);
+		return arr;
+	}
+
+	public static double[] append(double[] src1, double[] src2) {
+		double[] arr = new double[src1.length + src2.length];
+		System.arraycopy(src1, 0, arr, 0, src1.length);
+		System.arraycopy(src2, 0, arr, src1.length, src2.length);
+		return arr;
+	}
+
 	public static String[] append(String[] src1, String[] src2) {
 		String[] arr = new String[src1.length + src2.length];
 		System.arraycopy(src1, 0, arr, 0, src1.length);
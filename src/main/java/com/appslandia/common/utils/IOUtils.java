@@ -31,6 +31,11 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 
 import com.appslandia.common.base.StringWriter;
 
@@ -42,6 +47,7 @@ import com.appslandia.common.base.StringWriter;
 public class IOUtils {
 
 	private static final int DEFAULT_BUFFER_SIZE = 4096;
+	private static final int CHANNEL_BUFFER_SIZE = 64 * 1024;
 
 	public static int copy(InputStream is, OutputStream os) throws IOException {
 		int count = 0;
@@ -78,6 +84,55 @@ public class IOUtils {
 		return count;
 	}
 
+	public static long copy(InputStream is, WritableByteChannel out) throws IOException {
+		byte[] buf = new byte[CHANNEL_BUFFER_SIZE];
+		ByteBuffer wrapper = ByteBuffer.wrap(buf);
+
+		long count = 0;
+		int c = -1;
+		while ((c = is.read(buf, 0, buf.length)) != -1) {
+			// Buffer casts: Java 8 has no covariant ByteBuffer overrides
+			((Buffer) wrapper).position(0);
+			((Buffer) wrapper).limit(c);
+
+			while (wrapper.hasRemaining()) {
+				count += out.write(wrapper);
+			}
+		}
+		return count;
+	}
+
+	public static long copy(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+		// File source: the kernel moves the bytes where supported
+		if (in instanceof FileChannel) {
+			FileChannel fc = (FileChannel) in;
+			long position = fc.position();
+			long size = fc.size();
+
+			long count = 0;
+			while (position + count < size) {
+				long n = fc.transferTo(position + count, size - position - count, out);
+				if (n <= 0) {
+					break;
+				}
+				count += n;
+			}
+			fc.position(position + count);
+			return count;
+		}
+
+		ByteBuffer buf = ByteBuffer.allocate(CHANNEL_BUFFER_SIZE);
+		long count = 0;
+		while (in.read(buf) != -1) {
+			((Buffer) buf).flip();
+			while (buf.hasRemaining()) {
+				count += out.write(buf);
+			}
+			((Buffer) buf).clear();
+		}
+		return count;
+	}
+
 	public static byte[] toByteArray(InputStream is) throws IOException {
 		ByteArrayOutputStream os = new ByteArrayOutputStream(DEFAULT_BUFFER_SIZE);
 		copy(is, os);
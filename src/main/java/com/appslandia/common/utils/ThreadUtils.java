@@ -20,6 +20,9 @@
 
 package com.appslandia.common.utils;
 
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import com.appslandia.common.base.UncheckedException;
@@ -43,4 +46,25 @@ public class ThreadUtils {
 	public static void sleepInMs(long duration, TimeUnit unit) {
 		sleepInMs(TimeUnit.MILLISECONDS.convert(duration, unit));
 	}
+
+	// Executors.newVirtualThreadPerTaskExecutor() on JDK 21+, otherwise null
+	public static ExecutorService newVirtualThreadExecutor() {
+		try {
+			Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) m.invoke(null);
+
+		} catch (ReflectiveOperationException ex) {
+			return null;
+		}
+	}
+
+	public static boolean isVirtualThreadSupported() {
+		try {
+			Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return true;
+
+		} catch (NoSuchMethodException ex) {
+			return false;
+		}
+	}
 }
@@ -0,0 +1,81 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.base;
+
+import java.io.StringReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class CsvReaderTest {
+
+	@Test
+	public void test() throws Exception {
+		try (CsvReader reader = new CsvReader(new StringReader("a,b,c\n1,,3\r\n"), ',')) {
+			Assert.assertArrayEquals(new String[] { "a", "b", "c" }, reader.readRow());
+			Assert.assertArrayEquals(new String[] { "1", "", "3" }, reader.readRow());
+			Assert.assertNull(reader.readRow());
+			Assert.assertEquals(2, reader.getRowNumber());
+		}
+	}
+
+	@Test
+	public void test_quoted() throws Exception {
+		try (CsvReader reader = new CsvReader(new StringReader("\"a,b\",\"say \"\"hi\"\"\",\"line1\nline2\"\nx"), ',')) {
+			Assert.assertArrayEquals(new String[] { "a,b", "say \"hi\"", "line1\nline2" }, reader.readRow());
+			Assert.assertArrayEquals(new String[] { "x" }, reader.readRow());
+			Assert.assertNull(reader.readRow());
+		}
+	}
+
+	@Test
+	public void test_tab() throws Exception {
+		try (CsvReader reader = new CsvReader(new StringReader("a\tb\rc\td"), '\t')) {
+			Assert.assertArrayEquals(new String[] { "a", "b" }, reader.readRow());
+			Assert.assertArrayEquals(new String[] { "c", "d" }, reader.readRow());
+			Assert.assertNull(reader.readRow());
+		}
+	}
+
+	@Test
+	public void test_smallBuffer() throws Exception {
+		try (CsvReader reader = new CsvReader(new StringReader("\"ab\"\"cd\",ef\r\ngh"), ',', 2)) {
+			Assert.assertArrayEquals(new String[] { "ab\"cd", "ef" }, reader.readRow());
+			Assert.assertArrayEquals(new String[] { "gh" }, reader.readRow());
+			Assert.assertNull(reader.readRow());
+		}
+	}
+
+	@Test
+	public void test_unterminated() throws Exception {
+		try (CsvReader reader = new CsvReader(new StringReader("\"abc"), ',')) {
+			reader.readRow();
+			Assert.fail();
+		} catch (java.io.IOException ex) {
+		}
+	}
+}
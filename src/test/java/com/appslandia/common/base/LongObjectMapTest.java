@@ -0,0 +1,106 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.base;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class LongObjectMapTest {
+
+	@Test
+	public void test() {
+		LongObjectMap<String> map = new LongObjectMap<>();
+		Assert.assertNull(map.put(1L, "one"));
+		Assert.assertNull(map.put(-5L, "minus five"));
+		Assert.assertNull(map.put(0L, null));
+
+		Assert.assertEquals(3, map.size());
+		Assert.assertEquals("one", map.get(1L));
+		Assert.assertEquals("minus five", map.get(-5L));
+		Assert.assertTrue(map.containsKey(0L));
+		Assert.assertNull(map.get(0L));
+		Assert.assertFalse(map.containsKey(2L));
+		Assert.assertEquals("default", map.getOrDefault(2L, "default"));
+
+		Assert.assertEquals("one", map.put(1L, "ONE"));
+		Assert.assertEquals("ONE", map.get(1L));
+		Assert.assertEquals(3, map.size());
+	}
+
+	@Test
+	public void test_remove() {
+		LongObjectMap<String> map = new LongObjectMap<>();
+		map.put(1L, "one");
+		map.put(2L, "two");
+
+		Assert.assertEquals("one", map.remove(1L));
+		Assert.assertNull(map.remove(1L));
+		Assert.assertEquals(1, map.size());
+		Assert.assertFalse(map.containsKey(1L));
+		Assert.assertEquals("two", map.get(2L));
+	}
+
+	@Test
+	public void test_keys() {
+		LongObjectMap<String> map = new LongObjectMap<>(2);
+		for (long i = 0; i < 100; i++) {
+			map.put(i * 7, "v" + i);
+		}
+		long[] keys = map.keys();
+		Assert.assertEquals(100, keys.length);
+
+		long sum = 0;
+		for (long key : keys) {
+			sum += key;
+		}
+		Assert.assertEquals(7 * 99 * 100 / 2, sum);
+	}
+
+	@Test
+	public void test_random() {
+		LongObjectMap<Long> map = new LongObjectMap<>();
+		Map<Long, Long> expected = new HashMap<>();
+		Random random = new Random(1);
+
+		for (int i = 0; i < 20000; i++) {
+			long key = random.nextInt(2000);
+			if (random.nextInt(3) == 0) {
+				Assert.assertEquals(expected.remove(key), map.remove(key));
+			} else {
+				Assert.assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+			}
+		}
+		Assert.assertEquals(expected.size(), map.size());
+		for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+			Assert.assertEquals(entry.getValue(), map.get(entry.getKey()));
+		}
+	}
+}
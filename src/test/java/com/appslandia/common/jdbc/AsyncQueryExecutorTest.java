@@ -0,0 +1,154 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class AsyncQueryExecutorTest {
+
+	final JdbcStubs.StubDataSource stubs = new JdbcStubs.StubDataSource();
+
+	@Test
+	public void test_executeAsync() throws Exception {
+		try (AsyncQueryExecutor executor = new AsyncQueryExecutor(this.stubs.get(), "")) {
+			CompletableFuture<Boolean> future = executor.executeAsync(conn -> conn.isThreadBound());
+
+			Assert.assertFalse(future.get(5, TimeUnit.SECONDS));
+			Assert.assertTrue(this.stubs.connections.get(0).closed);
+		}
+	}
+
+	@Test
+	public void test_executeListAsync() throws Exception {
+		this.stubs.rows(new String[] { "name" }, Arrays.asList(new Object[] { "VN" }, new Object[] { "US" }));
+
+		try (AsyncQueryExecutor executor = new AsyncQueryExecutor(this.stubs.get(), "")) {
+			List<String> names = executor.executeListAsync("SELECT name FROM Country", Collections.emptyMap(), rs -> rs.getString("name")).get(5,
+					TimeUnit.SECONDS);
+			Assert.assertEquals(Arrays.asList("VN", "US"), names);
+		}
+	}
+
+	@Test
+	public void test_taskError() throws Exception {
+		SQLException error = new SQLException("query failed.");
+
+		try (AsyncQueryExecutor executor = new AsyncQueryExecutor(this.stubs.get(), "")) {
+			CompletableFuture<Object> future = executor.executeAsync(conn -> {
+				throw error;
+			});
+			try {
+				future.get(5, TimeUnit.SECONDS);
+				Assert.fail();
+			} catch (ExecutionException ex) {
+				Assert.assertSame(error, ex.getCause());
+			}
+
+			// The connection is closed on failure too
+			Assert.assertTrue(this.stubs.connections.get(0).closed);
+		}
+	}
+
+	@Test
+	public void test_connectionError() throws Exception {
+		this.stubs.fail = true;
+
+		try (AsyncQueryExecutor executor = new AsyncQueryExecutor(this.stubs.get(), "")) {
+			try {
+				executor.executeAsync(conn -> 1).get(5, TimeUnit.SECONDS);
+				Assert.fail();
+			} catch (ExecutionException ex) {
+				Assert.assertTrue(ex.getCause() instanceof SQLException);
+			}
+		}
+	}
+
+	@Test
+	public void test_rejected() throws Exception {
+		AsyncQueryExecutor executor = new AsyncQueryExecutor(this.stubs.get(), "", task -> {
+			throw new RejectedExecutionException();
+		});
+		CompletableFuture<Integer> future = executor.executeAsync(conn -> 1);
+
+		Assert.assertTrue(future.isCompletedExceptionally());
+		Assert.assertEquals(0, this.stubs.openCount.get());
+	}
+
+	@Test
+	public void test_executeAllAsync() throws Exception {
+		try (AsyncQueryExecutor executor = new AsyncQueryExecutor(this.stubs.get(), "")) {
+			List<Integer> results = executor.executeAllAsync(Arrays.<ConnectionCallable<Integer>>asList(conn -> 1, conn -> 2, conn -> 3)).get(5,
+					TimeUnit.SECONDS);
+			Assert.assertEquals(Arrays.asList(1, 2, 3), results);
+		}
+	}
+
+	@Test
+	public void test_executeAllAsync_error() throws Exception {
+		SQLException error = new SQLException("query failed.");
+
+		try (AsyncQueryExecutor executor = new AsyncQueryExecutor(this.stubs.get(), "")) {
+			CompletableFuture<List<Integer>> future = executor.executeAllAsync(Arrays.<ConnectionCallable<Integer>>asList(conn -> 1, conn -> {
+				throw error;
+			}));
+			try {
+				future.join();
+				Assert.fail();
+			} catch (CompletionException ex) {
+				Assert.assertSame(error, ex.getCause());
+			}
+		}
+	}
+
+	@Test
+	public void test_close() throws Exception {
+		ExecutorService external = Executors.newSingleThreadExecutor();
+		try {
+			new AsyncQueryExecutor(this.stubs.get(), "", external).close();
+			Assert.assertFalse(external.isShutdown());
+		} finally {
+			external.shutdownNow();
+		}
+
+		AsyncQueryExecutor owned = new AsyncQueryExecutor(this.stubs.get(), "");
+		owned.close();
+		Assert.assertTrue(((ExecutorService) owned.getExecutor()).isShutdown());
+	}
+}
@@ -0,0 +1,181 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class BatchWriterTest {
+
+	final Sql insertSql = new Sql("INSERT INTO users (id, name) VALUES (:id, :name)");
+
+	static Map<String, Object> params(int id, String name) {
+		Map<String, Object> params = new HashMap<>();
+		params.put("id", id);
+		params.put("name", name);
+		return params;
+	}
+
+	@Test
+	public void test_batchSize() throws Exception {
+		JdbcStubs.StubConnection stub = new JdbcStubs.StubDataSource().newConnection();
+		StatementImpl stat = new StatementImpl(stub.get(), this.insertSql);
+
+		try (BatchWriter writer = new BatchWriter(stat, stub.get(), true).setBatchSize(2)) {
+			for (int i = 1; i <= 5; i++) {
+				writer.add(params(i, "name" + i));
+			}
+			Assert.assertEquals(2, writer.getBatchCount());
+			Assert.assertEquals(1, writer.getPendingRows());
+			Assert.assertEquals(4, stub.statements.get(0).executed.size());
+
+			// Closing flushes the rest
+			writer.close();
+			Assert.assertEquals(5, stub.statements.get(0).executed.size());
+			Assert.assertEquals(5, writer.getTotalRows());
+			Assert.assertEquals(5, writer.getTotalUpdateCount());
+			Assert.assertEquals(3, writer.getBatchCount());
+		}
+		Assert.assertTrue(stub.statements.get(0).closed);
+	}
+
+	@Test
+	public void test_batchBytes() throws Exception {
+		JdbcStubs.StubConnection stub = new JdbcStubs.StubDataSource().newConnection();
+
+		try (BatchWriter writer = new BatchWriter(new StatementImpl(stub.get(), this.insertSql), stub.get(), true).setBatchSize(0).setBatchBytes(25)) {
+			writer.add(10);
+			writer.add(10);
+			Assert.assertEquals(0, writer.getBatchCount());
+			Assert.assertEquals(20, writer.getPendingBytes());
+
+			writer.add(10);
+			Assert.assertEquals(1, writer.getBatchCount());
+			Assert.assertEquals(0, writer.getPendingBytes());
+
+			// 8 bytes for the number, 2 per char
+			writer.add(params(1, "abcdefghi"));
+			Assert.assertEquals(2, writer.getBatchCount());
+		}
+	}
+
+	@Test
+	public void test_commitEvery() throws Exception {
+		JdbcStubs.StubConnection stub = new JdbcStubs.StubDataSource().newConnection();
+		stub.autoCommit = false;
+
+		BatchWriter writer = new BatchWriter(new StatementImpl(stub.get(), this.insertSql), stub.get(), true).setBatchSize(1).setCommitEvery(2);
+		for (int i = 1; i <= 5; i++) {
+			writer.add(params(i, "name" + i));
+		}
+		Assert.assertEquals(5, writer.getBatchCount());
+		Assert.assertEquals(2, stub.commitCount.get());
+
+		// Closing commits the uncommitted batch
+		writer.close();
+		Assert.assertEquals(3, stub.commitCount.get());
+	}
+
+	@Test
+	public void test_commitEvery_autoCommit() throws Exception {
+		JdbcStubs.StubConnection stub = new JdbcStubs.StubDataSource().newConnection();
+
+		try (BatchWriter writer = new BatchWriter(new StatementImpl(stub.get(), this.insertSql), stub.get(), true).setBatchSize(1).setCommitEvery(1)) {
+			writer.add(params(1, "name1"));
+		}
+		Assert.assertEquals(0, stub.commitCount.get());
+	}
+
+	@Test
+	public void test_generatedKeys() throws Exception {
+		JdbcStubs.StubDataSource ds = new JdbcStubs.StubDataSource();
+		ds.generatedKeys = Arrays.asList(1L, 2L);
+		JdbcStubs.StubConnection stub = ds.newConnection();
+
+		List<Object> keys = new ArrayList<>();
+		try (BatchWriter writer = new BatchWriter(new StatementImpl(stub.get(), this.insertSql), stub.get(), true).setBatchSize(2)
+				.setReturnGeneratedKeys(true).setBatchHandler((counts, generatedKeys) -> {
+					Assert.assertEquals(2, counts.length);
+					keys.addAll(generatedKeys);
+				})) {
+			writer.add(params(1, "name1"));
+			writer.add(params(2, "name2"));
+		}
+		Assert.assertEquals(Arrays.asList(1L, 2L), keys);
+	}
+
+	@Test
+	public void test_generatedKeys_unsupported() throws Exception {
+		JdbcStubs.StubDataSource ds = new JdbcStubs.StubDataSource();
+		ds.generatedKeys = Arrays.asList(1L);
+		ds.batchKeysFail = true;
+		JdbcStubs.StubConnection stub = ds.newConnection();
+
+		List<List<Object>> batches = new ArrayList<>();
+		try (BatchWriter writer = new BatchWriter(new StatementImpl(stub.get(), this.insertSql), stub.get(), true).setBatchSize(1)
+				.setReturnGeneratedKeys(true).setBatchHandler((counts, generatedKeys) -> batches.add(generatedKeys))) {
+			writer.add(params(1, "name1"));
+			Assert.assertFalse(writer.isReturnGeneratedKeys());
+
+			// Not asked again
+			writer.add(params(2, "name2"));
+		}
+		Assert.assertEquals(2, batches.size());
+		Assert.assertTrue(batches.get(0).isEmpty());
+		Assert.assertTrue(batches.get(1).isEmpty());
+		Assert.assertEquals(1, ds.generatedKeysCount.get());
+		Assert.assertEquals(2, stub.statements.get(0).executed.size());
+	}
+
+	@Test
+	public void test_close() throws Exception {
+		JdbcStubs.StubConnection stub = new JdbcStubs.StubDataSource().newConnection();
+		StatementImpl stat = new StatementImpl(stub.get(), this.insertSql);
+
+		BatchWriter writer = new BatchWriter(stat, stub.get(), false);
+		writer.add(params(1, "name1"));
+		writer.close();
+		writer.close();
+
+		// Flushed once, statement left to its owner
+		Assert.assertEquals(1, stub.statements.get(0).executed.size());
+		Assert.assertFalse(stub.statements.get(0).closed);
+		try {
+			writer.add(params(2, "name2"));
+			Assert.fail();
+		} catch (SQLException ex) {
+		}
+		stat.close();
+	}
+}
@@ -0,0 +1,167 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class BeanResultSetMapperTest {
+
+	@Test
+	public void test_setters() throws Exception {
+		try (ResultSetImpl rs = resultSet(new String[] { "USER_ID", "first_name", "active", "score" }, new Object[] { 7L, "loc", true, 1.5d })) {
+			Assert.assertTrue(rs.next());
+			User user = BeanResultSetMapper.of(User.class).map(rs);
+
+			Assert.assertEquals(7L, user.getUserId());
+			Assert.assertEquals("LOC", user.getFirstName());
+			Assert.assertTrue(user.isActive());
+			Assert.assertEquals(Double.valueOf(1.5d), user.getScore());
+		}
+	}
+
+	@Test
+	public void test_fields() throws Exception {
+		try (ResultSetImpl rs = resultSet(new String[] { "id", "code" }, new Object[] { 1, "VN" })) {
+			Assert.assertTrue(rs.next());
+			Country country = BeanResultSetMapper.of(Country.class).map(rs);
+
+			Assert.assertEquals(1, country.id);
+			Assert.assertEquals("VN", country.code);
+		}
+	}
+
+	@Test
+	public void test_typeConversion() throws Exception {
+		// Integer column to long, Long column to Double
+		try (ResultSetImpl rs = resultSet(new String[] { "userId", "score" }, new Object[] { 7, 2L })) {
+			Assert.assertTrue(rs.next());
+			User user = BeanResultSetMapper.of(User.class).map(rs);
+
+			Assert.assertEquals(7L, user.getUserId());
+			Assert.assertEquals(Double.valueOf(2d), user.getScore());
+		}
+	}
+
+	@Test
+	public void test_nullValues() throws Exception {
+		try (ResultSetImpl rs = resultSet(new String[] { "userId", "score", "firstName" }, new Object[] { null, null, null })) {
+			Assert.assertTrue(rs.next());
+			User user = BeanResultSetMapper.of(User.class).map(rs);
+
+			// Primitive properties keep their default on NULL
+			Assert.assertEquals(-1L, user.getUserId());
+			Assert.assertNull(user.getScore());
+			Assert.assertNull(user.getFirstName());
+		}
+	}
+
+	@Test
+	public void test_missingColumns() throws Exception {
+		try (ResultSetImpl rs = resultSet(new String[] { "unknown", "first_name" }, new Object[] { "x", "loc" })) {
+			Assert.assertTrue(rs.next());
+			User user = BeanResultSetMapper.of(User.class).map(rs);
+
+			Assert.assertEquals("LOC", user.getFirstName());
+			Assert.assertEquals(-1L, user.getUserId());
+			Assert.assertFalse(user.isActive());
+		}
+	}
+
+	@Test
+	public void test_columnOrders() throws Exception {
+		BeanResultSetMapper<Country> mapper = BeanResultSetMapper.of(Country.class);
+		Assert.assertSame(mapper, BeanResultSetMapper.of(Country.class));
+
+		try (ResultSetImpl rs = resultSet(new String[] { "code", "id" }, new Object[] { "US", 2 }, new Object[] { "JP", 3 })) {
+			Assert.assertTrue(rs.next());
+			Assert.assertEquals("US", mapper.map(rs).code);
+
+			Assert.assertTrue(rs.next());
+			Country country = mapper.map(rs);
+			Assert.assertEquals("JP", country.code);
+			Assert.assertEquals(3, country.id);
+		}
+		try (ResultSetImpl rs = resultSet(new String[] { "id", "code" }, new Object[] { 1, "VN" })) {
+			Assert.assertTrue(rs.next());
+			Assert.assertEquals("VN", mapper.map(rs).code);
+		}
+		Assert.assertEquals(2, mapper.bindings.size());
+	}
+
+	static ResultSetImpl resultSet(String[] columns, Object[]... rows) {
+		return new ResultSetImpl(JdbcStubs.resultSet(columns, (rows.length == 1) ? Collections.singletonList(rows[0]) : Arrays.asList(rows)));
+	}
+
+	public static class User {
+		private long userId = -1;
+		private String firstName;
+		private boolean active;
+		private Double score;
+
+		public long getUserId() {
+			return this.userId;
+		}
+
+		public void setUserId(long userId) {
+			this.userId = userId;
+		}
+
+		public String getFirstName() {
+			return this.firstName;
+		}
+
+		// Setters take precedence over fields
+		public void setFirstName(String firstName) {
+			this.firstName = (firstName != null) ? firstName.toUpperCase() : null;
+		}
+
+		public boolean isActive() {
+			return this.active;
+		}
+
+		public void setActive(boolean active) {
+			this.active = active;
+		}
+
+		public Double getScore() {
+			return this.score;
+		}
+
+		public void setScore(Double score) {
+			this.score = score;
+		}
+	}
+
+	public static class Country {
+		private int id;
+		private String code;
+	}
+}
@@ -0,0 +1,129 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.Callable;
+
+import javax.interceptor.InvocationContext;
+import javax.sql.DataSource;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.appslandia.common.jdbc.ConnScoped.ConnType;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class ConnScopedInterceptorTest {
+
+	final JdbcStubs.StubDataSource primary = new JdbcStubs.StubDataSource();
+	final JdbcStubs.StubDataSource replica = new JdbcStubs.StubDataSource();
+	final RoutingDataSource routing = new RoutingDataSource(this.primary.get()).addReplica(this.replica.get());
+
+	final ConnScopedInterceptor interceptor = new ConnScopedInterceptor() {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected DataSource getDataSource(String name) {
+			return ConnScopedInterceptorTest.this.routing;
+		}
+	};
+
+	@ConnScoped(ConnType.READ_ONLY)
+	public void readOnly() {
+	}
+
+	@ConnScoped
+	public void required() {
+	}
+
+	Object intercept(String methodName, Callable<Object> body) throws Exception {
+		Method method = getClass().getMethod(methodName);
+		InvocationContext context = (InvocationContext) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { InvocationContext.class },
+				(p, m, a) -> {
+					switch (m.getName()) {
+					case "getMethod":
+						return method;
+					case "proceed":
+						return body.call();
+					default:
+						throw new UnsupportedOperationException(m.getName());
+					}
+				});
+		return this.interceptor.intercept(context);
+	}
+
+	@Test
+	public void test_readOnly() throws Exception {
+		intercept("readOnly", () -> {
+			Assert.assertTrue(ConnectionImpl.getCurrent().isReadOnly());
+			return null;
+		});
+
+		// Served by the replica
+		Assert.assertEquals(1, this.replica.openCount.get());
+		Assert.assertEquals(0, this.primary.openCount.get());
+		Assert.assertTrue(this.replica.connections.get(0).closed);
+		Assert.assertFalse(ConnectionImpl.hasCurrent());
+	}
+
+	@Test
+	public void test_requiredInsideReadOnly() throws Exception {
+		intercept("readOnly", () -> {
+			ConnectionImpl readConn = ConnectionImpl.getCurrent();
+
+			// Writes move to the primary
+			intercept("required", () -> {
+				Assert.assertNotSame(readConn, ConnectionImpl.getCurrent());
+				Assert.assertFalse(ConnectionImpl.getCurrent().isReadOnly());
+				return null;
+			});
+			Assert.assertSame(readConn, ConnectionImpl.getCurrent());
+			return null;
+		});
+		Assert.assertEquals(1, this.replica.openCount.get());
+		Assert.assertEquals(1, this.primary.openCount.get());
+		Assert.assertFalse(ConnectionImpl.hasCurrent());
+	}
+
+	@Test
+	public void test_readOnlyInsideRequired() throws Exception {
+		intercept("required", () -> {
+			ConnectionImpl writeConn = ConnectionImpl.getCurrent();
+
+			// Reads see the scope's writes
+			intercept("readOnly", () -> {
+				Assert.assertSame(writeConn, ConnectionImpl.getCurrent());
+				return null;
+			});
+			return null;
+		});
+		Assert.assertEquals(0, this.replica.openCount.get());
+		Assert.assertEquals(1, this.primary.openCount.get());
+		Assert.assertFalse(this.primary.connections.get(0).readOnly);
+	}
+}
@@ -0,0 +1,229 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class ConnectionPoolTest {
+
+	final JdbcStubs.StubDataSource stubs = new JdbcStubs.StubDataSource();
+	DataSourceImpl dataSource;
+
+	DataSourceImpl newDataSource() {
+		this.dataSource = new DataSourceImpl() {
+
+			@Override
+			protected Connection newConnection() throws SQLException {
+				return ConnectionPoolTest.this.stubs.get().getConnection();
+			}
+		};
+		return this.dataSource.setUrl("jdbc:stub").setPooled(true);
+	}
+
+	@After
+	public void after() {
+		if (this.dataSource != null) {
+			this.dataSource.destroy();
+		}
+	}
+
+	@Test
+	public void test_reuse() throws Exception {
+		DataSourceImpl ds = newDataSource();
+
+		Connection conn = ds.getConnection();
+		conn.setAutoCommit(false);
+		conn.close();
+		Assert.assertEquals(1, ds.getPool().getIdleCount());
+
+		// Released connections are reset
+		Assert.assertTrue(this.stubs.connections.get(0).autoCommit);
+		Assert.assertEquals(1, this.stubs.connections.get(0).rollbackCount.get());
+
+		ds.getConnection().close();
+		Assert.assertEquals(1, this.stubs.openCount.get());
+	}
+
+	@Test
+	public void test_borrowTimeout() throws Exception {
+		DataSourceImpl ds = newDataSource().setMaxPoolSize(1).setBorrowTimeout(50);
+		Connection conn = ds.getConnection();
+
+		long start = System.nanoTime();
+		try {
+			ds.getConnection();
+			Assert.fail();
+		} catch (SQLTimeoutException ex) {
+		}
+		Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+		Assert.assertEquals(1, ds.getPool().getTotalCount());
+
+		conn.close();
+	}
+
+	@Test
+	public void test_borrowWait() throws Exception {
+		DataSourceImpl ds = newDataSource().setMaxPoolSize(1).setBorrowTimeout(5_000);
+		Connection conn = ds.getConnection();
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			CountDownLatch started = new CountDownLatch(1);
+			Future<Connection> waiter = executor.submit(() -> {
+				started.countDown();
+				return ds.getConnection();
+			});
+			started.await();
+
+			// The waiter gets the released connection
+			conn.close();
+			waiter.get(5, TimeUnit.SECONDS).close();
+			Assert.assertEquals(1, this.stubs.openCount.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void test_newConnection_failed() throws Exception {
+		DataSourceImpl ds = newDataSource().setMaxPoolSize(1);
+		this.stubs.fail = true;
+		try {
+			ds.getConnection();
+			Assert.fail();
+		} catch (SQLException ex) {
+		}
+
+		// The slot is given back
+		Assert.assertEquals(0, ds.getPool().getTotalCount());
+		this.stubs.fail = false;
+		ds.getConnection().close();
+	}
+
+	@Test
+	public void test_validateOnBorrow() throws Exception {
+		DataSourceImpl ds = newDataSource();
+		ds.getConnection().close();
+
+		this.stubs.connections.get(0).valid = false;
+		ds.getConnection().close();
+
+		Assert.assertTrue(this.stubs.connections.get(0).closed);
+		Assert.assertEquals(2, this.stubs.openCount.get());
+		Assert.assertEquals(1, ds.getPool().getTotalCount());
+	}
+
+	@Test
+	public void test_evict_idleTimeout() throws Exception {
+		DataSourceImpl ds = newDataSource().setMinPoolSize(1).setIdleTimeout(10);
+		Connection[] conns = { ds.getConnection(), ds.getConnection(), ds.getConnection() };
+		for (Connection conn : conns) {
+			conn.close();
+		}
+		Assert.assertEquals(3, ds.getPool().getIdleCount());
+
+		Thread.sleep(20);
+		ds.getPool().evict();
+
+		// Idle connections above minPoolSize are closed
+		Assert.assertEquals(1, ds.getPool().getIdleCount());
+		Assert.assertEquals(1, ds.getPool().getTotalCount());
+		Assert.assertEquals(2, this.stubs.connections.stream().filter(c -> c.closed).count());
+	}
+
+	@Test
+	public void test_evict_refill() throws Exception {
+		DataSourceImpl ds = newDataSource().setMinPoolSize(2).setMaxLifetime(10);
+		ConnectionPool pool = ds.getPool();
+
+		pool.evict();
+		Assert.assertEquals(2, pool.getIdleCount());
+		Assert.assertEquals(2, this.stubs.openCount.get());
+
+		// Expired connections are replaced
+		Thread.sleep(20);
+		pool.evict();
+		Assert.assertEquals(2, pool.getIdleCount());
+		Assert.assertEquals(4, this.stubs.openCount.get());
+		Assert.assertTrue(this.stubs.connections.get(0).closed);
+		Assert.assertTrue(this.stubs.connections.get(1).closed);
+	}
+
+	@Test
+	public void test_fill_onInit() throws Exception {
+		DataSourceImpl ds = newDataSource().setMinPoolSize(2);
+
+		ConnectionPool pool = ds.getPool();
+		Assert.assertEquals(2, this.stubs.openCount.get());
+		Assert.assertEquals(2, pool.getTotalCount());
+		Assert.assertEquals(2, pool.getIdleCount());
+
+		// Pre-filled connections are borrowed first
+		ds.getConnection().close();
+		Assert.assertEquals(2, this.stubs.openCount.get());
+	}
+
+	@Test
+	public void test_evict_refillFailed() throws Exception {
+		DataSourceImpl ds = newDataSource().setMinPoolSize(2);
+		this.stubs.fail = true;
+
+		ds.getPool().evict();
+		Assert.assertEquals(0, ds.getPool().getTotalCount());
+	}
+
+	@Test
+	public void test_close() throws Exception {
+		DataSourceImpl ds = newDataSource();
+		Connection active = ds.getConnection();
+		ds.getConnection().close();
+
+		ds.getPool().close();
+		Assert.assertTrue(this.stubs.connections.get(1).closed);
+		try {
+			ds.getConnection();
+			Assert.fail();
+		} catch (SQLException ex) {
+		}
+
+		// Active connections are closed on release
+		active.close();
+		Assert.assertTrue(this.stubs.connections.get(0).closed);
+		Assert.assertEquals(0, ds.getPool().getTotalCount());
+	}
+}
@@ -0,0 +1,476 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Blob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class JdbcStubs {
+
+	public static class StubDataSource implements InvocationHandler {
+
+		public final List<StubConnection> connections = new CopyOnWriteArrayList<>();
+		public final AtomicInteger openCount = new AtomicInteger();
+
+		public volatile boolean fail;
+		public volatile String productName = "Stub";
+		public volatile String[] columns = {};
+		public volatile List<Object[]> rows = Collections.emptyList();
+		public volatile List<Object> generatedKeys;
+		public volatile boolean batchKeysFail;
+		public final AtomicInteger generatedKeysCount = new AtomicInteger();
+		public volatile SQLException updateError;
+
+		public DataSource get() {
+			return proxy(DataSource.class, this);
+		}
+
+		public StubDataSource rows(String[] columns, List<Object[]> rows) {
+			this.columns = columns;
+			this.rows = rows;
+			return this;
+		}
+
+		public StubConnection newConnection() {
+			StubConnection conn = new StubConnection(this);
+			this.connections.add(conn);
+			this.openCount.incrementAndGet();
+			return conn;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (method.getName().equals("getConnection")) {
+				if (this.fail) {
+					throw new SQLException("getConnection failed.");
+				}
+				return newConnection().get();
+			}
+			return handleObject(this, proxy, method, args);
+		}
+	}
+
+	public static class StubConnection implements InvocationHandler {
+
+		public final StubDataSource ds;
+		public final List<StubStatement> statements = new CopyOnWriteArrayList<>();
+		public final Connection proxy;
+
+		public volatile boolean closed;
+		public volatile boolean valid = true;
+		public volatile boolean autoCommit = true;
+		public volatile boolean readOnly;
+		public final AtomicInteger commitCount = new AtomicInteger();
+		public final AtomicInteger rollbackCount = new AtomicInteger();
+
+		public StubConnection(StubDataSource ds) {
+			this.ds = ds;
+			this.proxy = proxy(Connection.class, this);
+		}
+
+		public Connection get() {
+			return this.proxy;
+		}
+
+		public int getPreparedCount() {
+			return this.statements.size();
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "prepareStatement":
+			case "createStatement":
+				assertOpen();
+				StubStatement stat = new StubStatement(this, (args != null && args.length > 0) ? (String) args[0] : null);
+				this.statements.add(stat);
+				return stat.get();
+			case "close":
+				this.closed = true;
+				return null;
+			case "isClosed":
+				return this.closed;
+			case "isValid":
+				return this.valid && !this.closed;
+			case "getAutoCommit":
+				return this.autoCommit;
+			case "setAutoCommit":
+				this.autoCommit = (Boolean) args[0];
+				return null;
+			case "isReadOnly":
+				return this.readOnly;
+			case "setReadOnly":
+				this.readOnly = (Boolean) args[0];
+				return null;
+			case "commit":
+				this.commitCount.incrementAndGet();
+				return null;
+			case "rollback":
+				this.rollbackCount.incrementAndGet();
+				return null;
+			case "getMetaData":
+				return proxy(DatabaseMetaData.class, (p, m, a) -> {
+					switch (m.getName()) {
+					case "getDatabaseProductName":
+						return this.ds.productName;
+					case "supportsGetGeneratedKeys":
+						return this.ds.generatedKeys != null;
+					case "getConnection":
+						return this.proxy;
+					default:
+						return handleObject(this, p, m, a);
+					}
+				});
+			default:
+				return handleObject(this, proxy, method, args);
+			}
+		}
+
+		void assertOpen() throws SQLException {
+			if (this.closed) {
+				throw new SQLException("Connection is closed.");
+			}
+		}
+	}
+
+	public static class StubStatement implements InvocationHandler {
+
+		public final StubConnection conn;
+		public final String sql;
+		public final PreparedStatement proxy;
+
+		public final Map<Integer, Object> params = new HashMap<>();
+		public final List<Map<Integer, Object>> batch = new ArrayList<>();
+		public final List<Map<Integer, Object>> executed = new ArrayList<>();
+
+		public volatile boolean closed;
+		public int maxRows;
+		public int queryTimeout;
+		public int fetchSize;
+		public int clearBatchCount;
+		boolean batchExecuted;
+
+		public StubStatement(StubConnection conn, String sql) {
+			this.conn = conn;
+			this.sql = sql;
+			this.proxy = proxy(PreparedStatement.class, this);
+		}
+
+		public PreparedStatement get() {
+			return this.proxy;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.startsWith("set") && (args != null) && (args.length >= 2) && (args[0] instanceof Integer)) {
+				this.params.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+				return null;
+			}
+			switch (name) {
+			case "clearParameters":
+				this.params.clear();
+				return null;
+			case "addBatch":
+				this.batch.add(new HashMap<>(this.params));
+				return null;
+			case "clearBatch":
+				this.batch.clear();
+				this.clearBatchCount++;
+				return null;
+			case "executeBatch":
+				assertOpen();
+				int[] counts = new int[this.batch.size()];
+				for (int i = 0; i < counts.length; i++) {
+					counts[i] = 1;
+				}
+				this.executed.addAll(this.batch);
+				this.batch.clear();
+				this.batchExecuted = true;
+				return counts;
+			case "executeUpdate":
+			case "execute":
+				assertOpen();
+				if (this.conn.ds.updateError != null) {
+					throw this.conn.ds.updateError;
+				}
+				this.executed.add(new HashMap<>(this.params));
+				this.batchExecuted = false;
+				return name.equals("execute") ? (Object) true : (Object) 1;
+			case "executeQuery":
+				assertOpen();
+				this.executed.add(new HashMap<>(this.params));
+				return resultSet(this.conn.ds.columns, this.conn.ds.rows, this.proxy);
+			case "getResultSet":
+				return resultSet(this.conn.ds.columns, this.conn.ds.rows, this.proxy);
+			case "getGeneratedKeys":
+				this.conn.ds.generatedKeysCount.incrementAndGet();
+				List<Object> keys = this.conn.ds.generatedKeys;
+				if ((keys == null) || (this.batchExecuted && this.conn.ds.batchKeysFail)) {
+					throw new SQLFeatureNotSupportedException("getGeneratedKeys");
+				}
+				List<Object[]> keyRows = new ArrayList<>();
+				for (Object key : keys) {
+					keyRows.add(new Object[] { key });
+				}
+				return resultSet(new String[] { "GENERATED_KEY" }, keyRows, this.proxy);
+			case "close":
+				this.closed = true;
+				return null;
+			case "isClosed":
+				return this.closed;
+			case "getConnection":
+				return this.conn.proxy;
+			case "setMaxRows":
+				this.maxRows = (Integer) args[0];
+				return null;
+			case "setLargeMaxRows":
+				this.maxRows = (int) (long) (Long) args[0];
+				return null;
+			case "getMaxRows":
+				return this.maxRows;
+			case "getLargeMaxRows":
+				return (long) this.maxRows;
+			case "setQueryTimeout":
+				this.queryTimeout = (Integer) args[0];
+				return null;
+			case "getQueryTimeout":
+				return this.queryTimeout;
+			case "setFetchSize":
+				this.fetchSize = (Integer) args[0];
+				return null;
+			case "getFetchSize":
+				return this.fetchSize;
+			case "getUpdateCount":
+				return -1;
+			default:
+				return handleObject(this, proxy, method, args);
+			}
+		}
+
+		void assertOpen() throws SQLException {
+			if (this.closed) {
+				throw new SQLException("Statement is closed.");
+			}
+		}
+	}
+
+	public static class StubResultSet implements InvocationHandler {
+
+		public final String[] columns;
+		public final List<Object[]> rows;
+		public final Statement statement;
+
+		public volatile boolean closed;
+		public int fetchSize;
+		int row = -1;
+		boolean wasNull;
+
+		public StubResultSet(String[] columns, List<Object[]> rows, Statement statement) {
+			this.columns = columns;
+			this.rows = rows;
+			this.statement = statement;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			switch (name) {
+			case "next":
+				return ++this.row < this.rows.size();
+			case "close":
+				this.closed = true;
+				return null;
+			case "isClosed":
+				return this.closed;
+			case "wasNull":
+				return this.wasNull;
+			case "getStatement":
+				return this.statement;
+			case "getFetchSize":
+				return this.fetchSize;
+			case "setFetchSize":
+				this.fetchSize = (Integer) args[0];
+				return null;
+			case "findColumn":
+				return findColumn((String) args[0]);
+			case "getMetaData":
+				return proxy(ResultSetMetaData.class, (p, m, a) -> {
+					switch (m.getName()) {
+					case "getColumnCount":
+						return this.columns.length;
+					case "getColumnLabel":
+					case "getColumnName":
+						return this.columns[(Integer) a[0] - 1];
+					case "getColumnType":
+						return Types.OTHER;
+					default:
+						return handleObject(this, p, m, a);
+					}
+				});
+			default:
+				if (name.startsWith("get") && (args != null) && (args.length >= 1)) {
+					int index = (args[0] instanceof Integer) ? (Integer) args[0] : findColumn((String) args[0]);
+					Object value = this.rows.get(this.row)[index - 1];
+					this.wasNull = (value == null);
+					return convert(value, method.getReturnType());
+				}
+				return handleObject(this, proxy, method, args);
+			}
+		}
+
+		int findColumn(String label) throws SQLException {
+			for (int i = 0; i < this.columns.length; i++) {
+				if (this.columns[i].equalsIgnoreCase(label)) {
+					return i + 1;
+				}
+			}
+			throw new SQLException("Column not found: " + label);
+		}
+	}
+
+	public static ResultSet resultSet(String[] columns, List<Object[]> rows, Statement statement) {
+		return proxy(ResultSet.class, new StubResultSet(columns, rows, statement));
+	}
+
+	public static ResultSet resultSet(String[] columns, List<Object[]> rows) {
+		return resultSet(columns, rows, null);
+	}
+
+	static Object convert(Object value, Class<?> type) {
+		if (type == Object.class) {
+			return value;
+		}
+		if (value == null) {
+			return type.isPrimitive() ? defaultValue(type) : null;
+		}
+		if ((type == int.class) || (type == Integer.class)) {
+			return ((Number) value).intValue();
+		}
+		if ((type == long.class) || (type == Long.class)) {
+			return ((Number) value).longValue();
+		}
+		if ((type == double.class) || (type == Double.class)) {
+			return ((Number) value).doubleValue();
+		}
+		if ((type == boolean.class) || (type == Boolean.class)) {
+			return (Boolean) value;
+		}
+		if (type == String.class) {
+			return value.toString();
+		}
+		if ((type == InputStream.class) && (value instanceof Blob)) {
+			try {
+				return ((Blob) value).getBinaryStream();
+			} catch (SQLException ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+		return value;
+	}
+
+	static Object handleObject(Object handler, Object proxy, Method method, Object[] args) throws Throwable {
+		switch (method.getName()) {
+		case "equals":
+			return proxy == args[0];
+		case "hashCode":
+			return System.identityHashCode(proxy);
+		case "toString":
+			return handler.getClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+		case "unwrap":
+			return proxy;
+		case "isWrapperFor":
+			return false;
+		default:
+			if (method.isDefault()) {
+				throw new UnsupportedOperationException(method.getName());
+			}
+			return defaultValue(method.getReturnType());
+		}
+	}
+
+	static Object defaultValue(Class<?> type) {
+		if (!type.isPrimitive() || type == void.class) {
+			return null;
+		}
+		if (type == boolean.class) {
+			return false;
+		}
+		if (type == long.class) {
+			return 0L;
+		}
+		if (type == double.class) {
+			return 0d;
+		}
+		if (type == float.class) {
+			return 0f;
+		}
+		if (type == short.class) {
+			return (short) 0;
+		}
+		if (type == byte.class) {
+			return (byte) 0;
+		}
+		if (type == char.class) {
+			return (char) 0;
+		}
+		return 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	static <T> T proxy(Class<T> type, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(JdbcStubs.class.getClassLoader(), new Class<?>[] { type }, (p, m, a) -> {
+			try {
+				return handler.invoke(p, m, a);
+			} catch (InvocationTargetException ex) {
+				throw ex.getCause();
+			}
+		});
+	}
+}
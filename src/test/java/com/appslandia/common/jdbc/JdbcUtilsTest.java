@@ -0,0 +1,133 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.appslandia.common.base.LongObjectMap;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class JdbcUtilsTest {
+
+	@Test
+	public void test_toStatementName() {
+		Assert.assertEquals("SELECT * FROM users WHERE id=? AND name=?", JdbcUtils.toStatementName("SELECT *\n\tFROM users  WHERE id=12 AND name='O''Brien'"));
+		Assert.assertEquals("SELECT * FROM users WHERE id=:id", JdbcUtils.toStatementName("SELECT * FROM users WHERE id=:id"));
+		Assert.assertEquals("SELECT col1 FROM t2 WHERE x=?", JdbcUtils.toStatementName("SELECT col1 FROM t2 WHERE x=1.5"));
+	}
+
+	@Test
+	public void test_toStatementName_inList() {
+		String name = JdbcUtils.toStatementName("SELECT * FROM users WHERE id IN (1, 2, 3)");
+		Assert.assertEquals("SELECT * FROM users WHERE id IN (?)", name);
+		Assert.assertEquals(name, JdbcUtils.toStatementName("SELECT * FROM users WHERE id IN (4,5)"));
+	}
+
+	@Test
+	public void test_toStatementName_maxLength() {
+		StringBuilder sql = new StringBuilder("SELECT * FROM users WHERE ");
+		for (int i = 0; i < 100; i++) {
+			sql.append("col").append(i).append(" = :p").append(i).append(" AND ");
+		}
+		Assert.assertEquals(JdbcUtils.MAX_STATEMENT_NAME_LENGTH, JdbcUtils.toStatementName(sql.toString()).length());
+	}
+
+	@Test
+	public void test_executeLongArray() throws Exception {
+		// Grows past the fetch-size capacity
+		try (ResultSetImpl rs = resultSet(2, 1L, 2L, 3L, 4L, 5L)) {
+			Assert.assertArrayEquals(new long[] { 1, 2, 3, 4, 5 }, JdbcUtils.executeLongArray(rs, "v"));
+		}
+		try (ResultSetImpl rs = resultSet(0)) {
+			Assert.assertEquals(0, JdbcUtils.executeLongArray(rs, "v").length);
+		}
+	}
+
+	@Test
+	public void test_executeIntArray() throws Exception {
+		try (ResultSetImpl rs = resultSet(1, 1, 2, 3)) {
+			Assert.assertArrayEquals(new int[] { 1, 2, 3 }, JdbcUtils.executeIntArray(rs, "v"));
+		}
+	}
+
+	@Test
+	public void test_executeDoubleArray() throws Exception {
+		try (ResultSetImpl rs = resultSet(2, 1.5d, 2.5d, 3.5d)) {
+			Assert.assertArrayEquals(new double[] { 1.5, 2.5, 3.5 }, JdbcUtils.executeDoubleArray(rs, "v"), 0);
+		}
+	}
+
+	@Test
+	public void test_executeArray_null() throws Exception {
+		try (ResultSetImpl rs = resultSet(0, 1L, null)) {
+			JdbcUtils.executeLongArray(rs, "v");
+			Assert.fail();
+		} catch (SQLException ex) {
+			Assert.assertTrue(ex.getMessage().contains("rowIndex=1"));
+		}
+		try (ResultSetImpl rs = resultSet(0, (Object) null)) {
+			JdbcUtils.executeIntArray(rs, "v");
+			Assert.fail();
+		} catch (SQLException ex) {
+		}
+		try (ResultSetImpl rs = resultSet(0, (Object) null)) {
+			JdbcUtils.executeDoubleArray(rs, "v");
+			Assert.fail();
+		} catch (SQLException ex) {
+		}
+	}
+
+	@Test
+	public void test_executeLongObjectMap() throws Exception {
+		try (ResultSetImpl rs = resultSet(2, 10L, 20L, 30L)) {
+			LongObjectMap<String> map = JdbcUtils.executeLongObjectMap(rs, "v", r -> "id" + r.getLong("v"), new LongObjectMap<>());
+
+			Assert.assertEquals(3, map.size());
+			Assert.assertEquals("id20", map.get(20));
+		}
+		try (ResultSetImpl rs = resultSet(0, 10L, null)) {
+			JdbcUtils.executeLongObjectMap(rs, "v", r -> "v", new LongObjectMap<>());
+			Assert.fail();
+		} catch (SQLException ex) {
+		}
+	}
+
+	static ResultSetImpl resultSet(int fetchSize, Object... values) {
+		List<Object[]> rows = new ArrayList<>();
+		for (Object value : values) {
+			rows.add(new Object[] { value });
+		}
+		JdbcStubs.StubResultSet handler = new JdbcStubs.StubResultSet(new String[] { "v" }, rows, null);
+		handler.fetchSize = fetchSize;
+		return new ResultSetImpl(JdbcStubs.proxy(ResultSet.class, handler));
+	}
+}
@@ -0,0 +1,179 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class KeysetPaginatorTest {
+
+	@Test
+	public void test_rowValue() {
+		KeysetPaginator paginator = new KeysetPaginator("SELECT id, createdAt FROM Post").keys("createdAt", "id");
+
+		Assert.assertEquals("SELECT * FROM (SELECT id, createdAt FROM Post) kp ORDER BY createdAt ASC, id ASC", paginator.getFirstSql().getSql());
+		Assert.assertEquals(
+				"SELECT * FROM (SELECT id, createdAt FROM Post) kp WHERE (createdAt, id) > (:keyset__0, :keyset__1) ORDER BY createdAt ASC, id ASC",
+				paginator.getNextSql().getSql());
+	}
+
+	@Test
+	public void test_singleKey_desc() {
+		KeysetPaginator paginator = new KeysetPaginator("SELECT id FROM Post").key("id", true);
+
+		Assert.assertEquals("SELECT * FROM (SELECT id FROM Post) kp WHERE id < :keyset__0 ORDER BY id DESC", paginator.getNextSql().getSql());
+	}
+
+	@Test
+	public void test_expanded() {
+		KeysetPaginator paginator = new KeysetPaginator("SELECT a, b, c FROM T").keys("a", "b", "c").setRowValue(false);
+
+		Assert.assertEquals("SELECT * FROM (SELECT a, b, c FROM T) kp WHERE ((a > :keyset__0) OR (a = :keyset__0 AND b > :keyset__1)"
+				+ " OR (a = :keyset__0 AND b = :keyset__1 AND c > :keyset__2)) ORDER BY a ASC, b ASC, c ASC", paginator.getNextSql().getSql());
+	}
+
+	@Test
+	public void test_mixedDirections() {
+		KeysetPaginator paginator = new KeysetPaginator("SELECT a, b FROM T").key("a", true).key("b");
+
+		Assert.assertEquals("SELECT * FROM (SELECT a, b FROM T) kp WHERE ((a < :keyset__0) OR (a = :keyset__0 AND b > :keyset__1)) ORDER BY a DESC, b ASC",
+				paginator.getNextSql().getSql());
+	}
+
+	@Test
+	public void test_token() {
+		UUID uuid = UUID.randomUUID();
+		Object[] keyValues = new Object[] { 1, 2L, "abc", new BigDecimal("1.50"), LocalDate.of(2020, 1, 2), uuid };
+
+		String token = KeysetPaginator.encodeToken(keyValues);
+		Assert.assertArrayEquals(keyValues, KeysetPaginator.decodeToken(token, keyValues.length));
+	}
+
+	@Test
+	public void test_token_invalid() {
+		String token = KeysetPaginator.encodeToken(new Object[] { 1L });
+		try {
+			KeysetPaginator.decodeToken(token, 2);
+			Assert.fail();
+		} catch (IllegalArgumentException ex) {
+		}
+		try {
+			KeysetPaginator.decodeToken("AQE", 1);
+			Assert.fail();
+		} catch (IllegalArgumentException ex) {
+		}
+	}
+
+	@Test
+	public void test_defaultName() {
+		KeysetPaginator byId = new KeysetPaginator("SELECT id, createdAt FROM Post").key("id");
+		KeysetPaginator byIdDesc = new KeysetPaginator("SELECT id, createdAt FROM Post").key("id", true);
+		KeysetPaginator byCreatedAt = new KeysetPaginator("SELECT id, createdAt FROM Post").keys("createdAt", "id");
+
+		Assert.assertTrue(byId.getFirstSql().getName().endsWith("(id ASC).first"));
+		Assert.assertNotEquals(byId.getNextSql().getName(), byIdDesc.getNextSql().getName());
+		Assert.assertNotEquals(byId.getFirstSql().getName(), byCreatedAt.getFirstSql().getName());
+
+		KeysetPaginator named = new KeysetPaginator("SELECT id FROM Post").key("id").setName("Post.page");
+		Assert.assertEquals("Post.page.next", named.getNextSql().getName());
+	}
+
+	@Test
+	public void test_fetch() throws Exception {
+		JdbcStubs.StubDataSource ds = new JdbcStubs.StubDataSource().rows(new String[] { "id", "name" },
+				Arrays.asList(new Object[] { 1L, "a" }, new Object[] { 2L, "b" }, new Object[] { 3L, "c" }));
+		KeysetPaginator paginator = new KeysetPaginator("SELECT id, name FROM Post").key("id").setPageSize(2);
+
+		// No statement cache: release would restore maxRows
+		try (ConnectionImpl conn = new ConnectionImpl(ds.get(), "", 0)) {
+			KeysetPaginator.Page<String> page = paginator.fetch(conn, null, null, rs -> rs.getString("name"));
+
+			Assert.assertEquals(Arrays.asList("a", "b"), page.getItems());
+			Assert.assertTrue(page.hasNext());
+			Assert.assertArrayEquals(new Object[] { 2L }, KeysetPaginator.decodeToken(page.getNextToken(), 1));
+
+			JdbcStubs.StubStatement first = ds.connections.get(0).statements.get(0);
+			Assert.assertEquals(paginator.getFirstSql().getTranslatedSql(), first.sql);
+			Assert.assertEquals(3, first.maxRows);
+
+			// Continuation binds the last keys of the previous page
+			paginator.fetch(conn, null, page.getNextToken(), rs -> rs.getString("name"));
+
+			JdbcStubs.StubStatement next = ds.connections.get(0).statements.get(1);
+			Assert.assertEquals(paginator.getNextSql().getTranslatedSql(), next.sql);
+			Assert.assertEquals(Collections.singletonMap(1, 2L), next.executed.get(0));
+		}
+	}
+
+	@Test
+	public void test_readPage() throws Exception {
+		KeysetPaginator paginator = new KeysetPaginator("SELECT id FROM Post").key("id").setPageSize(2);
+
+		// Fewer rows than the page size
+		KeysetPaginator.Page<Long> page = readPage(paginator, 1L);
+		Assert.assertEquals(Arrays.asList(1L), page.getItems());
+		Assert.assertFalse(page.hasNext());
+
+		// Exactly the page size: no next page
+		page = readPage(paginator, 1L, 2L);
+		Assert.assertEquals(Arrays.asList(1L, 2L), page.getItems());
+		Assert.assertFalse(page.hasNext());
+
+		// One extra row: next page from the last item
+		page = readPage(paginator, 1L, 2L, 3L);
+		Assert.assertEquals(Arrays.asList(1L, 2L), page.getItems());
+		Assert.assertEquals(KeysetPaginator.encodeToken(new Object[] { 2L }), page.getNextToken());
+	}
+
+	@Test
+	public void test_readPage_nullKey() throws Exception {
+		KeysetPaginator paginator = new KeysetPaginator("SELECT id FROM Post").key("id").setPageSize(1);
+		try {
+			readPage(paginator, null, 2L);
+			Assert.fail();
+		} catch (NullPointerException ex) {
+		}
+	}
+
+	static KeysetPaginator.Page<Long> readPage(KeysetPaginator paginator, Long... ids) throws Exception {
+		List<Object[]> rows = new ArrayList<>();
+		for (Long id : ids) {
+			rows.add(new Object[] { id });
+		}
+		try (ResultSetImpl rs = new ResultSetImpl(JdbcStubs.resultSet(new String[] { "id" }, rows))) {
+			return paginator.readPage(rs, r -> (Long) r.getObject("id"));
+		}
+	}
+}
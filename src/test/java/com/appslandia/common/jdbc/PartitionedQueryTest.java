@@ -0,0 +1,87 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class PartitionedQueryTest {
+
+	@Test
+	public void test_splitRange() {
+		long[][] ranges = PartitionedQuery.splitRange(0, 10, 4);
+
+		Assert.assertEquals(4, ranges.length);
+		Assert.assertArrayEquals(new long[] { 0, 3 }, ranges[0]);
+		Assert.assertArrayEquals(new long[] { 3, 6 }, ranges[1]);
+		Assert.assertArrayEquals(new long[] { 6, 8 }, ranges[2]);
+		Assert.assertArrayEquals(new long[] { 8, 10 }, ranges[3]);
+	}
+
+	@Test
+	public void test_splitRange_small() {
+		long[][] ranges = PartitionedQuery.splitRange(5, 7, 4);
+
+		Assert.assertEquals(2, ranges.length);
+		Assert.assertArrayEquals(new long[] { 5, 6 }, ranges[0]);
+		Assert.assertArrayEquals(new long[] { 6, 7 }, ranges[1]);
+	}
+
+	@Test
+	public void test_splitRange_empty() {
+		long[][] ranges = PartitionedQuery.splitRange(5, 5, 4);
+
+		Assert.assertEquals(1, ranges.length);
+		Assert.assertArrayEquals(new long[] { 5, 5 }, ranges[0]);
+	}
+
+	@Test
+	public void test_splitRange_wide() {
+		long[][] ranges = PartitionedQuery.splitRange(Long.MIN_VALUE, Long.MAX_VALUE, 4);
+
+		// The width overflows a signed long
+		Assert.assertEquals(4, ranges.length);
+		Assert.assertEquals(Long.MIN_VALUE, ranges[0][0]);
+		Assert.assertEquals(Long.MAX_VALUE, ranges[3][1]);
+
+		for (int i = 0; i < ranges.length; i++) {
+			Assert.assertTrue(ranges[i][0] < ranges[i][1]);
+			if (i > 0) {
+				Assert.assertEquals(ranges[i - 1][1], ranges[i][0]);
+			}
+		}
+		Assert.assertArrayEquals(new long[] { Long.MIN_VALUE, -(1L << 62) }, ranges[0]);
+	}
+
+	@Test
+	public void test_splitRange_negative() {
+		long[][] ranges = PartitionedQuery.splitRange(-10, -4, 3);
+
+		Assert.assertArrayEquals(new long[] { -10, -8 }, ranges[0]);
+		Assert.assertArrayEquals(new long[] { -6, -4 }, ranges[2]);
+	}
+}
@@ -0,0 +1,217 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class QueryCacheTest {
+
+	final Sql countrySql = new Sql().sql("SELECT * FROM Country WHERE regionId = :regionId").setName("Country.byRegion").tables("Country");
+
+	@Test
+	public void test_hit() throws Exception {
+		QueryCache cache = new QueryCache();
+		AtomicInteger loads = new AtomicInteger();
+
+		for (int i = 0; i < 3; i++) {
+			String value = cache.getOrLoad("", this.countrySql, Collections.singletonMap("regionId", 1), () -> "v" + loads.incrementAndGet());
+			Assert.assertEquals("v1", value);
+		}
+		Assert.assertEquals(1, loads.get());
+		Assert.assertEquals(2, cache.getHitCount());
+		Assert.assertEquals(1, cache.getMissCount());
+
+		// Different parameters
+		String value = cache.getOrLoad("", this.countrySql, Collections.singletonMap("regionId", 2), () -> "v" + loads.incrementAndGet());
+		Assert.assertEquals("v2", value);
+	}
+
+	@Test
+	public void test_invalidate() throws Exception {
+		QueryCache cache = new QueryCache();
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.getOrLoad("", this.countrySql, null, () -> loads.incrementAndGet());
+		cache.invalidate("Region");
+		cache.getOrLoad("", this.countrySql, null, () -> loads.incrementAndGet());
+		Assert.assertEquals(1, loads.get());
+
+		cache.invalidate("COUNTRY");
+		Assert.assertEquals(Integer.valueOf(2), cache.getOrLoad("", this.countrySql, null, () -> loads.incrementAndGet()));
+	}
+
+	@Test
+	public void test_invalidate_duringLoad() throws Exception {
+		QueryCache cache = new QueryCache();
+
+		cache.getOrLoad("", this.countrySql, null, () -> {
+			cache.invalidate("Country");
+			return "stale";
+		});
+		Assert.assertEquals("fresh", cache.getOrLoad("", this.countrySql, null, () -> "fresh"));
+	}
+
+	@Test
+	public void test_ttl() throws Exception {
+		QueryCache cache = new QueryCache(10, 1);
+
+		cache.getOrLoad("", this.countrySql, null, () -> "v1");
+		Thread.sleep(5);
+		Assert.assertEquals("v2", cache.getOrLoad("", this.countrySql, null, () -> "v2"));
+	}
+
+	@Test
+	public void test_maxEntries() throws Exception {
+		QueryCache cache = new QueryCache(2, 60_000);
+
+		for (int i = 0; i < 5; i++) {
+			final int regionId = i;
+			cache.getOrLoad("", this.countrySql, Collections.singletonMap("regionId", regionId), () -> regionId);
+		}
+		Assert.assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void test_arrayParams() throws Exception {
+		QueryCache cache = new QueryCache();
+
+		cache.getOrLoad("", this.countrySql, Collections.singletonMap("ids", new int[] { 1, 2 }), () -> "v1");
+		Assert.assertEquals("v1", cache.getOrLoad("", this.countrySql, Collections.singletonMap("ids", new int[] { 1, 2 }), () -> "v2"));
+	}
+
+	@Test
+	public void test_resultKey() throws Exception {
+		QueryCache cache = new QueryCache();
+
+		cache.getOrLoad("", this.countrySql, null, QueryCache.toResultKey("list", "names"), () -> Collections.singletonList("v1"));
+		Assert.assertEquals("v2", cache.getOrLoad("", this.countrySql, null, QueryCache.toResultKey("single", "names"), () -> "v2"));
+		Assert.assertEquals(2, cache.size());
+
+		// Named results are shared
+		Assert.assertEquals("v2", cache.getOrLoad("", this.countrySql, null, QueryCache.toResultKey("single", "names"), () -> "v3"));
+	}
+
+	@Test
+	public void test_listAndScalar() throws Exception {
+		JdbcStubs.StubDataSource ds = new JdbcStubs.StubDataSource().rows(new String[] { "name" }, Collections.singletonList(new Object[] { "VN" }));
+		ConnectionImpl.setQueryCache(new QueryCache());
+
+		try (ConnectionImpl conn = new ConnectionImpl(ds.get())) {
+			Assert.assertEquals(Collections.singletonList("VN"), conn.executeList(this.countrySql, Collections.emptyMap(), rs -> rs.getString(1)));
+			Assert.assertEquals("VN", conn.executeScalar(this.countrySql, Collections.emptyMap()));
+			Assert.assertEquals("VN", conn.executeScalar(this.countrySql, Collections.emptyMap()));
+
+			Assert.assertEquals(2, ConnectionImpl.getQueryCache().getMissCount());
+			Assert.assertEquals(1, ConnectionImpl.getQueryCache().getHitCount());
+		} finally {
+			ConnectionImpl.setQueryCache(null);
+		}
+	}
+
+	@Test
+	public void test_transaction() throws Exception {
+		JdbcStubs.StubDataSource ds = new JdbcStubs.StubDataSource().rows(new String[] { "name" }, Collections.singletonList(new Object[] { "VN" }));
+		QueryCache cache = new QueryCache();
+		ConnectionImpl.setQueryCache(cache);
+
+		Sql updateSql = new Sql().sql("UPDATE Country SET name = :name").tables("Country");
+		try (ConnectionImpl conn = new ConnectionImpl(ds.get())) {
+			conn.setAutoCommit(false);
+
+			conn.executeUpdate(updateSql, Collections.singletonMap("name", "VN"));
+			Assert.assertEquals(0, cache.getInvalidationCount());
+
+			// Reads inside the transaction bypass the cache
+			conn.executeScalar(this.countrySql, Collections.emptyMap());
+			Assert.assertEquals(0, cache.size());
+
+			conn.commit();
+			Assert.assertEquals(1, cache.getInvalidationCount());
+
+			conn.executeUpdate(updateSql, Collections.singletonMap("name", "VN"));
+			conn.rollback();
+			Assert.assertEquals(2, cache.getInvalidationCount());
+		} finally {
+			ConnectionImpl.setQueryCache(null);
+		}
+	}
+
+	@Test
+	public void test_capturingMapper() throws Exception {
+		JdbcStubs.StubDataSource ds = new JdbcStubs.StubDataSource().rows(new String[] { "name" }, Collections.singletonList(new Object[] { "VN" }));
+		QueryCache cache = new QueryCache();
+		ConnectionImpl.setQueryCache(cache);
+
+		try (ConnectionImpl conn = new ConnectionImpl(ds.get())) {
+			for (int i = 0; i < 2; i++) {
+				String column = "name";
+				conn.executeList(this.countrySql, Collections.emptyMap(), rs -> rs.getString(column));
+			}
+
+			// A capturing lambda is a new mapper per call: never hits
+			Assert.assertEquals(0, cache.getHitCount());
+			Assert.assertEquals(2, cache.size());
+
+			for (int i = 0; i < 2; i++) {
+				String column = "name";
+				Assert.assertEquals(Collections.singletonList("VN"),
+						conn.executeList(this.countrySql, Collections.emptyMap(), "names", rs -> rs.getString(column)));
+				Assert.assertEquals("VN", conn.executeSingle(this.countrySql, Collections.emptyMap(), "name", rs -> rs.getString(column)));
+			}
+			Assert.assertEquals(2, cache.getHitCount());
+			Assert.assertEquals(4, cache.size());
+		} finally {
+			ConnectionImpl.setQueryCache(null);
+		}
+	}
+
+	@Test
+	public void test_rollbackSavepoint() throws Exception {
+		JdbcStubs.StubDataSource ds = new JdbcStubs.StubDataSource();
+		QueryCache cache = new QueryCache();
+		ConnectionImpl.setQueryCache(cache);
+
+		Sql updateSql = new Sql().sql("UPDATE Country SET name = :name").tables("Country");
+		try (ConnectionImpl conn = new ConnectionImpl(ds.get())) {
+			conn.setAutoCommit(false);
+			conn.executeUpdate(updateSql, Collections.singletonMap("name", "VN"));
+
+			// Writes before the savepoint stay pending
+			conn.rollback(conn.setSavepoint());
+			Assert.assertEquals(0, cache.getInvalidationCount());
+
+			conn.commit();
+			Assert.assertEquals(1, cache.getInvalidationCount());
+		} finally {
+			ConnectionImpl.setQueryCache(null);
+		}
+	}
+}
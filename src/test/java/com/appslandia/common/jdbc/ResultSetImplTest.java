@@ -0,0 +1,125 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class ResultSetImplTest {
+
+	final AtomicInteger metaDataCount = new AtomicInteger();
+	final AtomicInteger findColumnCount = new AtomicInteger();
+
+	ResultSetImpl newResultSet(String... columns) {
+		Object[] row = new Object[columns.length];
+		for (int i = 0; i < row.length; i++) {
+			row[i] = "v" + (i + 1);
+		}
+		JdbcStubs.StubResultSet handler = new JdbcStubs.StubResultSet(columns, Collections.singletonList(row), null) {
+
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				if (method.getName().equals("getMetaData")) {
+					metaDataCount.incrementAndGet();
+				}
+				return super.invoke(proxy, method, args);
+			}
+
+			@Override
+			int findColumn(String label) throws SQLException {
+				findColumnCount.incrementAndGet();
+
+				// Driver-side resolution, e.g. a qualified name
+				if (label.equals("u.id")) {
+					return 1;
+				}
+				return super.findColumn(label);
+			}
+		};
+		return new ResultSetImpl(JdbcStubs.proxy(ResultSet.class, handler));
+	}
+
+	@Test
+	public void test_findColumn() throws Exception {
+		try (ResultSetImpl rs = newResultSet("id", "userName")) {
+			Assert.assertEquals(1, rs.findColumn("id"));
+			Assert.assertEquals(2, rs.findColumn("userName"));
+
+			// Labels are read once
+			Assert.assertEquals(1, this.metaDataCount.get());
+			Assert.assertEquals(0, this.findColumnCount.get());
+			Assert.assertArrayEquals(new String[] { "id", "userName" }, rs.getColumnLabels());
+		}
+	}
+
+	@Test
+	public void test_findColumn_caseInsensitive() throws Exception {
+		try (ResultSetImpl rs = newResultSet("ID", "userName", "USERNAME")) {
+			Assert.assertEquals(1, rs.findColumn("id"));
+			Assert.assertEquals(2, rs.findColumn("username"));
+
+			// Exact match first
+			Assert.assertEquals(3, rs.findColumn("USERNAME"));
+
+			Assert.assertTrue(rs.next());
+			Assert.assertEquals("v1", rs.getString("Id"));
+		}
+	}
+
+	@Test
+	public void test_findColumn_duplicates() throws Exception {
+		try (ResultSetImpl rs = newResultSet("id", "name", "id")) {
+			// First column wins
+			Assert.assertEquals(1, rs.findColumn("id"));
+			Assert.assertEquals(1, rs.findColumn("ID"));
+
+			Assert.assertTrue(rs.next());
+			Assert.assertEquals("v1", rs.getString("id"));
+		}
+	}
+
+	@Test
+	public void test_findColumn_unknown() throws Exception {
+		try (ResultSetImpl rs = newResultSet("id", "name")) {
+			// Unknown labels go to the driver
+			Assert.assertEquals(1, rs.findColumn("u.id"));
+			Assert.assertEquals(1, this.findColumnCount.get());
+			try {
+				rs.findColumn("unknown");
+				Assert.fail();
+			} catch (SQLException ex) {
+			}
+			Assert.assertEquals(2, this.findColumnCount.get());
+		}
+	}
+}
@@ -0,0 +1,130 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class RoutingDataSourceTest {
+
+	final JdbcStubs.StubDataSource primary = new JdbcStubs.StubDataSource();
+	final JdbcStubs.StubDataSource replica0 = new JdbcStubs.StubDataSource();
+	final JdbcStubs.StubDataSource replica1 = new JdbcStubs.StubDataSource();
+
+	RoutingDataSource newRouting() {
+		return new RoutingDataSource(this.primary.get()).addReplica(this.replica0.get()).addReplica(this.replica1.get());
+	}
+
+	@Test
+	public void test_roundRobin() throws Exception {
+		RoutingDataSource ds = newRouting().setStrategy(RoutingDataSource.Strategy.ROUND_ROBIN);
+
+		// Outstanding connections do not matter
+		for (int i = 0; i < 4; i++) {
+			ds.getReadConnection();
+		}
+		Assert.assertEquals(2, this.replica0.openCount.get());
+		Assert.assertEquals(2, this.replica1.openCount.get());
+		Assert.assertEquals(0, this.primary.openCount.get());
+	}
+
+	@Test
+	public void test_leastOutstanding() throws Exception {
+		RoutingDataSource ds = newRouting();
+
+		Connection c0 = ds.getReadConnection();
+		Connection c1 = ds.getReadConnection();
+		Assert.assertEquals(1, this.replica0.openCount.get());
+		Assert.assertEquals(1, this.replica1.openCount.get());
+
+		// Round-robin position is replica0, but replica1 has no outstanding connection
+		c1.close();
+		ds.getReadConnection().close();
+		Assert.assertEquals(1, this.replica0.openCount.get());
+		Assert.assertEquals(2, this.replica1.openCount.get());
+
+		c0.close();
+	}
+
+	@Test
+	public void test_outstanding() throws Exception {
+		RoutingDataSource ds = newRouting();
+
+		Connection conn = ds.getReadDataSource().getConnection();
+		Assert.assertEquals(1, ds.getOutstanding(0));
+		Assert.assertFalse(conn.isClosed());
+
+		conn.close();
+		Assert.assertTrue(this.replica0.connections.get(0).closed);
+		Assert.assertEquals(0, ds.getOutstanding(0));
+
+		// Closing twice releases once
+		conn.close();
+		Assert.assertEquals(0, ds.getOutstanding(0));
+	}
+
+	@Test
+	public void test_failover() throws Exception {
+		RoutingDataSource ds = newRouting();
+		this.replica0.fail = true;
+
+		ds.getReadConnection().close();
+		Assert.assertEquals(1, this.replica1.openCount.get());
+		Assert.assertEquals(0, ds.getOutstanding(0));
+		Assert.assertEquals(0, this.primary.openCount.get());
+	}
+
+	@Test
+	public void test_fallbackToPrimary() throws Exception {
+		RoutingDataSource ds = newRouting();
+		this.replica0.fail = true;
+		this.replica1.fail = true;
+
+		ds.getReadConnection().close();
+		Assert.assertEquals(1, this.primary.openCount.get());
+
+		ds.setFallbackToPrimary(false);
+		try {
+			ds.getReadConnection();
+			Assert.fail();
+		} catch (SQLException ex) {
+			Assert.assertEquals(1, ex.getSuppressed().length);
+		}
+		Assert.assertEquals(1, this.primary.openCount.get());
+	}
+
+	@Test
+	public void test_noReplicas() throws Exception {
+		RoutingDataSource ds = new RoutingDataSource(this.primary.get());
+
+		ds.getReadConnection().close();
+		Assert.assertEquals(1, this.primary.openCount.get());
+	}
+}
@@ -0,0 +1,58 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class SlowQueryRecorderTest {
+
+	@Test
+	public void test_getEntries() {
+		SlowQueryRecorder recorder = new SlowQueryRecorder(100, 3, 10, 10);
+		for (int i = 0; i < 5; i++) {
+			recorder.add(new SlowQueryRecorder.Entry("sql" + i, null, Collections.emptyMap(), i, 0, 0, 0));
+		}
+
+		List<SlowQueryRecorder.Entry> entries = recorder.getEntries();
+		Assert.assertEquals(3, entries.size());
+		Assert.assertEquals("sql2", entries.get(0).getName());
+		Assert.assertEquals("sql4", entries.get(2).getName());
+		Assert.assertEquals(5, recorder.getRecordedCount());
+	}
+
+	@Test
+	public void test_toSnapshotValue() {
+		Assert.assertEquals(10, StatementImpl.toSnapshotValue(10, 3));
+		Assert.assertEquals("abc...", StatementImpl.toSnapshotValue("abcdef", 3));
+		Assert.assertEquals("byte[4]", StatementImpl.toSnapshotValue(new byte[4], 3));
+		Assert.assertNull(StatementImpl.toSnapshotValue(null, 3));
+	}
+}
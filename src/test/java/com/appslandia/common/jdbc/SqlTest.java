@@ -20,9 +20,14 @@
 
 package com.appslandia.common.jdbc;
 
+import java.util.List;
+import java.util.Map;
+
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.appslandia.common.utils.CollectionUtils;
+
 /**
  *
  * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
@@ -121,4 +126,119 @@ public class SqlTest {
 		Assert.assertArrayEquals(sql.getIndexes("names__0"), new int[] { 4 });
 		Assert.assertArrayEquals(sql.getIndexes("names__1"), new int[] { 5 });
 	}
+
+	@Test
+	public void test_of() {
+		Sql sql1 = Sql.of("SELECT * FROM User WHERE userId=:id");
+		Sql sql2 = Sql.of("SELECT * FROM User WHERE userId=:id");
+
+		Assert.assertSame(sql1, sql2);
+		Assert.assertEquals(sql1.getTranslatedSql(), "SELECT * FROM User WHERE userId=?");
+	}
+
+	@Test
+	public void test_of_arrayLens() {
+		String sqlText = "SELECT * FROM User WHERE userId IN :ids";
+		Sql sql1 = Sql.of(sqlText, CollectionUtils.toMap("ids", 2));
+		Sql sql2 = Sql.of(sqlText, CollectionUtils.toMap("ids", 3));
+
+		Assert.assertNotSame(sql1, sql2);
+		Assert.assertSame(sql1, Sql.of(sqlText, CollectionUtils.toMap("ids", 2)));
+
+		Assert.assertEquals(sql1.getTranslatedSql(), "SELECT * FROM User WHERE userId IN (?, ?)");
+		Assert.assertEquals(sql2.getTranslatedSql(), "SELECT * FROM User WHERE userId IN (?, ?, ?)");
+	}
+
+	@Test
+	public void test_of_immutable() {
+		Sql sql = Sql.of("SELECT * FROM User");
+		try {
+			sql.setName("User.all");
+			Assert.fail();
+		} catch (IllegalStateException ex) {
+		}
+	}
+
+	@Test
+	public void test_notParams() {
+		String sqlText = "SELECT * FROM User WHERE userName=': ' OR userName=:";
+		Sql sql = new Sql().sql(sqlText);
+		Assert.assertEquals(sql.getTranslatedSql(), sqlText);
+	}
+
+	@Test
+	public void test_LIKE_ANY_inParentheses() {
+		String sqlText = "SELECT * FROM User WHERE (userName LIKE_ANY :names) AND userId=:id";
+		Sql sql = new Sql().sql(sqlText).arrayLen("names", 2);
+
+		Assert.assertEquals(sql.getTranslatedSql(), "SELECT * FROM User WHERE (userName LIKE ? OR userName LIKE ?) AND userId=?");
+		Assert.assertArrayEquals(sql.getIndexes("id"), new int[] { 3 });
+	}
+
+	@Test
+	public void test_arrayLen_notArrayParam() {
+		try {
+			new Sql().sql("SELECT * FROM User WHERE userId=:id").arrayLen("id", 2).getTranslatedSql();
+			Assert.fail();
+		} catch (Exception ex) {
+		}
+	}
+
+	@Test
+	public void test_bucketed() {
+		String sqlText = "SELECT * FROM User WHERE userId IN :ids";
+		Sql sql = new Sql().sql(sqlText).arrayLen("ids", 8).bucketed();
+
+		Assert.assertEquals(sql.getBucketSql("ids", 0).getTranslatedSql(), "SELECT * FROM User WHERE userId IN (?)");
+		Assert.assertEquals(sql.getBucketSql("ids", 2).getTranslatedSql(), "SELECT * FROM User WHERE userId IN (?, ?)");
+		Assert.assertEquals(sql.getBucketSql("ids", 3).getTranslatedSql(), "SELECT * FROM User WHERE userId IN (?, ?, ?, ?)");
+
+		Assert.assertSame(sql.getBucketSql("ids", 3), sql.getBucketSql("ids", 4));
+		Assert.assertSame(sql.getBucketSql("ids", 8), sql);
+
+		Assert.assertEquals(sql.getBucketSql("ids", 3).getArrayLen("ids"), 4);
+	}
+
+	@Test
+	public void test_bucketed_LIKE_ANY() {
+		String sqlText = "SELECT * FROM User WHERE userId IN :ids AND (userName LIKE_ANY :names)";
+		Sql sql = new Sql().sql(sqlText).arrayLen("ids", 4).arrayLen("names", 4).bucketed();
+
+		Assert.assertTrue(sql.isLikeAnyParam("names"));
+		Assert.assertFalse(sql.isLikeAnyParam("ids"));
+
+		Sql bucketSql = sql.getBucketSql(CollectionUtils.toMap("ids", 1, "names", 2));
+		Assert.assertEquals(bucketSql.getTranslatedSql(), "SELECT * FROM User WHERE userId IN (?) AND (userName LIKE ? OR userName LIKE ?)");
+	}
+
+	@Test
+	public void test_bucketed_exceeded() {
+		Sql sql = new Sql().sql("SELECT * FROM User WHERE userId IN :ids").arrayLen("ids", 4).bucketed();
+		try {
+			sql.getBucketSql("ids", 5);
+			Assert.fail();
+		} catch (IllegalArgumentException ex) {
+		}
+	}
+
+	@Test
+	public void test_toBucketSize() {
+		Assert.assertEquals(Sql.toBucketSize(0, 32), 1);
+		Assert.assertEquals(Sql.toBucketSize(1, 32), 1);
+		Assert.assertEquals(Sql.toBucketSize(5, 32), 8);
+		Assert.assertEquals(Sql.toBucketSize(17, 20), 20);
+	}
+
+	@Test
+	public void test_splitArrayParams() {
+		Sql sql = new Sql().sql("SELECT * FROM User WHERE userType=:type AND userId IN :ids").arrayLen("ids", 4).bucketed();
+		Map<String, Object> params = CollectionUtils.toMap("type", 1, "ids", new int[] { 1, 2, 3, 4, 5, 6, 7, 8, 9 });
+
+		List<Map<String, Object>> chunks = JdbcUtils.splitArrayParams(sql, params);
+		Assert.assertEquals(chunks.size(), 3);
+
+		Assert.assertArrayEquals((Object[]) chunks.get(0).get("ids"), new Object[] { 1, 2, 3, 4 });
+		Assert.assertArrayEquals((Object[]) chunks.get(2).get("ids"), new Object[] { 9 });
+		Assert.assertEquals(chunks.get(2).get("type"), 1);
+	}
 }
@@ -0,0 +1,158 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class StatementCacheTest {
+
+	static final int TYPE = ResultSet.TYPE_FORWARD_ONLY;
+	static final int CONCUR = ResultSet.CONCUR_READ_ONLY;
+
+	@Test
+	public void test_hit() throws Exception {
+		JdbcStubs.StubConnection stub = new JdbcStubs.StubDataSource().newConnection();
+		StatementCache cache = new StatementCache(4);
+		Sql sql = new Sql("SELECT * FROM users WHERE id=:id");
+
+		StatementImpl stat = cache.get(stub.get(), sql, TYPE, CONCUR);
+		stat.close();
+
+		Assert.assertTrue(stat == cache.get(stub.get(), sql, TYPE, CONCUR));
+		Assert.assertEquals(1, cache.getHits());
+		Assert.assertEquals(1, cache.getMisses());
+		Assert.assertEquals(1, stub.getPreparedCount());
+		Assert.assertFalse(stub.statements.get(0).closed);
+	}
+
+	@Test
+	public void test_miss_parameterNames() throws Exception {
+		JdbcStubs.StubConnection stub = new JdbcStubs.StubDataSource().newConnection();
+		StatementCache cache = new StatementCache(4);
+
+		StatementImpl stat = cache.get(stub.get(), new Sql("SELECT * FROM t WHERE a=:x AND b=:y"), TYPE, CONCUR);
+		stat.close();
+
+		// Same translated SQL, swapped parameter names
+		StatementImpl swapped = cache.get(stub.get(), new Sql("SELECT * FROM t WHERE a=:y AND b=:x"), TYPE, CONCUR);
+		Assert.assertTrue(stat != swapped);
+		Assert.assertEquals(2, cache.getMisses());
+
+		swapped.setObject("x", 1);
+		swapped.setObject("y", 2);
+		Assert.assertEquals(2, stub.statements.get(1).params.get(1));
+		Assert.assertEquals(1, stub.statements.get(1).params.get(2));
+		swapped.close();
+
+		StatementImpl renamed = cache.get(stub.get(), new Sql("SELECT * FROM t WHERE a=:a AND b=:b"), TYPE, CONCUR);
+		renamed.setObject("a", 1);
+		Assert.assertEquals(3, stub.getPreparedCount());
+	}
+
+	@Test
+	public void test_nestedUse() throws Exception {
+		JdbcStubs.StubConnection stub = new JdbcStubs.StubDataSource().newConnection();
+		StatementCache cache = new StatementCache(4);
+		Sql sql = new Sql("SELECT * FROM users WHERE id=:id");
+
+		StatementImpl outer = cache.get(stub.get(), sql, TYPE, CONCUR);
+		StatementImpl nested = cache.get(stub.get(), sql, TYPE, CONCUR);
+		Assert.assertTrue(outer != nested);
+		Assert.assertEquals(2, cache.getMisses());
+
+		// The nested statement is not cached
+		nested.close();
+		Assert.assertTrue(stub.statements.get(1).closed);
+
+		outer.close();
+		Assert.assertFalse(stub.statements.get(0).closed);
+		Assert.assertTrue(outer == cache.get(stub.get(), sql, TYPE, CONCUR));
+	}
+
+	@Test
+	public void test_eviction() throws Exception {
+		JdbcStubs.StubConnection stub = new JdbcStubs.StubDataSource().newConnection();
+		StatementCache cache = new StatementCache(2);
+		Connection conn = stub.get();
+
+		for (int i = 0; i < 3; i++) {
+			cache.get(conn, new Sql("SELECT * FROM t" + i), TYPE, CONCUR).close();
+		}
+		Assert.assertEquals(1, cache.getEvictions());
+		Assert.assertEquals(2, cache.size());
+		Assert.assertTrue(stub.statements.get(0).closed);
+		Assert.assertFalse(stub.statements.get(2).closed);
+
+		// Evicted while in use: closed on release
+		StatementImpl inUse = cache.get(conn, new Sql("SELECT * FROM t1"), TYPE, CONCUR);
+		cache.get(conn, new Sql("SELECT * FROM t3"), TYPE, CONCUR).close();
+		cache.get(conn, new Sql("SELECT * FROM t4"), TYPE, CONCUR).close();
+
+		Assert.assertFalse(stub.statements.get(1).closed);
+		inUse.close();
+		Assert.assertTrue(stub.statements.get(1).closed);
+	}
+
+	@Test
+	public void test_release() throws Exception {
+		JdbcStubs.StubConnection stub = new JdbcStubs.StubDataSource().newConnection();
+		StatementCache cache = new StatementCache(4);
+		Sql sql = new Sql("INSERT INTO t (id) VALUES (:id)");
+
+		StatementImpl stat = cache.get(stub.get(), sql, TYPE, CONCUR);
+		stat.setMaxRows(5);
+		stat.setQueryTimeout(3);
+		stat.setFetchSize(100);
+		stat.setObject("id", 1);
+		stat.addBatch();
+		stat.close();
+
+		JdbcStubs.StubStatement target = stub.statements.get(0);
+		Assert.assertEquals(0, target.maxRows);
+		Assert.assertEquals(0, target.queryTimeout);
+		Assert.assertEquals(0, target.fetchSize);
+		Assert.assertTrue(target.batch.isEmpty());
+		Assert.assertTrue(target.params.isEmpty());
+		Assert.assertFalse(target.closed);
+	}
+
+	@Test
+	public void test_close() throws Exception {
+		JdbcStubs.StubConnection stub = new JdbcStubs.StubDataSource().newConnection();
+		StatementCache cache = new StatementCache(4);
+
+		cache.get(stub.get(), new Sql("SELECT 1"), TYPE, CONCUR).close();
+		cache.close();
+
+		Assert.assertTrue(stub.statements.get(0).closed);
+		Assert.assertEquals(0, cache.size());
+	}
+}
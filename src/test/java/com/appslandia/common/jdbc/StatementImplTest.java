@@ -0,0 +1,113 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.sql.rowset.serial.SerialBlob;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class StatementImplTest {
+
+	@Test
+	public void test_executeStream() throws Exception {
+		JdbcStubs.StubConnection stub = new JdbcStubs.StubDataSource()
+				.rows(new String[] { "name" }, Arrays.asList(new Object[] { "a" }, new Object[] { "b" }, new Object[] { "c" })).newConnection();
+
+		StatementImpl stat = new StatementImpl(stub.get(), new Sql("SELECT name FROM users"));
+		try (Stream<String> stream = stat.executeStream(rs -> rs.getString(1))) {
+
+			List<String> names = stream.limit(2).collect(Collectors.toList());
+			Assert.assertEquals(Arrays.asList("a", "b"), names);
+			Assert.assertFalse(stub.statements.get(0).closed);
+		}
+
+		// The statement closes with the stream
+		Assert.assertTrue(stub.statements.get(0).closed);
+	}
+
+	@Test
+	public void test_executeStream_fetchSize() throws Exception {
+		JdbcStubs.StubConnection stub = new JdbcStubs.StubDataSource().newConnection();
+
+		StatementImpl stat = new StatementImpl(stub.get(), new Sql("SELECT name FROM users"));
+		try (Stream<String> stream = stat.executeStream(rs -> rs.getString(1), 500)) {
+			Assert.assertEquals(0, stream.count());
+		}
+		Assert.assertEquals(500, stub.statements.get(0).fetchSize);
+		Assert.assertTrue(stub.statements.get(0).closed);
+	}
+
+	@Test
+	public void test_executeStream_channel() throws Exception {
+		byte[] data = new byte[1000];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) i;
+		}
+		// Whole blob
+		Assert.assertArrayEquals(data, readBlob(data, 0, -1));
+
+		// Offset and length
+		Assert.assertArrayEquals(Arrays.copyOfRange(data, 100, 150), readBlob(data, 100, 50));
+
+		// Length past the end
+		Assert.assertArrayEquals(Arrays.copyOfRange(data, 990, 1000), readBlob(data, 990, 100));
+
+		// Offset past the end
+		Assert.assertEquals(0, readBlob(data, 2000, 10).length);
+	}
+
+	@Test
+	public void test_executeStream_channel_noRow() throws Exception {
+		JdbcStubs.StubConnection stub = new JdbcStubs.StubDataSource().newConnection();
+
+		try (StatementImpl stat = new StatementImpl(stub.get(), new Sql("SELECT data FROM files"))) {
+			Assert.assertEquals(-1, stat.executeStream("data", Channels.newChannel(new ByteArrayOutputStream()), null));
+		}
+	}
+
+	static byte[] readBlob(byte[] data, long offset, long length) throws Exception {
+		// The blob is freed after each read
+		JdbcStubs.StubDataSource ds = new JdbcStubs.StubDataSource().rows(new String[] { "data" },
+				Collections.singletonList(new Object[] { new SerialBlob(data) }));
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+		try (StatementImpl stat = new StatementImpl(ds.newConnection().get(), new Sql("SELECT data FROM files"))) {
+			long transferred = stat.executeStream("data", offset, length, Channels.newChannel(os), null);
+			Assert.assertEquals(os.size(), transferred);
+		}
+		return os.toByteArray();
+	}
+}
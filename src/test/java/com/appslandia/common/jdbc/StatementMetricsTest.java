@@ -0,0 +1,105 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.jdbc;
+
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class StatementMetricsTest {
+
+	@Test
+	public void test_toBucket() {
+		for (long nanos : new long[] { 0, 1, 7, 8, 9, 15, 16, 1000, 123_456_789, Long.MAX_VALUE }) {
+			int bucket = StatementMetrics.toBucket(nanos);
+
+			Assert.assertTrue(bucket < StatementMetrics.BUCKET_COUNT);
+			Assert.assertTrue(nanos <= StatementMetrics.toUpperBound(bucket));
+			Assert.assertTrue(bucket == 0 || nanos > StatementMetrics.toUpperBound(bucket - 1));
+		}
+	}
+
+	@Test
+	public void test_record() {
+		StatementMetrics metrics = new StatementMetrics("test");
+		for (int i = 1; i <= 100; i++) {
+			metrics.record(true, i * 1000, 0, 10, 0);
+		}
+		metrics.record(false, 500, 0, 20, 20);
+
+		Assert.assertEquals(101, metrics.getCount());
+		Assert.assertEquals(1000, metrics.getRowsRead());
+		Assert.assertEquals(20, metrics.getRowsAffected());
+		Assert.assertEquals(1, metrics.getBatchCount());
+		Assert.assertEquals(100_000, metrics.getMaxNanos());
+
+		// Within the bucket resolution
+		Assert.assertEquals(50_000, metrics.getP50Nanos(), 50_000 * 0.125);
+		Assert.assertEquals(99_000, metrics.getP99Nanos(), 99_000 * 0.125);
+	}
+
+	@Test
+	public void test_connectionHelpers() throws Exception {
+		JdbcStubs.StubDataSource ds = new JdbcStubs.StubDataSource().rows(new String[] { "name" }, Collections.singletonList(new Object[] { "a" }));
+		JdbcMetricsRegistry registry = new JdbcMetricsRegistry();
+		StatementImpl.setListener(registry);
+
+		try (ConnectionImpl conn = new ConnectionImpl(ds.get())) {
+			conn.executeList("SELECT name FROM users WHERE id = 1", rs -> rs.getString(1));
+			conn.executeScalar("SELECT name FROM users WHERE id = 2");
+			conn.executeUpdate("DELETE FROM users WHERE id = 3");
+
+			StatementMetrics metrics = registry.getMetrics("SELECT name FROM users WHERE id = ?");
+			Assert.assertEquals(2, metrics.getCount());
+			Assert.assertEquals(2, metrics.getRowsRead());
+			Assert.assertEquals(1, registry.getMetrics("DELETE FROM users WHERE id = ?").getRowsAffected());
+
+			// Raw SQL runs on plain statements: nothing is prepared
+			for (JdbcStubs.StubStatement stat : ds.connections.get(0).statements) {
+				Assert.assertNull(stat.sql);
+				Assert.assertTrue(stat.closed);
+			}
+		} finally {
+			StatementImpl.setListener(null);
+		}
+	}
+
+	@Test
+	public void test_connectionHelpers_noListener() throws Exception {
+		JdbcStubs.StubDataSource ds = new JdbcStubs.StubDataSource().rows(new String[] { "data" }, Collections.singletonList(new Object[] { "a" }));
+
+		try (ConnectionImpl conn = new ConnectionImpl(ds.get())) {
+			// ?| is a JSON operator here, not a placeholder
+			Assert.assertEquals(1, conn.executeList("SELECT data FROM docs WHERE data ?| array['a']", rs -> rs.getString(1)).size());
+			Assert.assertEquals(1, conn.executeUpdate("CREATE INDEX docs_data ON docs (data)"));
+
+			Assert.assertEquals(2, ds.connections.get(0).statements.size());
+			Assert.assertNull(ds.connections.get(0).statements.get(0).sql);
+		}
+	}
+}
@@ -0,0 +1,61 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.record;
+
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.appslandia.common.jdbc.BeanResultSetMapper;
+import com.appslandia.common.jdbc.JdbcStubs;
+import com.appslandia.common.jdbc.ResultSetImpl;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class BeanResultSetMapperAccessTest {
+
+	@Test
+	public void test_nonPublicBean() throws Exception {
+		try (ResultSetImpl rs = new ResultSetImpl(
+				JdbcStubs.resultSet(new String[] { "id", "name" }, Collections.singletonList(new Object[] { 1L, "loc" })))) {
+			Assert.assertTrue(rs.next());
+			UserRow row = BeanResultSetMapper.of(UserRow.class).map(rs);
+
+			Assert.assertEquals(1L, row.id);
+			Assert.assertEquals("LOC", row.name);
+		}
+	}
+
+	// Package-private row class with a public setter and a field
+	static class UserRow {
+		long id;
+		String name;
+
+		public void setName(String name) {
+			this.name = name.toUpperCase();
+		}
+	}
+}
@@ -55,4 +55,14 @@ public class BitValuesValidatorTest {
 		FieldError error = validator.validate(2, null);
 		Assert.assertNotNull(error);
 	}
+
+	@Test
+	public void test_compile() {
+		FieldValidator.Compiled compiled = validator.compile(null);
+
+		Assert.assertNull(compiled.validate(BitBool.TRUE));
+		Assert.assertNull(compiled.validate(BitBool.FALSE));
+		Assert.assertNotNull(compiled.validate(2));
+		Assert.assertNotNull(compiled.validate(-1));
+	}
 }
@@ -0,0 +1,156 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.record;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.appslandia.common.jdbc.JdbcStubs;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class BulkLoaderTest {
+
+	final Table users = new Table("users").key("id", Types.INTEGER).fields("name");
+	final JdbcStubs.StubDataSource stubs = new JdbcStubs.StubDataSource();
+
+	int getInsertedCount() {
+		int count = 0;
+		for (JdbcStubs.StubConnection conn : this.stubs.connections) {
+			for (JdbcStubs.StubStatement stat : conn.statements) {
+				count += stat.executed.size();
+			}
+		}
+		return count;
+	}
+
+	static String csv(int rows) {
+		StringBuilder sb = new StringBuilder("id,name\n");
+		for (int i = 1; i <= rows; i++) {
+			sb.append(i).append(",name").append(i).append('\n');
+		}
+		return sb.toString();
+	}
+
+	@Test(timeout = 10_000)
+	public void test_load() throws Exception {
+		BulkLoader loader = new BulkLoader(this.stubs.get(), this.users).setChunkRows(2).setQueueChunks(1).setValidatorThreads(2).setWriterConnections(2);
+		BulkLoader.Result result = loader.load(new StringReader(csv(9)));
+
+		Assert.assertEquals(9, result.getRowsRead());
+		Assert.assertEquals(9, result.getRowsLoaded());
+		Assert.assertEquals(0, result.getRowsRejected());
+		Assert.assertEquals(9, getInsertedCount());
+
+		// One commit per chunk, writer connections closed at END
+		Assert.assertEquals(5, this.stubs.connections.stream().mapToInt(c -> c.commitCount.get()).sum());
+		Assert.assertEquals(2, this.stubs.connections.size());
+		Assert.assertTrue(this.stubs.connections.stream().allMatch(c -> c.closed));
+	}
+
+	@Test(timeout = 10_000)
+	public void test_load_noHeader() throws Exception {
+		BulkLoader loader = new BulkLoader(this.stubs.get(), this.users).setHeader(false).setValidatorThreads(1);
+		BulkLoader.Result result = loader.load(new StringReader("1,a\n\n2,b\n"));
+
+		// Blank lines are skipped
+		Assert.assertEquals(2, result.getRowsRead());
+		Assert.assertEquals(2, result.getRowsLoaded());
+	}
+
+	@Test(timeout = 10_000)
+	public void test_load_empty() throws Exception {
+		BulkLoader.Result result = new BulkLoader(this.stubs.get(), this.users).load(new StringReader(""));
+
+		Assert.assertEquals(0, result.getRowsRead());
+		Assert.assertEquals(0, result.getRowsLoaded());
+	}
+
+	@Test(timeout = 10_000)
+	public void test_rejected() throws Exception {
+		List<String[]> rejected = Collections.synchronizedList(new ArrayList<>());
+		BulkLoader loader = new BulkLoader(this.stubs.get(), this.users).setRejectHandler((rowNumber, row, message) -> {
+			Assert.assertNotNull(message);
+			rejected.add(row);
+		});
+		BulkLoader.Result result = loader.load(new StringReader("id,name\n1,a\nx,b\n3,c\n"));
+
+		Assert.assertEquals(3, result.getRowsRead());
+		Assert.assertEquals(2, result.getRowsLoaded());
+		Assert.assertEquals(1, result.getRowsRejected());
+		Assert.assertEquals(1, rejected.size());
+		Assert.assertEquals("x", rejected.get(0)[0]);
+	}
+
+	@Test(timeout = 10_000)
+	public void test_writerFailure() throws Exception {
+		this.stubs.fail = true;
+
+		// Bounded queues: the failure must drain the pipeline instead of blocking it
+		BulkLoader loader = new BulkLoader(this.stubs.get(), this.users).setChunkRows(1).setQueueChunks(1).setValidatorThreads(2).setWriterConnections(2);
+		try {
+			loader.load(new StringReader(csv(100)));
+			Assert.fail();
+		} catch (SQLException ex) {
+			Assert.assertEquals("getConnection failed.", ex.getMessage());
+		}
+		Assert.assertEquals(0, getInsertedCount());
+	}
+
+	@Test(timeout = 10_000)
+	public void test_readerFailure() throws Exception {
+		Reader reader = new StringReader(csv(10)) {
+
+			int reads;
+
+			@Override
+			public int read(char[] cbuf, int off, int len) throws IOException {
+				if (++this.reads > 1) {
+					throw new IOException("read failed.");
+				}
+				return super.read(cbuf, off, Math.min(len, 20));
+			}
+		};
+		BulkLoader loader = new BulkLoader(this.stubs.get(), this.users).setChunkRows(1).setQueueChunks(1);
+		try {
+			loader.load(reader);
+			Assert.fail();
+		} catch (IOException ex) {
+			Assert.assertEquals("read failed.", ex.getMessage());
+		}
+
+		// Writers still end and close their connections
+		Assert.assertTrue(this.stubs.connections.stream().allMatch(c -> c.closed));
+	}
+}
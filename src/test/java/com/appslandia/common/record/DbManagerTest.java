@@ -0,0 +1,249 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.record;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.appslandia.common.jdbc.ConnectionImpl;
+import com.appslandia.common.jdbc.JdbcStubs;
+import com.appslandia.common.jdbc.QueryCache;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class DbManagerTest {
+
+	final Table users = new Table("users").keys("id").fields("name");
+	final Table roles = new Table("roles").keys("id").fields("name");
+
+	Record newRecord(Table table, int id) {
+		Record record = table.newRecord();
+		record.set("id", id);
+		record.set("name", "name" + id);
+		return record;
+	}
+
+	@Test
+	public void test_statementStats() throws Exception {
+		JdbcStubs.StubConnection stub = new JdbcStubs.StubDataSource().newConnection();
+
+		try (DbManager dbManager = new DbManager(stub.get(), false)) {
+			dbManager.update(newRecord(this.users, 1), this.users);
+			dbManager.update(newRecord(this.users, 2), this.users);
+			dbManager.delete(newRecord(this.roles, 1), this.roles);
+
+			DbManager.StatementStats userStats = dbManager.getStatementStats().get("users");
+			Assert.assertEquals(1, userStats.getPrepareCount());
+			Assert.assertEquals(1, userStats.getReuseCount());
+			Assert.assertEquals(1, dbManager.getStatementStats().get("roles").getPrepareCount());
+			Assert.assertEquals(2, stub.getPreparedCount());
+		}
+		Assert.assertFalse(stub.closed);
+		Assert.assertTrue(stub.statements.get(0).closed);
+	}
+
+	@Test
+	public void test_eviction() throws Exception {
+		JdbcStubs.StubConnection stub = new JdbcStubs.StubDataSource().newConnection();
+
+		try (DbManager dbManager = new DbManager(stub.get(), false).setStatementCacheSize(2)) {
+			dbManager.update(newRecord(this.users, 1), this.users);
+			dbManager.delete(newRecord(this.users, 1), this.users);
+			dbManager.update(newRecord(this.roles, 1), this.roles);
+
+			Assert.assertEquals(1, dbManager.getStatementStats().get("users").getEvictCount());
+			Assert.assertTrue(stub.statements.get(0).closed);
+
+			// Evicted statements are prepared again
+			dbManager.update(newRecord(this.users, 2), this.users);
+			Assert.assertEquals(3, dbManager.getStatementStats().get("users").getPrepareCount());
+			Assert.assertEquals(4, stub.getPreparedCount());
+		}
+	}
+
+	@Test
+	public void test_eviction_pendingBatch() throws Exception {
+		JdbcStubs.StubConnection stub = new JdbcStubs.StubDataSource().newConnection();
+		stub.autoCommit = false;
+
+		try (DbManager dbManager = new DbManager(stub.get(), false).setStatementCacheSize(1)) {
+			dbManager.updateBatch(newRecord(this.users, 1), this.users);
+			dbManager.delete(newRecord(this.roles, 1), this.roles);
+
+			// Kept until executeBatch
+			JdbcStubs.StubStatement batchStat = stub.statements.get(0);
+			Assert.assertFalse(batchStat.closed);
+
+			dbManager.executeBatch();
+			Assert.assertEquals(1, batchStat.executed.size());
+			Assert.assertTrue(batchStat.closed);
+			Assert.assertFalse(stub.statements.get(1).closed);
+		}
+	}
+
+	@Test
+	public void test_pooledConnection() throws Exception {
+		JdbcStubs.StubDataSource ds = new JdbcStubs.StubDataSource();
+
+		try (ConnectionImpl conn = new ConnectionImpl(ds.get())) {
+			conn.setAutoCommit(false);
+
+			// Rows added but never executed
+			try (DbManager dbManager = new DbManager(conn, false)) {
+				dbManager.updateBatch(newRecord(this.users, 1), this.users);
+			}
+			JdbcStubs.StubConnection stub = ds.connections.get(0);
+			JdbcStubs.StubStatement stat = stub.statements.get(0);
+			Assert.assertFalse(stat.closed);
+			Assert.assertTrue(stat.batch.isEmpty());
+
+			// Next unit of work reuses the statement
+			try (DbManager dbManager = new DbManager(conn, false)) {
+				dbManager.updateBatch(newRecord(this.users, 2), this.users);
+				dbManager.executeBatch();
+			}
+			Assert.assertEquals(1, stub.getPreparedCount());
+			Assert.assertEquals(1, stat.executed.size());
+			Assert.assertEquals(Collections.singletonList(2), Collections.singletonList(stat.executed.get(0).get(2)));
+		}
+	}
+
+	@Test
+	public void test_insertBulk_generatedKeys() throws Exception {
+		Table items = new Table("items").autoKey("id").fields("name");
+		JdbcStubs.StubConnection stub = new JdbcStubs.StubDataSource().newConnection();
+		stub.ds.generatedKeys = newKeys(1, 8);
+
+		List<Record> records = newRecords(items, 8);
+		try (DbManager dbManager = new DbManager(stub.get(), false)) {
+			dbManager.insertBulk(records, items);
+		}
+		Assert.assertEquals(Long.valueOf(1), records.get(0).get("id"));
+		Assert.assertEquals(Long.valueOf(8), records.get(7).get("id"));
+	}
+
+	@Test
+	public void test_insertBulk_lastKeyOnly() throws Exception {
+		Table items = new Table("items").autoKey("id").fields("name");
+		JdbcStubs.StubConnection stub = new JdbcStubs.StubDataSource().newConnection();
+		stub.ds.generatedKeys = newKeys(8, 8);
+
+		List<Record> records = newRecords(items, 8);
+		try (DbManager dbManager = new DbManager(stub.get(), false)) {
+			dbManager.insertBulk(records, items);
+		}
+		for (Record record : records) {
+			Assert.assertNull(record.get("id"));
+		}
+	}
+
+	@Test
+	public void test_insertBatch_generatedKeys() throws Exception {
+		Table items = new Table("items").autoKey("id").fields("name");
+		JdbcStubs.StubConnection stub = new JdbcStubs.StubDataSource().newConnection();
+		stub.ds.generatedKeys = newKeys(1, 2);
+		stub.autoCommit = false;
+
+		List<Record> records = newRecords(items, 2);
+		try (DbManager dbManager = new DbManager(stub.get(), false)) {
+			for (Record record : records) {
+				dbManager.insertBatch(record, items);
+			}
+			dbManager.executeBatch();
+		}
+		Assert.assertEquals(Long.valueOf(1), records.get(0).get("id"));
+		Assert.assertEquals(Long.valueOf(2), records.get(1).get("id"));
+	}
+
+	@Test
+	public void test_insertBatch_noBatchKeys() throws Exception {
+		Table items = new Table("items").autoKey("id").fields("name");
+		JdbcStubs.StubConnection stub = new JdbcStubs.StubDataSource().newConnection();
+		stub.ds.generatedKeys = newKeys(1, 2);
+		stub.ds.batchKeysFail = true;
+		stub.autoCommit = false;
+
+		try (DbManager dbManager = new DbManager(stub.get(), false)) {
+			List<Record> records = newRecords(items, 2);
+			for (Record record : records) {
+				dbManager.insertBatch(record, items);
+			}
+
+			// The batch succeeds without keys
+			dbManager.executeBatch();
+			Assert.assertNull(records.get(0).get("id"));
+			Assert.assertEquals(1, stub.ds.generatedKeysCount.get());
+
+			for (Record record : newRecords(items, 2)) {
+				dbManager.insertBatch(record, items);
+			}
+			dbManager.executeBatch();
+			Assert.assertEquals(1, stub.ds.generatedKeysCount.get());
+			Assert.assertEquals(4, stub.statements.get(0).executed.size());
+		}
+	}
+
+	static List<Object> newKeys(long from, long to) {
+		List<Object> keys = new ArrayList<>();
+		for (long key = from; key <= to; key++) {
+			keys.add(key);
+		}
+		return keys;
+	}
+
+	static List<Record> newRecords(Table table, int count) {
+		List<Record> records = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Record record = table.newRecord();
+			record.set("name", "name" + i);
+			records.add(record);
+		}
+		return records;
+	}
+
+	@Test
+	public void test_commitEvery_invalidatesCache() throws Exception {
+		JdbcStubs.StubConnection stub = new JdbcStubs.StubDataSource().newConnection();
+		stub.autoCommit = false;
+		QueryCache cache = new QueryCache();
+		ConnectionImpl.setQueryCache(cache);
+
+		try (DbManager dbManager = new DbManager(stub.get(), false).setCommitEvery(1)) {
+			dbManager.updateBatch(newRecord(this.users, 1), this.users);
+			long invalidations = cache.getInvalidationCount();
+
+			// The periodic commit invalidates the written tables again
+			dbManager.executeBatch();
+			Assert.assertEquals(1, stub.commitCount.get());
+			Assert.assertEquals(invalidations + 1, cache.getInvalidationCount());
+		} finally {
+			ConnectionImpl.setQueryCache(null);
+		}
+	}
+}
@@ -0,0 +1,129 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.record;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.appslandia.common.record.ValidationPlan.RecordError;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class FieldValidatorsTest {
+
+	final FieldValidators validators = new FieldValidators();
+
+	private static Table newTable() {
+		Table table = new Table("User").key("userId", Types.INTEGER).field("name", Types.VARCHAR).field("status", Types.VARCHAR);
+
+		table.getFields().get(0).addConstraint("required", true);
+		table.getFields().get(1).addConstraint("required", true).addConstraint("maxLength", 5).addConstraint("pattern", "[a-z]+");
+		table.getFields().get(2).addConstraint("validValues", new String[] { "A", "I" });
+		return table;
+	}
+
+	private static Record newRecord(Table table, Integer userId, String name, String status) {
+		Record record = table.newRecord();
+		record.set("userId", userId).set("name", name).set("status", status);
+		return record;
+	}
+
+	@Test
+	public void test_validateRecord() {
+		Table table = newTable();
+
+		this.validators.validateRecord(newRecord(table, 1, "abc", "A"), table);
+		try {
+			this.validators.validateRecord(newRecord(table, 1, "abcdef1", "A"), table);
+			Assert.fail();
+		} catch (ValidatorException ex) {
+			Assert.assertTrue(ex.getMessage().startsWith("field=name"));
+		}
+	}
+
+	@Test
+	public void test_validateRecord_plainRecord() {
+		Table table = newTable();
+
+		Record record = new Record().set("userId", 1).set("NAME", "abc").set("status", "X");
+		try {
+			this.validators.validateRecord(record, table);
+			Assert.fail();
+		} catch (ValidatorException ex) {
+			Assert.assertTrue(ex.getMessage().startsWith("field=status"));
+		}
+	}
+
+	@Test
+	public void test_validateRecord_callback() {
+		Table table = newTable();
+		List<String> fields = new ArrayList<>();
+
+		this.validators.validateRecord(newRecord(table, null, "abcdef1", "X"), table, (fieldName, errors) -> {
+			fields.add(fieldName + ":" + errors.size());
+		});
+		Assert.assertEquals("[userId:1, name:2, status:1]", fields.toString());
+	}
+
+	@Test
+	public void test_validateKey() {
+		Table table = newTable();
+
+		this.validators.validateKey(newRecord(table, 1, null, null), table);
+		try {
+			this.validators.validateKey(newRecord(table, null, null, null), table);
+			Assert.fail();
+		} catch (ValidatorException ex) {
+		}
+	}
+
+	@Test
+	public void test_validateAll() {
+		Table table = newTable();
+		List<Record> records = new ArrayList<>();
+
+		for (int i = 0; i < 5000; i++) {
+			records.add(newRecord(table, i, ((i % 1000) == 7) ? "ab1" : "abc", "A"));
+		}
+		List<RecordError> errors = this.validators.validateAll(records, table, false);
+		Assert.assertEquals(5, errors.size());
+		Assert.assertEquals(7, errors.get(0).getIndex());
+		Assert.assertEquals(4007, errors.get(4).getIndex());
+		Assert.assertTrue(errors.get(0).getFieldErrors().containsKey("name"));
+
+		try {
+			this.validators.validateAll(new LinkedList<>(records), table, true);
+			Assert.fail();
+		} catch (ValidatorException ex) {
+			Assert.assertTrue(ex.getMessage().startsWith("index="));
+		}
+		Assert.assertTrue(this.validators.validateAll(records.subList(0, 7), table, true).isEmpty());
+	}
+}
@@ -0,0 +1,92 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.record;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class SchemaRecordTest {
+
+	@Test
+	public void test() {
+		SchemaRecord record = new RecordSchema("ID", "userName").newRecord();
+		record.set("id", 1).set("USERNAME", "user1");
+
+		Assert.assertEquals(1, record.getInt("Id"));
+		Assert.assertEquals("user1", record.get("username"));
+		Assert.assertEquals(2, record.size());
+	}
+
+	@Test
+	public void test_unset() {
+		SchemaRecord record = new RecordSchema("id", "name").newRecord();
+		record.set("name", null);
+
+		Assert.assertFalse(record.containsKey("id"));
+		Assert.assertTrue(record.containsKey("name"));
+		Assert.assertNull(record.get("id"));
+		Assert.assertEquals(1, record.size());
+
+		record.remove("name");
+		Assert.assertTrue(record.isEmpty());
+	}
+
+	@Test
+	public void test_extras() {
+		SchemaRecord record = new RecordSchema("id").newRecord();
+		record.set("id", 1).set("Extra", "value");
+
+		Assert.assertEquals("value", record.get("EXTRA"));
+		Assert.assertEquals(Arrays.asList("id", "extra"), Arrays.asList(record.keySet().toArray()));
+	}
+
+	@Test
+	public void test_duplicateNames() {
+		SchemaRecord record = new SchemaRecord(new RecordSchema("id", "ID"), new Object[] { 1, 2 });
+
+		Assert.assertEquals(2, record.<Integer>get("id").intValue());
+		Assert.assertEquals(1, record.size());
+	}
+
+	@Test
+	public void test_entrySet() {
+		SchemaRecord record = new RecordSchema("id", "name").newRecord();
+		record.set("id", 1).set("name", "name1");
+
+		Iterator<Map.Entry<String, Object>> iter = record.entrySet().iterator();
+		iter.next().setValue(2);
+		iter.next();
+		iter.remove();
+
+		Assert.assertEquals(2, record.getInt("id"));
+		Assert.assertFalse(record.containsKey("name"));
+	}
+}
@@ -0,0 +1,118 @@
+// The MIT License (MIT)
+// Copyright © 2015 AppsLandia. All rights reserved.
+
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.appslandia.common.record;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.appslandia.common.jdbc.Sql;
+
+/**
+ *
+ * @author <a href="mailto:haducloc13@gmail.com">Loc Ha</a>
+ *
+ */
+public class TableTest {
+
+	@Test
+	public void test_getBulkInsertSql() {
+		Table table = new Table("users").autoKey("id").fields("name", "email");
+
+		Sql sql = table.getBulkInsertSql(2);
+		Assert.assertEquals("INSERT INTO users ( name, email ) VALUES ( ?,? ), ( ?,? )", sql.getTranslatedSql());
+		Assert.assertEquals("users.insertSql.2", sql.getName());
+
+		Assert.assertTrue(sql == table.getBulkInsertSql(2));
+	}
+
+	@Test
+	public void test_getBulkInsertSizes() {
+		Table table = new Table("users").keys("id").fields("name");
+		Assert.assertArrayEquals(new int[] { 8, 64, 256 }, table.getBulkInsertSizes());
+
+		// 256 * 10 exceeds MAX_BULK_INSERT_PARAMS
+		Table wideTable = new Table("wide").keys("id").fields("f1", "f2", "f3", "f4", "f5", "f6", "f7", "f8", "f9");
+		Assert.assertArrayEquals(new int[] { 8, 64 }, wideTable.getBulkInsertSizes());
+	}
+
+	@Test
+	public void test_getGetManySql() {
+		Table table = new Table("users").keys("id").fields("name");
+
+		Sql sql = table.getGetManySql(3);
+		Assert.assertEquals("SELECT * FROM users WHERE id IN (?,?,?)", sql.getTranslatedSql());
+	}
+
+	@Test
+	public void test_getExistsManySql_compositeKeys() {
+		Table table = new Table("roles").keys("userId", "roleId");
+
+		Sql sql = table.getExistsManySql(2);
+		Assert.assertEquals("SELECT userId, roleId FROM roles WHERE (userId=? AND roleId=?) OR (userId=? AND roleId=?)", sql.getTranslatedSql());
+	}
+
+	@Test
+	public void test_getUpsertSql() {
+		Table table = new Table("users").keys("id").fields("name", "email");
+
+		Assert.assertEquals("INSERT INTO users ( id, name, email ) VALUES ( ?,?,? ) ON CONFLICT ( id ) DO UPDATE SET name=EXCLUDED.name, email=EXCLUDED.email",
+				table.getUpsertSql(UpsertType.ON_CONFLICT).getTranslatedSql());
+		Assert.assertEquals("INSERT INTO users ( id, name, email ) VALUES ( ?,?,? ) ON DUPLICATE KEY UPDATE name=VALUES(name), email=VALUES(email)",
+				table.getUpsertSql(UpsertType.ON_DUPLICATE_KEY).getTranslatedSql());
+
+		Sql sql = table.getUpsertSql(UpsertType.MERGE);
+		Assert.assertEquals("MERGE INTO users t USING ( VALUES ( ?,?,? ) ) s ( id, name, email ) ON ( t.id=s.id ) WHEN MATCHED THEN UPDATE SET name=s.name, email=s.email"
+				+ " WHEN NOT MATCHED THEN INSERT ( id, name, email ) VALUES ( s.id, s.name, s.email )", sql.getTranslatedSql());
+		Assert.assertEquals("users.upsertSql.MERGE", sql.getName());
+		Assert.assertTrue(sql == table.getUpsertSql(UpsertType.MERGE));
+
+		Assert.assertEquals(sql.getTranslatedSql() + ";", table.getUpsertSql(UpsertType.MERGE_SQL_SERVER).getTranslatedSql());
+		Assert.assertEquals("MERGE INTO users t USING ( SELECT ? id, ? name, ? email FROM dual ) s ON ( t.id=s.id ) WHEN MATCHED THEN UPDATE SET name=s.name, email=s.email"
+				+ " WHEN NOT MATCHED THEN INSERT ( id, name, email ) VALUES ( s.id, s.name, s.email )", table.getUpsertSql(UpsertType.MERGE_ORACLE).getTranslatedSql());
+	}
+
+	@Test
+	public void test_getUpsertSql_noUpdatableFields() {
+		Table table = new Table("roles").keys("userId", "roleId");
+
+		Assert.assertEquals("INSERT INTO roles ( userId, roleId ) VALUES ( ?,? ) ON CONFLICT ( userId, roleId ) DO NOTHING",
+				table.getUpsertSql(UpsertType.ON_CONFLICT).getTranslatedSql());
+		Assert.assertEquals("INSERT INTO roles ( userId, roleId ) VALUES ( ?,? ) ON DUPLICATE KEY UPDATE userId=userId",
+				table.getUpsertSql(UpsertType.ON_DUPLICATE_KEY).getTranslatedSql());
+	}
+
+	@Test
+	public void test_UpsertType_of() {
+		Assert.assertEquals(UpsertType.ON_CONFLICT, UpsertType.of("PostgreSQL"));
+		Assert.assertEquals(UpsertType.ON_DUPLICATE_KEY, UpsertType.of("MySQL"));
+		Assert.assertEquals(UpsertType.ON_DUPLICATE_KEY, UpsertType.of("MariaDB"));
+		Assert.assertEquals(UpsertType.MERGE_SQL_SERVER, UpsertType.of("Microsoft SQL Server"));
+		Assert.assertEquals(UpsertType.MERGE_ORACLE, UpsertType.of("Oracle"));
+		Assert.assertEquals(UpsertType.MERGE, UpsertType.of("H2"));
+		Assert.assertEquals(UpsertType.MERGE, UpsertType.of("DB2/LINUXX8664"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_UpsertType_of_unknown() {
+		UpsertType.of("Apache Derby");
+	}
+}
@@ -51,4 +51,13 @@ public class ValidValuesValidatorTest {
 		FieldError error = validator.validate("X", new String[] { "A", "B", "C" });
 		Assert.assertNotNull(error);
 	}
+
+	@Test
+	public void test_compile() {
+		FieldValidator.Compiled compiled = validator.compile(new String[] { "A", "B", "C" });
+
+		Assert.assertNull(compiled.validate("B"));
+		Assert.assertNull(compiled.validate(null));
+		Assert.assertNotNull(compiled.validate("X"));
+	}
 }
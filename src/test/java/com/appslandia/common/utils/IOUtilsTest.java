@@ -23,6 +23,12 @@ package com.appslandia.common.utils;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -67,4 +73,46 @@ public class IOUtilsTest {
 		} catch (IOException ex) {
 		}
 	}
+
+	@Test
+	public void test_copyFromIsToChannel() throws IOException {
+		// Larger than the copy buffer
+		byte[] src = RandomUtils.nextBytes(150 * 1024);
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+		long count = IOUtils.copy(new ByteArrayInputStream(src), Channels.newChannel(os));
+		Assert.assertEquals(src.length, count);
+		Assert.assertArrayEquals(src, os.toByteArray());
+	}
+
+	@Test
+	public void test_copyFromChannelToChannel() throws IOException {
+		byte[] src = RandomUtils.nextBytes(100 * 1024);
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+		long count = IOUtils.copy(Channels.newChannel(new ByteArrayInputStream(src)), Channels.newChannel(os));
+		Assert.assertEquals(src.length, count);
+		Assert.assertArrayEquals(src, os.toByteArray());
+	}
+
+	@Test
+	public void test_copyFromFileChannel() throws IOException {
+		byte[] src = RandomUtils.nextBytes(100 * 1024);
+		Path file = Files.createTempFile("ioutils", ".bin");
+		try {
+			Files.write(file, src);
+			ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+			try (FileChannel fc = FileChannel.open(file, StandardOpenOption.READ)) {
+				fc.position(1000);
+
+				// From the current position to the end
+				Assert.assertEquals(src.length - 1000, IOUtils.copy(fc, Channels.newChannel(os)));
+				Assert.assertEquals(src.length, fc.position());
+			}
+			Assert.assertArrayEquals(Arrays.copyOfRange(src, 1000, src.length), os.toByteArray());
+		} finally {
+			Files.delete(file);
+		}
+	}
 }